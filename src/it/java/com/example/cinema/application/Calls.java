@@ -2,6 +2,7 @@ package com.example.cinema.application;
 
 import com.example.cinema.domain.SeatStatus;
 import com.example.cinema.domain.ShowByReservation;
+import com.example.cinema.domain.ShowByReservationId;
 import com.example.cinema.domain.ShowCommand;
 import com.example.wallet.application.WalletEntity;
 import com.example.wallet.application.WalletResponse;
@@ -58,6 +59,30 @@ public class Calls {
       .params(new ShowCommand.ReserveSeat(walletId, reservationId, seatNumber)));
   }
 
+  public void cancelReservation(String showId, String reservationId) {
+    execute(componentClient.forEventSourcedEntity(showId)
+      .call(ShowEntity::cancelReservation)
+      .params(reservationId));
+  }
+
+  public void confirmPayment(String showId, String reservationId) {
+    execute(componentClient.forEventSourcedEntity(showId)
+      .call(ShowEntity::confirmPayment)
+      .params(reservationId));
+  }
+
+  public void createPartitionedShow(String showId, String title, int maxSeats, int partitionSize) {
+    execute(componentClient.forAction()
+      .call(PartitionedShowFacade::create)
+      .params(showId, new PartitionedShowFacade.CreatePartitionedShow(title, maxSeats, partitionSize)));
+  }
+
+  public ShowAvailabilityView.ShowsAvailability getShowsAvailability(int minAvailable) {
+    return execute(componentClient.forView()
+      .call(ShowAvailabilityView::getShows)
+      .params(minAvailable));
+  }
+
   public ResponseEntity<ShowByReservation> getShowByReservation(String reservationId) {
     return webClient.get().uri("/show/by-reservation-id/" + reservationId)
       .retrieve()
@@ -72,6 +97,20 @@ public class Calls {
       .block();
   }
 
+  public ResponseEntity<ShowByReservationId> getShowByReservationId(String reservationId) {
+    return webClient.get().uri("/show-by-reservation/" + reservationId)
+      .retrieve()
+      .toEntity(ShowByReservationId.class)
+      .onErrorResume(WebClientResponseException.class, error -> {
+        if (error.getStatusCode().is4xxClientError()) {
+          return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(null));
+        } else {
+          return Mono.error(error);
+        }
+      })
+      .block();
+  }
+
   public void createWallet(String walletId, int amount) {
     execute(componentClient.forEventSourcedEntity(walletId)
       .call(WalletEntity::create)
@@ -83,10 +122,10 @@ public class Calls {
       .call(WalletEntity::get));
   }
 
-  public void chargeWallet(String walletId, WalletCommand.ChargeWallet chargeWallet) {
+  public void authorizeCharge(String walletId, WalletCommand.AuthorizeCharge authorizeCharge) {
     execute(componentClient.forEventSourcedEntity(walletId)
-      .call(WalletEntity::charge)
-      .params(chargeWallet)
+      .call(WalletEntity::authorize)
+      .params(authorizeCharge)
       .withMetadata(Metadata.EMPTY.add("skip-failure-simulation", "true")));
   }
 
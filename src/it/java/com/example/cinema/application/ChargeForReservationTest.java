@@ -2,6 +2,7 @@ package com.example.cinema.application;
 
 import com.example.Main;
 import com.example.cinema.domain.ShowEvent.SeatReserved;
+import com.example.common.Money;
 import com.example.wallet.application.WalletResponse;
 import kalix.javasdk.Metadata;
 import kalix.javasdk.testkit.EventingTestKit.IncomingMessages;
@@ -17,7 +18,6 @@ import org.springframework.context.annotation.Import;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 
-import java.math.BigDecimal;
 import java.time.Duration;
 
 import static java.time.Duration.ofSeconds;
@@ -40,8 +40,8 @@ public class ChargeForReservationTest extends KalixIntegrationTestKitSupport {
     //given
     IncomingMessages events = kalixTestKit.getEventSourcedEntityIncomingMessages("cinema-show");
     String walletId = "w1";
-    SeatReserved seatReserved1 = new SeatReserved("s1", walletId, "r1", 1, new BigDecimal(100));
-    SeatReserved seatReserved2 = new SeatReserved("s1", walletId, "r2", 1, new BigDecimal(100));
+    SeatReserved seatReserved1 = new SeatReserved("s1", walletId, "r1", 1, Money.of(100));
+    SeatReserved seatReserved2 = new SeatReserved("s1", walletId, "r2", 1, Money.of(100));
     String subject = "s1";
 
     calls.createWallet(walletId, 500);
@@ -61,7 +61,7 @@ public class ChargeForReservationTest extends KalixIntegrationTestKitSupport {
         .ignoreExceptions()
         .untilAsserted(() -> {
           WalletResponse wallet = calls.getWallet(walletId);
-          assertThat(wallet.balance()).isEqualTo(new BigDecimal(300));
+          assertThat(wallet.balance()).isEqualTo(Money.of(300));
         });
   }
 }
@@ -0,0 +1,72 @@
+package com.example.cinema.application;
+
+import com.example.Main;
+import com.example.cinema.application.SagaLoadGenerator.LoadSettings;
+import com.example.cinema.application.SagaLoadGenerator.Outcome;
+import com.example.cinema.application.SagaLoadGenerator.PlannedReservation;
+import com.example.cinema.domain.ShowCommand.ReserveSeat;
+import kalix.javasdk.client.ComponentClient;
+import kalix.spring.testkit.KalixIntegrationTestKitSupport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+
+import static com.example.cinema.domain.ReservationStatus.CONFIRMED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Run with {@code mvn test -Dtest=ChoreographyLoadTest -Dload.enabled=true}, see {@link LoadSettings} for options.
+ * A reservation is finished when it's archived, see {@link ArchiveFinishedReservations}.
+ */
+@DirtiesContext
+@SpringBootTest(classes = Main.class)
+@ActiveProfiles("choreography")
+@EnabledIfSystemProperty(named = "load.enabled", matches = "true")
+public class ChoreographyLoadTest extends KalixIntegrationTestKitSupport {
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  @Autowired
+  private ComponentClient componentClient;
+
+  @Test
+  public void shouldReportTimeToTerminalState() throws Exception {
+    //given
+    var loadGenerator = new SagaLoadGenerator(componentClient, LoadSettings.fromSystemProperties());
+
+    //when
+    var report = loadGenerator.run("choreography", new SagaLoadGenerator.Saga() {
+      @Override
+      public CompletionStage<Optional<Outcome>> start(PlannedReservation reservation) {
+        return componentClient.forEventSourcedEntity(reservation.showId())
+          .call(ShowEntity::reserve)
+          .params(new ReserveSeat(reservation.walletId(), reservation.reservationId(), reservation.seatNumber()))
+          .execute()
+          .thenApply(response -> switch (response) {
+            case Response.Failure __ -> Optional.of(Outcome.FAILED);
+            case Response.Success __ -> Optional.empty();
+          });
+      }
+
+      @Override
+      public CompletionStage<Optional<Outcome>> poll(PlannedReservation reservation) {
+        return componentClient.forValueEntity(reservation.reservationId())
+          .call(ArchivedReservationEntity::get)
+          .execute()
+          .thenApply(archived -> Optional.of(archived.status() == CONFIRMED ? Outcome.COMPLETED : Outcome.FAILED));
+      }
+    });
+
+    //then
+    logger.info(report.toString());
+    assertThat(report.timedOut()).isZero();
+  }
+}
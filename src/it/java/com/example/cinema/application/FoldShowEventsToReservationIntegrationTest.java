@@ -2,6 +2,7 @@ package com.example.cinema.application;
 
 import com.example.Main;
 import com.example.cinema.domain.Reservation;
+import com.example.common.Money;
 import kalix.spring.testkit.KalixIntegrationTestKitSupport;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,7 +15,6 @@ import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
-import java.math.BigDecimal;
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
@@ -54,10 +54,10 @@ class FoldShowEventsToReservationIntegrationTest extends KalixIntegrationTestKit
       .ignoreExceptions()
       .untilAsserted(() -> {
         Reservation result = getReservation(reservationId1).getBody();
-        assertThat(result).isEqualTo(new Reservation(reservationId1, showId, walletId, new BigDecimal(100)));
+        assertThat(result).isEqualTo(new Reservation(reservationId1, showId, walletId, Money.of(100)));
 
         Reservation result2 = getReservation(reservationId2).getBody();
-        assertThat(result2).isEqualTo(new Reservation(reservationId2, showId, walletId, new BigDecimal(100)));
+        assertThat(result2).isEqualTo(new Reservation(reservationId2, showId, walletId, Money.of(100)));
       });
   }
 
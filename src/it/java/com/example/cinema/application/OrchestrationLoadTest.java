@@ -0,0 +1,78 @@
+package com.example.cinema.application;
+
+import com.example.Main;
+import com.example.cinema.application.SagaLoadGenerator.LoadSettings;
+import com.example.cinema.application.SagaLoadGenerator.Outcome;
+import com.example.cinema.application.SagaLoadGenerator.PlannedReservation;
+import com.example.cinema.application.SeatReservationWorkflow.ReserveSeat;
+import com.example.cinema.domain.SeatReservationStatus;
+import kalix.javasdk.client.ComponentClient;
+import kalix.spring.testkit.KalixIntegrationTestKitSupport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+
+import static com.example.cinema.domain.ShowCreator.INITIAL_PRICE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Run with {@code mvn test -Dtest=OrchestrationLoadTest -Dload.enabled=true}, see {@link LoadSettings} for options.
+ */
+@DirtiesContext
+@SpringBootTest(classes = Main.class)
+@ActiveProfiles("orchestration")
+@EnabledIfSystemProperty(named = "load.enabled", matches = "true")
+public class OrchestrationLoadTest extends KalixIntegrationTestKitSupport {
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  @Autowired
+  private WebClient webClient;
+  @Autowired
+  private ComponentClient componentClient;
+
+  @Test
+  public void shouldReportTimeToTerminalState() throws Exception {
+    //given
+    var loadGenerator = new SagaLoadGenerator(componentClient, LoadSettings.fromSystemProperties());
+
+    //when
+    var report = loadGenerator.run("orchestration", new SagaLoadGenerator.Saga() {
+      @Override
+      public CompletionStage<Optional<Outcome>> start(PlannedReservation reservation) {
+        return webClient.post().uri("/seat-reservation/" + reservation.reservationId())
+          .bodyValue(new ReserveSeat(reservation.showId(), reservation.seatNumber(), INITIAL_PRICE, reservation.walletId()))
+          .retrieve()
+          .toBodilessEntity()
+          .toFuture()
+          .thenApply(__ -> Optional.empty());
+      }
+
+      @Override
+      public CompletionStage<Optional<Outcome>> poll(PlannedReservation reservation) {
+        return webClient.get().uri("/seat-reservation/" + reservation.reservationId())
+          .retrieve()
+          .bodyToMono(SeatReservationStatus.class)
+          .toFuture()
+          .thenApply(status -> switch (status) {
+            case COMPLETED -> Optional.of(Outcome.COMPLETED);
+            case SEAT_RESERVATION_FAILED, SEAT_RESERVATION_REFUNDED -> Optional.of(Outcome.FAILED);
+            default -> Optional.empty();
+          });
+      }
+    });
+
+    //then
+    logger.info(report.toString());
+    assertThat(report.timedOut()).isZero();
+  }
+}
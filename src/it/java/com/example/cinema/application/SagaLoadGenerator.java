@@ -0,0 +1,188 @@
+package com.example.cinema.application;
+
+import com.example.cinema.domain.ShowCommand.CreateShow;
+import com.example.wallet.application.WalletEntity;
+import kalix.javasdk.client.ComponentClient;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.example.cinema.application.TestUtils.randomId;
+import static com.example.cinema.domain.ShowCreator.INITIAL_PRICE;
+import static com.example.cinema.domain.ShowCreator.MAX_SEATS;
+import static java.util.concurrent.CompletableFuture.delayedExecutor;
+
+/**
+ * Open-loop load for the seat reservation Saga. Reservations are started at a fixed arrival rate, independently of
+ * how fast the previous ones finish, and each one is polled until it reaches a terminal state. Latency is measured
+ * from the planned start, so a backlog in the service is not hidden by a slower load generator.
+ * <p>
+ * Each reservation uses its own wallet, a {@code walletFailureRatio} of wallets has no funds. With probability
+ * {@code seatContention} a reservation competes for one of the {@link #HOT_SEATS} first seats of a show, otherwise
+ * it gets a seat nobody else reserves.
+ */
+class SagaLoadGenerator {
+
+  static final int HOT_SEATS = 10;
+
+  enum Outcome {
+    COMPLETED, FAILED
+  }
+
+  record PlannedReservation(String reservationId, String showId, int seatNumber, String walletId) {
+  }
+
+  /**
+   * Saga style under test, both methods return a terminal outcome or empty if the Saga is still running.
+   */
+  interface Saga {
+    CompletionStage<Optional<Outcome>> start(PlannedReservation reservation);
+
+    CompletionStage<Optional<Outcome>> poll(PlannedReservation reservation);
+  }
+
+  record LoadSettings(int reservations, int arrivalRate, double seatContention, double walletFailureRatio,
+                      Duration pollInterval, Duration timeout) {
+
+    static LoadSettings fromSystemProperties() {
+      return new LoadSettings(
+        Integer.getInteger("load.reservations", 2000),
+        Integer.getInteger("load.arrival-rate", 200),
+        Double.parseDouble(System.getProperty("load.seat-contention", "0.1")),
+        Double.parseDouble(System.getProperty("load.wallet-failure-ratio", "0.1")),
+        Duration.ofMillis(Long.getLong("load.poll-interval-ms", 20)),
+        Duration.ofSeconds(Long.getLong("load.timeout-s", 120)));
+    }
+  }
+
+  record Report(String sagaStyle, LoadSettings settings, long completed, long failed, long timedOut,
+                Duration elapsed, Histogram timeToTerminalState) {
+
+    double throughput() {
+      return (completed + failed) * 1000.0 / elapsed.toMillis();
+    }
+
+    @Override
+    public String toString() {
+      return "%s: %s, %d completed, %d failed, %d timed out in %d ms, %.1f sagas/s, time to terminal state [ms] p50=%.1f p99=%.1f p999=%.1f max=%.1f"
+        .formatted(sagaStyle, settings, completed, failed, timedOut, elapsed.toMillis(), throughput(),
+          percentile(50), percentile(99), percentile(99.9), timeToTerminalState.getMaxValue() / 1000.0);
+    }
+
+    private double percentile(double percentile) {
+      return timeToTerminalState.getValueAtPercentile(percentile) / 1000.0;
+    }
+  }
+
+  private final ComponentClient componentClient;
+  private final LoadSettings settings;
+  private final Random random = new Random(42);
+
+  SagaLoadGenerator(ComponentClient componentClient, LoadSettings settings) {
+    this.componentClient = componentClient;
+    this.settings = settings;
+  }
+
+  Report run(String sagaStyle, Saga saga) throws Exception {
+    List<PlannedReservation> reservations = plan();
+    createShowsAndWallets(reservations);
+
+    Histogram timeToTerminalState = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(10), 3);
+    AtomicLong completed = new AtomicLong();
+    AtomicLong failed = new AtomicLong();
+    var running = ConcurrentHashMap.<String>newKeySet();
+    List<CompletableFuture<Void>> sagas = new ArrayList<>(reservations.size());
+    long intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.arrivalRate();
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    long startNanos = System.nanoTime();
+    try {
+      for (int i = 0; i < reservations.size(); i++) {
+        PlannedReservation reservation = reservations.get(i);
+        long plannedStartNanos = startNanos + i * intervalNanos;
+        CompletableFuture<Void> sagaCompleted = new CompletableFuture<>();
+        sagas.add(sagaCompleted);
+        running.add(reservation.reservationId());
+        scheduler.schedule(() ->
+            untilTerminal(saga, reservation, saga.start(reservation)).thenAccept(outcome -> {
+              timeToTerminalState.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - plannedStartNanos));
+              (outcome == Outcome.COMPLETED ? completed : failed).incrementAndGet();
+              running.remove(reservation.reservationId());
+              sagaCompleted.complete(null);
+            }),
+          plannedStartNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+      }
+      try {
+        CompletableFuture.allOf(sagas.toArray(CompletableFuture[]::new)).get(settings.timeout().toMillis(), TimeUnit.MILLISECONDS);
+      } catch (TimeoutException e) {
+        //reported as timed out
+      }
+    } finally {
+      scheduler.shutdownNow();
+    }
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+    return new Report(sagaStyle, settings, completed.get(), failed.get(), running.size(), elapsed, timeToTerminalState.copy());
+  }
+
+  private CompletionStage<Outcome> untilTerminal(Saga saga, PlannedReservation reservation, CompletionStage<Optional<Outcome>> step) {
+    return step
+      .exceptionally(__ -> Optional.empty())
+      .thenCompose(outcome -> outcome
+        .map(CompletableFuture::completedFuture)
+        .orElseGet(() -> CompletableFuture
+          .supplyAsync(() -> null, delayedExecutor(settings.pollInterval().toMillis(), TimeUnit.MILLISECONDS))
+          .thenCompose(__ -> untilTerminal(saga, reservation, saga.poll(reservation)))));
+  }
+
+  private List<PlannedReservation> plan() {
+    int uniqueSeatsPerShow = MAX_SEATS - HOT_SEATS;
+    int shows = settings.reservations() / uniqueSeatsPerShow + 1;
+    List<String> showIds = new ArrayList<>(shows);
+    for (int i = 0; i < shows; i++) {
+      showIds.add(randomId());
+    }
+    List<PlannedReservation> reservations = new ArrayList<>(settings.reservations());
+    for (int i = 0; i < settings.reservations(); i++) {
+      String reservationId = randomId();
+      if (random.nextDouble() < settings.seatContention()) {
+        String showId = showIds.get(random.nextInt(shows));
+        reservations.add(new PlannedReservation(reservationId, showId, random.nextInt(HOT_SEATS), "w-" + reservationId));
+      } else {
+        String showId = showIds.get(i / uniqueSeatsPerShow);
+        reservations.add(new PlannedReservation(reservationId, showId, HOT_SEATS + i % uniqueSeatsPerShow, "w-" + reservationId));
+      }
+    }
+    return reservations;
+  }
+
+  private void createShowsAndWallets(List<PlannedReservation> reservations) throws Exception {
+    List<CompletableFuture<?>> calls = new ArrayList<>();
+    reservations.stream().map(PlannedReservation::showId).distinct().forEach(showId ->
+      calls.add(componentClient.forEventSourcedEntity(showId)
+        .call(ShowEntity::create)
+        .params(new CreateShow("load test", MAX_SEATS))
+        .execute()
+        .toCompletableFuture()));
+    for (PlannedReservation reservation : reservations) {
+      int balance = random.nextDouble() < settings.walletFailureRatio() ? 0 : INITIAL_PRICE.toBigDecimal().intValueExact();
+      calls.add(componentClient.forEventSourcedEntity(reservation.walletId())
+        .call(WalletEntity::create)
+        .params(balance)
+        .execute()
+        .toCompletableFuture());
+    }
+    CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(settings.timeout().toMillis(), TimeUnit.MILLISECONDS);
+  }
+}
@@ -4,8 +4,9 @@ import com.example.Main;
 import com.example.cinema.application.SeatReservationWorkflow.ReserveSeat;
 import com.example.cinema.domain.SeatReservationStatus;
 import com.example.cinema.domain.SeatStatus;
+import com.example.common.Money;
 import com.example.wallet.application.WalletResponse;
-import com.example.wallet.domain.WalletCommand.ChargeWallet;
+import com.example.wallet.domain.WalletCommand.AuthorizeCharge;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -14,12 +15,11 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.web.reactive.function.client.WebClient;
 
-import java.math.BigDecimal;
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 import static com.example.cinema.application.TestUtils.randomId;
-import static com.example.cinema.domain.SeatReservationStatus.SEAT_RESERVATION_REFUNDED;
+import static com.example.cinema.domain.SeatReservationStatus.SEAT_RESERVATION_FAILED;
 import static java.time.temporal.ChronoUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.http.HttpStatus.OK;
@@ -48,7 +48,7 @@ class SeatReservationWorkflowTest {
     calls.createWallet(walletId, 200);
     calls.createShow(showId, "pulp fiction");
 
-    ReserveSeat reserveSeat = new ReserveSeat(showId, seatNumber, new BigDecimal(100), walletId);
+    ReserveSeat reserveSeat = new ReserveSeat(showId, seatNumber, Money.of(100), walletId);
 
     //when
     ResponseEntity<Void> reservationResponse = reserveSeat(reservationId, reserveSeat);
@@ -63,7 +63,7 @@ class SeatReservationWorkflowTest {
         assertThat(status).isEqualTo(SeatReservationStatus.COMPLETED);
 
         WalletResponse walletResponse = calls.getWallet(walletId);
-        assertThat(walletResponse.balance()).isEqualTo(new BigDecimal(200 - 100));
+        assertThat(walletResponse.balance()).isEqualTo(Money.of(200 - 100));
 
         SeatStatus seatStatus = calls.getSeatStatus(showId, seatNumber);
         assertThat(seatStatus).isEqualTo(SeatStatus.PAID);
@@ -81,7 +81,7 @@ class SeatReservationWorkflowTest {
     calls.createWallet(walletId, 50);
     calls.createShow(showId, "pulp fiction");
 
-    ReserveSeat reserveSeat = new ReserveSeat(showId, seatNumber, new BigDecimal(100), walletId);
+    ReserveSeat reserveSeat = new ReserveSeat(showId, seatNumber, Money.of(100), walletId);
 
     //when
     ResponseEntity<Void> reservationResponse = reserveSeat(reservationId, reserveSeat);
@@ -96,7 +96,7 @@ class SeatReservationWorkflowTest {
         assertThat(status).isEqualTo(SeatReservationStatus.SEAT_RESERVATION_FAILED);
 
         WalletResponse walletResponse = calls.getWallet(walletId);
-        assertThat(walletResponse.balance()).isEqualTo(new BigDecimal(50));
+        assertThat(walletResponse.balance()).isEqualTo(Money.of(50));
 
         SeatStatus seatStatus = calls.getSeatStatus(showId, seatNumber);
         assertThat(seatStatus).isEqualTo(SeatStatus.AVAILABLE);
@@ -104,7 +104,7 @@ class SeatReservationWorkflowTest {
   }
 
   @Test
-  public void shouldCancelReservationInCaseOfWalletTimeoutAndRefundMoney() {
+  public void shouldCancelReservationInCaseOfWalletTimeoutAndVoidCharge() {
     //given
     var walletId = randomId();
     var showId = randomId();
@@ -114,14 +114,14 @@ class SeatReservationWorkflowTest {
     calls.createWallet(walletId, 200);
     calls.createShow(showId, "pulp fiction");
 
-    ReserveSeat reserveSeat = new ReserveSeat(showId, seatNumber, new BigDecimal(100), walletId);
+    ReserveSeat reserveSeat = new ReserveSeat(showId, seatNumber, Money.of(100), walletId);
 
     //when
     ResponseEntity<Void> reservationResponse = reserveSeat(reservationId, reserveSeat);
     assertThat(reservationResponse.getStatusCode()).isEqualTo(OK);
 
-    //simulating charging after timeout
-    calls.chargeWallet(walletId, new ChargeWallet(new BigDecimal(100), reservationId, randomId()));
+    //simulating charge authorization after timeout
+    calls.authorizeCharge(walletId, new AuthorizeCharge(Money.of(100), reservationId, randomId()));
 
     //then
     await()
@@ -130,16 +130,55 @@ class SeatReservationWorkflowTest {
       .pollInterval(Duration.ofSeconds(1))
       .untilAsserted(() -> {
         SeatReservationStatus status = getReservationStatus(reservationId);
-        assertThat(status).isEqualTo(SEAT_RESERVATION_REFUNDED);
+        assertThat(status).isEqualTo(SEAT_RESERVATION_FAILED);
 
         WalletResponse walletResponse = calls.getWallet(walletId);
-        assertThat(walletResponse.balance()).isEqualTo(new BigDecimal(200));
+        assertThat(walletResponse.balance()).isEqualTo(Money.of(200));
 
         SeatStatus seatStatus = calls.getSeatStatus(showId, seatNumber);
         assertThat(seatStatus).isEqualTo(SeatStatus.AVAILABLE);
       });
   }
 
+  @Test
+  public void shouldVoidChargeIfSeatHoldExpiredAndSeatWasSoldAgain() {
+    //given
+    var walletId = randomId();
+    var showId = randomId();
+    var reservationId = randomId();
+    var seatNumber = 10;
+
+    calls.createWallet(walletId, 200);
+    calls.createShow(showId, "pulp fiction");
+    //the seat is held for the reservation, the hold expires, then the seat is reserved and paid by someone else
+    calls.reserveSeat(showId, walletId, reservationId, seatNumber);
+    calls.cancelReservation(showId, reservationId);
+    var otherReservationId = randomId();
+    calls.reserveSeat(showId, randomId(), otherReservationId, seatNumber);
+    calls.confirmPayment(showId, otherReservationId);
+
+    ReserveSeat reserveSeat = new ReserveSeat(showId, seatNumber, Money.of(100), walletId);
+
+    //when
+    ResponseEntity<Void> reservationResponse = reserveSeat(reservationId, reserveSeat);
+    assertThat(reservationResponse.getStatusCode()).isEqualTo(OK);
+
+    //then
+    await()
+      .atMost(10, TimeUnit.of(SECONDS))
+      .ignoreExceptions()
+      .untilAsserted(() -> {
+        SeatReservationStatus status = getReservationStatus(reservationId);
+        assertThat(status).isEqualTo(SEAT_RESERVATION_FAILED);
+
+        WalletResponse walletResponse = calls.getWallet(walletId);
+        assertThat(walletResponse.balance()).isEqualTo(Money.of(200));
+
+        SeatStatus seatStatus = calls.getSeatStatus(showId, seatNumber);
+        assertThat(seatStatus).isEqualTo(SeatStatus.PAID);
+      });
+  }
+
   private ResponseEntity<Void> reserveSeat(String reservationId, ReserveSeat reserveSeat) {
     return webClient.post().uri("/seat-reservation/" + reservationId)
       .bodyValue(reserveSeat)
@@ -0,0 +1,77 @@
+package com.example.cinema.application;
+
+import com.example.Main;
+import com.example.cinema.domain.ShowAvailability;
+import com.example.cinema.domain.ShowPartitions;
+import kalix.spring.testkit.KalixIntegrationTestKitSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.example.cinema.application.TestUtils.randomId;
+import static java.time.temporal.ChronoUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testcontainers.shaded.org.awaitility.Awaitility.await;
+
+@DirtiesContext
+@SpringBootTest(classes = Main.class)
+@ActiveProfiles("choreography")
+class ShowAvailabilityViewIntegrationTest extends KalixIntegrationTestKitSupport {
+
+  @Autowired
+  private Calls calls;
+
+  @Test
+  public void shouldCountPaidSeats() {
+    //given
+    var showId = randomId();
+    var walletId = randomId();
+    calls.createShow(showId, "title");
+    calls.createWallet(walletId, 500);
+
+    //when
+    calls.reserveSeat(showId, walletId, randomId(), 3);
+
+    //then
+    await()
+      .atMost(10, TimeUnit.of(SECONDS))
+      .ignoreExceptions()
+      .untilAsserted(() -> {
+        var shows = calls.getShowsAvailability(1).shows();
+        assertThat(shows).contains(new ShowAvailability(showId, showId, "title", 99, 0, 1));
+      });
+  }
+
+  @Test
+  public void shouldKeepPartitionsAsSeparateRowsOfShow() {
+    //given
+    var showId = randomId();
+    var walletId = randomId();
+    calls.createPartitionedShow(showId, "title", 150, 100);
+    calls.createWallet(walletId, 500);
+
+    //when
+    calls.reserveSeat(showId + ShowPartitions.PARTITION_SEPARATOR + 1, walletId, randomId(), 120);
+
+    //then
+    await()
+      .atMost(10, TimeUnit.of(SECONDS))
+      .ignoreExceptions()
+      .untilAsserted(() -> {
+        var partitions = calls.getShowsAvailability(0).shows().stream()
+          .filter(show -> show.parentShowId().equals(showId))
+          .toList();
+        assertThat(partitions).containsExactlyInAnyOrder(
+          new ShowAvailability(showId + ShowPartitions.PARTITION_SEPARATOR + 0, showId, "title", 100, 0, 0),
+          new ShowAvailability(showId + ShowPartitions.PARTITION_SEPARATOR + 1, showId, "title", 49, 0, 1));
+        //the minimum applies per partition, the show has 149 available seats, but only its first partition has 60
+        assertThat(calls.getShowsAvailability(60).shows()).extracting(ShowAvailability::showId)
+          .contains(showId + ShowPartitions.PARTITION_SEPARATOR + 0)
+          .doesNotContain(showId + ShowPartitions.PARTITION_SEPARATOR + 1);
+      });
+  }
+}
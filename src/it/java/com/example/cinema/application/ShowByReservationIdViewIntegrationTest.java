@@ -0,0 +1,72 @@
+package com.example.cinema.application;
+
+import com.example.Main;
+import com.example.cinema.domain.ShowByReservationId;
+import kalix.spring.testkit.KalixIntegrationTestKitSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.example.cinema.application.TestUtils.randomId;
+import static com.example.cinema.domain.ShowCreator.INITIAL_PRICE;
+import static java.time.temporal.ChronoUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testcontainers.shaded.org.awaitility.Awaitility.await;
+
+@DirtiesContext
+@SpringBootTest(classes = Main.class)
+@ActiveProfiles("choreography")
+class ShowByReservationIdViewIntegrationTest extends KalixIntegrationTestKitSupport {
+
+  @Autowired
+  private Calls calls;
+
+  @Test
+  public void shouldKeepRowOfNotPaidReservation() {
+    //given
+    var showId = randomId();
+    var reservationId = randomId();
+    var walletId = randomId();
+    calls.createShow(showId, "title");
+    calls.createWallet(walletId, 0);
+
+    //when
+    calls.reserveSeat(showId, walletId, reservationId, 3);
+
+    //then
+    await()
+      .atMost(10, TimeUnit.of(SECONDS))
+      .ignoreExceptions()
+      .untilAsserted(() -> {
+        ShowByReservationId result = calls.getShowByReservationId(reservationId).getBody();
+        assertThat(result).isEqualTo(new ShowByReservationId(reservationId, showId, walletId, INITIAL_PRICE));
+      });
+  }
+
+  @Test
+  public void shouldRemoveRowOfPaidReservation() {
+    //given
+    var showId = randomId();
+    var reservationId = randomId();
+    var walletId = randomId();
+    calls.createShow(showId, "title");
+    calls.createWallet(walletId, 500);
+
+    //when
+    calls.reserveSeat(showId, walletId, reservationId, 3);
+
+    //then
+    await()
+      .atMost(10, TimeUnit.of(SECONDS))
+      .ignoreExceptions()
+      .untilAsserted(() -> {
+        var result = calls.getShowByReservationId(reservationId);
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+      });
+  }
+}
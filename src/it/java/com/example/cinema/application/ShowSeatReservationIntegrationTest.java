@@ -2,6 +2,7 @@ package com.example.cinema.application;
 
 import com.example.Main;
 import com.example.cinema.domain.SeatStatus;
+import com.example.common.Money;
 import com.example.wallet.application.WalletResponse;
 import com.example.wallet.domain.WalletCommand;
 import kalix.spring.testkit.KalixIntegrationTestKitSupport;
@@ -13,7 +14,6 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.web.reactive.function.client.WebClient;
 
-import java.math.BigDecimal;
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
@@ -23,7 +23,6 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.http.HttpStatus.OK;
 import static org.testcontainers.shaded.org.awaitility.Awaitility.await;
 
-
 @DirtiesContext
 @SpringBootTest(classes = Main.class)
 @ActiveProfiles("choreography")
@@ -58,7 +57,7 @@ public class ShowSeatReservationIntegrationTest extends KalixIntegrationTestKitS
         assertThat(seatStatus).isEqualTo(SeatStatus.PAID);
 
         WalletResponse wallet = calls.getWallet(walletId);
-        assertThat(wallet.balance()).isEqualTo(new BigDecimal(100));
+        assertThat(wallet.balance()).isEqualTo(Money.of(100));
       });
   }
 
@@ -107,14 +106,14 @@ public class ShowSeatReservationIntegrationTest extends KalixIntegrationTestKitS
         assertThat(seatStatus).isEqualTo(SeatStatus.AVAILABLE);
       });
 
-    //simulating that the wallet was actually charged
-    calls.chargeWallet(walletId, new WalletCommand.ChargeWallet(new BigDecimal(100), reservationId, randomId()));
+    //simulating that the charge was actually authorized
+    calls.authorizeCharge(walletId, new WalletCommand.AuthorizeCharge(Money.of(100), reservationId, randomId()));
 
     await()
       .atMost(20, TimeUnit.of(SECONDS))
       .untilAsserted(() -> {
         WalletResponse wallet = calls.getWallet(walletId);
-        assertThat(wallet.balance()).isEqualTo(new BigDecimal(300));
+        assertThat(wallet.balance()).isEqualTo(Money.of(300));
       });
   }
 
@@ -140,14 +139,14 @@ public class ShowSeatReservationIntegrationTest extends KalixIntegrationTestKitS
         assertThat(seatStatus).isEqualTo(SeatStatus.AVAILABLE);
       });
 
-    //simulating that the wallet charging was rejected for this reservation
-    calls.chargeWallet(walletId, new WalletCommand.ChargeWallet(new BigDecimal(400), reservationId, randomId()));
+    //simulating that the charge authorization was rejected for this reservation
+    calls.authorizeCharge(walletId, new WalletCommand.AuthorizeCharge(Money.of(400), reservationId, randomId()));
 
     await()
       .atMost(20, TimeUnit.of(SECONDS))
       .untilAsserted(() -> {
         WalletResponse wallet = calls.getWallet(walletId);
-        assertThat(wallet.balance()).isEqualTo(new BigDecimal(300));
+        assertThat(wallet.balance()).isEqualTo(Money.of(300));
       });
   }
 }
\ No newline at end of file
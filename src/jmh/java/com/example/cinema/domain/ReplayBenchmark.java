@@ -0,0 +1,118 @@
+package com.example.cinema.domain;
+
+import com.example.cinema.domain.ShowEvent.SeatReservationCancelled;
+import com.example.cinema.domain.ShowEvent.SeatReservationPaid;
+import com.example.cinema.domain.ShowEvent.SeatReserved;
+import com.example.cinema.domain.ShowEvent.ShowCreated;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vavr.jackson.datatype.VavrModule;
+import kalix.javasdk.JsonSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.cinema.domain.DomainGenerators.randomPrice;
+import static com.example.cinema.domain.DomainGenerators.randomReservationId;
+import static com.example.cinema.domain.DomainGenerators.randomShowId;
+import static com.example.cinema.domain.DomainGenerators.randomTitle;
+import static com.example.cinema.domain.DomainGenerators.randomWalletId;
+import static com.example.cinema.domain.ShowCreator.createSeats;
+
+/**
+ * Recovery of a {@link Show} with a long history. {@code foldApply} is the event-by-event replay, {@code applyAll} the
+ * replay with a mutable {@link ShowReplay}, {@code fromSnapshot} decodes the latest snapshot and applies the events
+ * written after it ({@code kalix.event-sourced-entity.snapshot-every} is 100).
+ * Run with {@code mvn test-compile exec:exec -Pjmh -Djmh.args="ReplayBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplayBenchmark {
+
+  private static final int SEATS = 1000;
+  private static final int SNAPSHOT_EVERY = 100;
+
+  @Param({"1000", "10000", "100000"})
+  int events;
+
+  private final ObjectMapper objectMapper = JsonSupport.getObjectMapper().copy().registerModule(new VavrModule());
+
+  private Show created;
+  private List<ShowEvent> history;
+  private byte[] snapshot;
+  private List<ShowEvent> tail;
+
+  @Setup
+  public void setup() throws IOException {
+    Random random = new Random(42);
+    String showId = randomShowId();
+    created = Show.create(new ShowCreated(showId, new InitialShow(showId, randomTitle(), createSeats(randomPrice(), SEATS))));
+    history = history(created, random);
+    int snapshotAt = events - SNAPSHOT_EVERY / 2;
+    snapshot = objectMapper.writeValueAsBytes(created.applyAll(history.subList(0, snapshotAt)));
+    tail = history.subList(snapshotAt, events);
+  }
+
+  @Benchmark
+  public Show foldApply() {
+    Show show = created;
+    for (ShowEvent event : history) {
+      show = show.apply(event);
+    }
+    return show;
+  }
+
+  @Benchmark
+  public Show applyAll() {
+    return created.applyAll(history);
+  }
+
+  @Benchmark
+  public Show fromSnapshot() throws IOException {
+    Show show = objectMapper.readValue(snapshot, Show.class);
+    for (ShowEvent event : tail) {
+      show = show.apply(event);
+    }
+    return show;
+  }
+
+  /**
+   * Reservations finished right after being made, 1 in 10 paid while there are enough seats left.
+   */
+  private List<ShowEvent> history(Show show, Random random) {
+    List<ShowEvent> history = new ArrayList<>(events);
+    int paid = 0;
+    while (history.size() < events) {
+      String reservationId = randomReservationId();
+      int seatNumber = random.nextInt(SEATS);
+      while (!show.getSeat(seatNumber).get().isAvailable()) {
+        seatNumber = random.nextInt(SEATS);
+      }
+      ShowEvent reserved = new SeatReserved(show.id(), randomWalletId(), reservationId, seatNumber, randomPrice());
+      ShowEvent finished = random.nextInt(10) == 0 && paid++ < SEATS / 2
+        ? new SeatReservationPaid(show.id(), reservationId, seatNumber)
+        : new SeatReservationCancelled(show.id(), reservationId, seatNumber);
+      show = show.apply(reserved).apply(finished);
+      history.add(reserved);
+      history.add(finished);
+    }
+    return history;
+  }
+}
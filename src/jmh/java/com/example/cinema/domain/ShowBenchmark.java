@@ -0,0 +1,138 @@
+package com.example.cinema.domain;
+
+import com.example.cinema.domain.ShowEvent.SeatReservationCancelled;
+import com.example.cinema.domain.ShowEvent.SeatReservationPaid;
+import com.example.cinema.domain.ShowEvent.SeatReserved;
+import com.example.cinema.domain.ShowEvent.ShowCreated;
+import io.vavr.control.Either;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.cinema.domain.DomainGenerators.randomPrice;
+import static com.example.cinema.domain.DomainGenerators.randomReservationId;
+import static com.example.cinema.domain.DomainGenerators.randomShowId;
+import static com.example.cinema.domain.DomainGenerators.randomTitle;
+import static com.example.cinema.domain.DomainGenerators.randomWalletId;
+import static com.example.cinema.domain.ShowCommandGenerators.randomOnSaleCommand;
+import static com.example.cinema.domain.ShowCreator.createSeats;
+
+/**
+ * Hot paths of the {@link Show} aggregate. Every benchmark works against the same show state, with a history of
+ * {@code finishedReservations} and 10% of seats pending, so results for different state structures are comparable.
+ * Run with {@code mvn test-compile exec:exec -Pjmh -Djmh.args="ShowBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShowBenchmark {
+
+  private static final int MIX_SIZE = 1024;
+
+  @Param({"100", "1000", "10000"})
+  int seats;
+
+  @Param({"0", "10000"})
+  int finishedReservations;
+
+  private ShowCreated showCreated;
+  private Show show;
+  private ShowCommand[] commands;
+  private ShowEvent[] events;
+  private int next;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    String showId = randomShowId();
+    showCreated = new ShowCreated(showId, new InitialShow(showId, randomTitle(), createSeats(randomPrice(), seats)));
+    show = withHistory(Show.create(showCreated), random);
+    List<String> pending = show.pendingReservations().keySet().toJavaList();
+    commands = commandMix(random, pending);
+    events = eventMix(random, pending);
+  }
+
+  @Benchmark
+  public Either<ShowCommandError, ShowEvent> process() {
+    return show.process(commands[next++ & (MIX_SIZE - 1)]);
+  }
+
+  @Benchmark
+  public Show apply() {
+    return show.apply(events[next++ & (MIX_SIZE - 1)]);
+  }
+
+  @Benchmark
+  public Show create() {
+    return Show.create(showCreated);
+  }
+
+  /**
+   * Mostly cancelled reservations, up to a quarter of seats paid, then 10% of seats left pending.
+   */
+  private Show withHistory(Show show, Random random) {
+    int paid = 0;
+    for (int i = 0; i < finishedReservations; i++) {
+      String reservationId = randomReservationId();
+      int seatNumber = availableSeat(show, random);
+      show = show.apply(new SeatReserved(show.id(), randomWalletId(), reservationId, seatNumber, randomPrice()));
+      if (random.nextInt(10) == 0 && paid++ < seats / 4) {
+        show = show.apply(new SeatReservationPaid(show.id(), reservationId, seatNumber));
+      } else {
+        show = show.apply(new SeatReservationCancelled(show.id(), reservationId, seatNumber));
+      }
+    }
+    for (int i = 0; i < seats / 10; i++) {
+      show = show.apply(new SeatReserved(show.id(), randomWalletId(), randomReservationId(), availableSeat(show, random), randomPrice()));
+    }
+    return show;
+  }
+
+  /**
+   * Same on-sale traffic as in the property tests of {@link ShowTest}.
+   */
+  private ShowCommand[] commandMix(Random random, List<String> pending) {
+    ShowCommand[] mix = new ShowCommand[MIX_SIZE];
+    for (int i = 0; i < MIX_SIZE; i++) {
+      mix[i] = randomOnSaleCommand(random, seats, pending);
+    }
+    return mix;
+  }
+
+  private ShowEvent[] eventMix(Random random, List<String> pending) {
+    ShowEvent[] mix = new ShowEvent[MIX_SIZE];
+    for (int i = 0; i < MIX_SIZE; i++) {
+      String pendingId = pending.get(random.nextInt(pending.size()));
+      int pendingSeat = show.pendingReservations().get(pendingId).get();
+      mix[i] = switch (random.nextInt(4)) {
+        case 0, 1 -> new SeatReserved(show.id(), randomWalletId(), randomReservationId(), availableSeat(show, random), randomPrice());
+        case 2 -> new SeatReservationPaid(show.id(), pendingId, pendingSeat);
+        default -> new SeatReservationCancelled(show.id(), pendingId, pendingSeat);
+      };
+    }
+    return mix;
+  }
+
+  private int availableSeat(Show show, Random random) {
+    int seatNumber = random.nextInt(seats);
+    while (!show.getSeat(seatNumber).get().isAvailable()) {
+      seatNumber = random.nextInt(seats);
+    }
+    return seatNumber;
+  }
+}
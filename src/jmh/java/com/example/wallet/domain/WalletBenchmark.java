@@ -0,0 +1,127 @@
+package com.example.wallet.domain;
+
+import com.example.common.Money;
+import com.example.wallet.domain.WalletCommand.ChargeWallet;
+import com.example.wallet.domain.WalletCommand.DepositFunds;
+import com.example.wallet.domain.WalletCommand.Refund;
+import com.example.wallet.domain.WalletEvent.FundsDeposited;
+import com.example.wallet.domain.WalletEvent.WalletCharged;
+import com.example.wallet.domain.WalletEvent.WalletCreated;
+import com.example.wallet.domain.WalletEvent.WalletRefunded;
+import io.vavr.control.Either;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.wallet.domain.DomainGenerators.randomCommandId;
+
+/**
+ * Hot paths of the {@link Wallet} aggregate against a wallet that already processed {@code processedCommands}
+ * charges, refunds and deposits, which fill the expenses and the command deduplication window.
+ * Run with {@code mvn test-compile exec:exec -Pjmh -Djmh.args="WalletBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WalletBenchmark {
+
+  private static final int MIX_SIZE = 1024;
+  private static final Money PRICE = Money.of(100);
+
+  @Param({"0", "1000", "20000"})
+  int processedCommands;
+
+  private Wallet wallet;
+  private WalletCommand[] commands;
+  private WalletEvent[] events;
+  private int next;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    String walletId = UUID.randomUUID().toString();
+    wallet = Wallet.EMPTY_WALLET.apply(new WalletCreated(walletId, Money.of(1_000_000_000)));
+    List<String> expenseIds = new ArrayList<>();
+    List<String> commandIds = new ArrayList<>();
+    for (int i = 0; i < processedCommands; i++) {
+      String commandId = randomCommandId();
+      commandIds.add(commandId);
+      int kind = random.nextInt(10);
+      if (kind == 0 && !expenseIds.isEmpty()) {
+        String expenseId = expenseIds.remove(random.nextInt(expenseIds.size()));
+        wallet = wallet.apply(new WalletRefunded(walletId, PRICE, expenseId, commandId));
+      } else if (kind == 1) {
+        wallet = wallet.apply(new FundsDeposited(walletId, PRICE, commandId));
+      } else {
+        String expenseId = UUID.randomUUID().toString();
+        expenseIds.add(expenseId);
+        wallet = wallet.apply(new WalletCharged(walletId, PRICE, expenseId, commandId));
+      }
+    }
+    if (expenseIds.isEmpty()) {
+      String expenseId = UUID.randomUUID().toString();
+      String commandId = randomCommandId();
+      expenseIds.add(expenseId);
+      commandIds.add(commandId);
+      wallet = wallet.apply(new WalletCharged(walletId, PRICE, expenseId, commandId));
+    }
+    commands = commandMix(random, expenseIds, commandIds);
+    events = eventMix(random, expenseIds);
+  }
+
+  @Benchmark
+  public Either<WalletCommandError, WalletEvent> process() {
+    return wallet.process(commands[next++ & (MIX_SIZE - 1)]);
+  }
+
+  @Benchmark
+  public Wallet apply() {
+    return wallet.apply(events[next++ & (MIX_SIZE - 1)]);
+  }
+
+  /**
+   * Saga traffic: charges, redelivered commands, refunds of existing expenses and deposits.
+   */
+  private WalletCommand[] commandMix(Random random, List<String> expenseIds, List<String> commandIds) {
+    WalletCommand[] mix = new WalletCommand[MIX_SIZE];
+    for (int i = 0; i < MIX_SIZE; i++) {
+      mix[i] = switch (random.nextInt(10)) {
+        case 0, 1, 2, 3, 4, 5 -> new ChargeWallet(PRICE, UUID.randomUUID().toString(), randomCommandId());
+        case 6 -> new ChargeWallet(PRICE, UUID.randomUUID().toString(), commandIds.get(commandIds.size() - 1 - random.nextInt(Math.min(commandIds.size(), 100))));
+        case 7 -> new ChargeWallet(PRICE, UUID.randomUUID().toString(), commandIds.get(random.nextInt(commandIds.size())));
+        case 8 -> new Refund(expenseIds.get(random.nextInt(expenseIds.size())), randomCommandId());
+        default -> new DepositFunds(PRICE, randomCommandId());
+      };
+    }
+    return mix;
+  }
+
+  private WalletEvent[] eventMix(Random random, List<String> expenseIds) {
+    WalletEvent[] mix = new WalletEvent[MIX_SIZE];
+    for (int i = 0; i < MIX_SIZE; i++) {
+      mix[i] = switch (random.nextInt(4)) {
+        case 0, 1 -> new WalletCharged(wallet.id(), PRICE, UUID.randomUUID().toString(), randomCommandId());
+        case 2 -> new WalletRefunded(wallet.id(), PRICE, expenseIds.get(random.nextInt(expenseIds.size())), randomCommandId());
+        default -> new FundsDeposited(wallet.id(), PRICE, randomCommandId());
+      };
+    }
+    return mix;
+  }
+}
@@ -1,6 +1,7 @@
 package com.example;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import io.vavr.jackson.datatype.VavrModule;
 import kalix.javasdk.JsonSupport;
 import kalix.javasdk.annotations.Acl;
 import org.slf4j.Logger;
@@ -21,6 +22,8 @@ public class Main {
   public static void main(String[] args) {
     logger.info("Starting Kalix - Spring SDK");
     JsonSupport.getObjectMapper().configure(DeserializationFeature.FAIL_ON_NULL_CREATOR_PROPERTIES, true);
+    //entity snapshots contain vavr collections
+    JsonSupport.getObjectMapper().registerModule(new VavrModule());
     SpringApplication.run(Main.class, args);
   }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.example.cinema.application;
+
+import com.example.cinema.application.ShowAdmissions.Admission;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * @param retryAfterMillis when a rejected request can be retried, see {@link ShowAdmissions.Admission.Rejected}, 0 otherwise
+ */
+public record AdmissionResponse(Response response, long retryAfterMillis) {
+
+  public static final String REJECTED = "REJECTED";
+  public static final String SOLD_OUT = "SOLD_OUT";
+
+  /**
+   * @param call sends the request, only if it was admitted
+   */
+  public static CompletionStage<AdmissionResponse> of(Admission admission, Supplier<CompletionStage<Response>> call) {
+    return switch (admission) {
+      case Admission.Admitted __ -> call.get().thenApply(response -> new AdmissionResponse(response, 0));
+      case Admission.Rejected rejected -> CompletableFuture.completedFuture(new AdmissionResponse(Response.Failure.of(REJECTED), rejected.retryAfter().toMillis()));
+      case Admission.SoldOut __ -> CompletableFuture.completedFuture(new AdmissionResponse(Response.Failure.of(SOLD_OUT), 0));
+    };
+  }
+}
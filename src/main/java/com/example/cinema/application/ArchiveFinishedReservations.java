@@ -0,0 +1,49 @@
+package com.example.cinema.application;
+
+import com.example.cinema.domain.ArchivedReservation;
+import com.example.cinema.domain.ShowEvent.SeatReservationCancelled;
+import com.example.cinema.domain.ShowEvent.SeatReservationPaid;
+import com.example.cinema.domain.ShowEvent.SeatsReservationCancelled;
+import com.example.cinema.domain.ShowEvent.SeatsReservationPaid;
+import com.google.protobuf.any.Any;
+import kalix.javasdk.DeferredCall;
+import kalix.javasdk.action.Action;
+import kalix.javasdk.annotations.Subscribe;
+import kalix.javasdk.client.ComponentClient;
+
+import java.util.List;
+
+import static com.example.cinema.domain.ReservationStatus.CANCELLED;
+import static com.example.cinema.domain.ReservationStatus.CONFIRMED;
+
+@Subscribe.EventSourcedEntity(value = ShowEntity.class, ignoreUnknown = true)
+public class ArchiveFinishedReservations extends Action {
+
+  private final ComponentClient componentClient;
+
+  public ArchiveFinishedReservations(ComponentClient componentClient) {
+    this.componentClient = componentClient;
+  }
+
+  public Effect<String> onEvent(SeatReservationPaid paid) {
+    return effects().forward(archive(new ArchivedReservation(paid.reservationId(), paid.showId(), List.of(paid.seatNumber()), CONFIRMED)));
+  }
+
+  public Effect<String> onEvent(SeatReservationCancelled cancelled) {
+    return effects().forward(archive(new ArchivedReservation(cancelled.reservationId(), cancelled.showId(), List.of(cancelled.seatNumber()), CANCELLED)));
+  }
+
+  public Effect<String> onEvent(SeatsReservationPaid paid) {
+    return effects().forward(archive(new ArchivedReservation(paid.reservationId(), paid.showId(), paid.seatNumbers(), CONFIRMED)));
+  }
+
+  public Effect<String> onEvent(SeatsReservationCancelled cancelled) {
+    return effects().forward(archive(new ArchivedReservation(cancelled.reservationId(), cancelled.showId(), cancelled.seatNumbers(), CANCELLED)));
+  }
+
+  private DeferredCall<Any, String> archive(ArchivedReservation archivedReservation) {
+    return componentClient.forValueEntity(archivedReservation.reservationId())
+      .call(ArchivedReservationEntity::archive)
+      .params(archivedReservation);
+  }
+}
@@ -0,0 +1,35 @@
+package com.example.cinema.application;
+
+import com.example.cinema.domain.ArchivedReservation;
+import io.grpc.Status;
+import kalix.javasdk.annotations.Id;
+import kalix.javasdk.annotations.TypeId;
+import kalix.javasdk.valueentity.ValueEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+/**
+ * Finished reservations indexed by reservation id, consulted only when the show doesn't remember the reservation anymore.
+ * Filled in both Saga styles, because the show drops finished reservations regardless of the profile.
+ */
+@Id("id")
+@TypeId("archived-reservation")
+@RequestMapping("/archived-reservation/{id}")
+public class ArchivedReservationEntity extends ValueEntity<ArchivedReservation> {
+
+  @GetMapping
+  public Effect<ArchivedReservation> get() {
+    if (currentState() == null) {
+      return effects().error("archived reservation not found", Status.Code.NOT_FOUND);
+    } else {
+      return effects().reply(currentState());
+    }
+  }
+
+  @PostMapping
+  public Effect<String> archive(@RequestBody ArchivedReservation archivedReservation) {
+    return effects().updateState(archivedReservation).thenReply("reservation archived");
+  }
+}
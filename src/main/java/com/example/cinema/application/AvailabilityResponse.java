@@ -0,0 +1,32 @@
+package com.example.cinema.application;
+
+import com.example.cinema.domain.SeatCounts;
+import com.example.cinema.domain.Show;
+import com.example.common.Money;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.cinema.domain.SeatStatus.AVAILABLE;
+import static com.example.cinema.domain.SeatStatus.PAID;
+import static com.example.cinema.domain.SeatStatus.RESERVED;
+
+/**
+ * Read from counters kept in the show state, the size of the response doesn't depend on the number of seats.
+ */
+public record AvailabilityResponse(String id, int available, int reserved, int paid, List<PriceAvailability> prices) {
+
+  public record PriceAvailability(@JsonSerialize(using = Money.DecimalSerializer.class) Money price, int available, int reserved, int paid) {
+  }
+
+  public static AvailabilityResponse from(Show show) {
+    SeatCounts counts = show.seats().counts();
+    Money[] seatPrices = show.seats().prices();
+    List<PriceAvailability> prices = new ArrayList<>(seatPrices.length);
+    for (int tier = 0; tier < seatPrices.length; tier++) {
+      prices.add(new PriceAvailability(seatPrices[tier], counts.count(tier, AVAILABLE), counts.count(tier, RESERVED), counts.count(tier, PAID)));
+    }
+    return new AvailabilityResponse(show.id(), counts.count(AVAILABLE), counts.count(RESERVED), counts.count(PAID), prices);
+  }
+}
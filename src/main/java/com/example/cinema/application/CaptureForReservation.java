@@ -0,0 +1,81 @@
+package com.example.cinema.application;
+
+import akka.actor.ActorSystem;
+import com.example.cinema.domain.Reservation;
+import com.example.cinema.domain.ShowEvent.SeatReservationPaid;
+import com.example.cinema.domain.ShowEvent.SeatsReservationPaid;
+import com.example.common.SagaContext;
+import com.example.wallet.application.WalletEntity;
+import com.example.wallet.domain.WalletCommand.CaptureCharge;
+import kalix.javasdk.action.Action;
+import kalix.javasdk.annotations.Subscribe;
+import kalix.javasdk.client.ComponentClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+@Profile("choreography")
+@Subscribe.EventSourcedEntity(value = ShowEntity.class, ignoreUnknown = true)
+public class CaptureForReservation extends Action {
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final ComponentClient componentClient;
+  private final ReservationCache reservationCache;
+  private final WalletCalls walletCalls;
+
+  public CaptureForReservation(ComponentClient componentClient, ReservationCache reservationCache, WalletCalls walletCalls) {
+    this.componentClient = componentClient;
+    this.reservationCache = reservationCache;
+    this.walletCalls = walletCalls;
+  }
+
+  public Effect<Response> capture(SeatReservationPaid seatReservationPaid) {
+    logger.info("capturing charge for reservation, triggered by " + seatReservationPaid);
+    return capture(seatReservationPaid.reservationId(), seatReservationPaid.sagaContext());
+  }
+
+  public Effect<Response> capture(SeatsReservationPaid seatsReservationPaid) {
+    logger.info("capturing charge for group reservation, triggered by " + seatsReservationPaid);
+    return capture(seatsReservationPaid.reservationId(), seatsReservationPaid.sagaContext());
+  }
+
+  private Effect<Response> capture(String reservationId, SagaContext sagaContext) {
+    //one capture per reservation, sequence numbers are unique only within a single show
+    String commandId = UUID.nameUUIDFromBytes((reservationId + "-capture").getBytes(UTF_8)).toString();
+    ActorSystem actorSystem = actionContext().materializer().system();
+
+    return effects().asyncReply(
+      getWalletId(reservationId, sagaContext).thenCompose(walletId ->
+        capture(actorSystem, walletId, reservationId, commandId)
+      )
+    );
+  }
+
+  //events written before the Saga context was introduced require a read model lookup
+  private CompletionStage<String> getWalletId(String reservationId, SagaContext sagaContext) {
+    if (sagaContext.isEmpty()) {
+      return reservationCache.get(reservationId, () ->
+          componentClient.forValueEntity(reservationId)
+            .call(ReservationEntity::get)
+            .execute())
+        .thenApply(Reservation::walletId);
+    } else {
+      return completedFuture(sagaContext.walletId());
+    }
+  }
+
+  private CompletionStage<Response> capture(ActorSystem actorSystem, String walletId, String reservationId, String commandId) {
+    return walletCalls.call(actorSystem, () ->
+      componentClient.forEventSourcedEntity(walletId)
+        .call(WalletEntity::capture)
+        .params(new CaptureCharge(reservationId, commandId))
+        .execute());
+  }
+}
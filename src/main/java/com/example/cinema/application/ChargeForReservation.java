@@ -1,10 +1,11 @@
 package com.example.cinema.application;
 
 import akka.actor.ActorSystem;
-import akka.pattern.Patterns;
 import com.example.cinema.domain.ShowEvent.SeatReserved;
+import com.example.cinema.domain.ShowEvent.SeatsReserved;
+import com.example.common.SagaContext;
 import com.example.wallet.application.WalletEntity;
-import com.example.wallet.domain.WalletCommand.ChargeWallet;
+import com.example.wallet.domain.WalletCommand.AuthorizeCharge;
 import kalix.javasdk.action.Action;
 import kalix.javasdk.annotations.Subscribe;
 import kalix.javasdk.client.ComponentClient;
@@ -13,12 +14,13 @@ import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Profile;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
-import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
+import static com.example.wallet.domain.WalletCommandError.POSSIBLY_DUPLICATED_COMMAND;
 import static java.nio.charset.StandardCharsets.UTF_8;
-import static java.time.Duration.ofSeconds;
 
 @Profile("choreography")
 @Subscribe.EventSourcedEntity(value = ShowEntity.class, ignoreUnknown = true)
@@ -27,50 +29,67 @@ public class ChargeForReservation extends Action {
   private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
   private final ComponentClient componentClient;
-  
-  public ChargeForReservation(ComponentClient componentClient) {
+  private final WalletCalls walletCalls;
+
+  public ChargeForReservation(ComponentClient componentClient, WalletCalls walletCalls) {
     this.componentClient = componentClient;
+    this.walletCalls = walletCalls;
   }
 
   public Effect<String> charge(SeatReserved seatReserved) {
     logger.info("charging for reservation, triggered by " + seatReserved);
-    String expenseId = seatReserved.reservationId();
+    var sagaContext = new SagaContext(seatReserved.showId(), seatReserved.walletId(), List.of(seatReserved.seatNumber()), seatReserved.price());
+    return charge(seatReserved.reservationId(), sagaContext);
+  }
+
+  public Effect<String> charge(SeatsReserved seatsReserved) {
+    logger.info("charging for group reservation, triggered by " + seatsReserved);
+    var sagaContext = new SagaContext(seatsReserved.showId(), seatsReserved.walletId(), seatsReserved.seatNumbers(), seatsReserved.price());
+    return charge(seatsReserved.reservationId(), sagaContext);
+  }
 
+  private Effect<String> charge(String expenseId, SagaContext sagaContext) {
     String sequenceNum = contextForComponents().metadata().get("ce-sequence").orElseThrow();
-    String walletId = seatReserved.walletId();
     String commandId = UUID.nameUUIDFromBytes(sequenceNum.getBytes(UTF_8)).toString();
-    var chargeWallet = new ChargeWallet(seatReserved.price(), expenseId, commandId);
+    String walletId = sagaContext.walletId();
+    var authorizeCharge = new AuthorizeCharge(sagaContext.price(), expenseId, commandId, sagaContext);
 
-    var attempts = 3;
-    var retryDelay = Duration.ofSeconds(1);
     ActorSystem actorSystem = actionContext().materializer().system();
 
     return effects().asyncReply(
-      Patterns.retry(() -> chargeWallet(walletId, chargeWallet),
-          attempts,
-          retryDelay,
-          actorSystem)
-        .exceptionallyComposeAsync(throwable ->
-          registerFailure(throwable, walletId, chargeWallet)
-        )
+      walletCalls.call(actorSystem, () -> authorizeCharge(walletId, authorizeCharge))
+        .thenCompose(response -> switch (response) {
+          //matched only by the wallet's Bloom filter, nothing was charged, the reservation is cancelled as after an error
+          case Response.Failure failure when failure.message().equals(POSSIBLY_DUPLICATED_COMMAND.name()) ->
+            registerFailure(failure.message(), walletId, authorizeCharge);
+          default -> CompletableFuture.completedFuture("done");
+        })
+        .exceptionallyComposeAsync(throwable -> {
+          if (WalletCalls.isBreakerOpen(throwable)) {
+            //wallet is failing, the event will be redelivered later instead of cancelling the reservation now
+            return CompletableFuture.failedFuture(throwable);
+          } else {
+            return registerFailure(throwable, walletId, authorizeCharge);
+          }
+        })
     );
   }
 
-  private CompletionStage<String> chargeWallet(String walletId, ChargeWallet chargeWallet) {
+  private CompletionStage<Response> authorizeCharge(String walletId, AuthorizeCharge authorizeCharge) {
     return componentClient.forEventSourcedEntity(walletId)
-      .call(WalletEntity::charge)
-      .params(chargeWallet)
-      .execute()
-      .thenApply(response -> "done");
+      .call(WalletEntity::authorize)
+      .params(authorizeCharge)
+      .execute();
   }
 
+  private CompletionStage<String> registerFailure(Throwable throwable, String walletId, AuthorizeCharge authorizeCharge) {
+    return registerFailure(getMessage(throwable), walletId, authorizeCharge);
+  }
 
-  private CompletionStage<String> registerFailure(Throwable throwable, String walletId, ChargeWallet chargeWallet) {
-    var msg = getMessage(throwable);
-
+  private CompletionStage<String> registerFailure(String msg, String walletId, AuthorizeCharge authorizeCharge) {
     return componentClient.forEventSourcedEntity(walletId)
       .call(WalletFailureEntity::registerChargeError)
-      .params(chargeWallet, msg)
+      .params(authorizeCharge, msg)
       .execute();
   }
 
@@ -1,8 +1,14 @@
 package com.example.cinema.application;
 
+import com.example.cinema.application.Response.Failure;
+import com.example.cinema.application.Response.Success;
+import com.example.cinema.domain.ArchivedReservation;
 import com.example.cinema.domain.Reservation;
-import com.example.cinema.domain.ShowByReservation;
+import com.example.cinema.domain.ShowCommand.ConfirmArchivedReservationPayment;
+import com.example.cinema.domain.ShowCommand.ConfirmReservationPayment;
+import com.example.common.SagaContext;
 import com.example.wallet.application.WalletEntity;
+import com.example.wallet.domain.WalletEvent.WalletChargeAuthorized;
 import com.example.wallet.domain.WalletEvent.WalletChargeRejected;
 import com.example.wallet.domain.WalletEvent.WalletCharged;
 import kalix.javasdk.action.Action;
@@ -14,6 +20,10 @@ import org.springframework.context.annotation.Profile;
 
 import java.util.concurrent.CompletionStage;
 
+import static com.example.cinema.domain.ReservationStatus.CANCELLED;
+import static com.example.cinema.domain.ShowCommandError.RESERVATION_NOT_FOUND;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
 @Profile("choreography")
 @Subscribe.EventSourcedEntity(value = WalletEntity.class, ignoreUnknown = true)
 public class CompleteReservation extends Action {
@@ -21,19 +31,27 @@ public class CompleteReservation extends Action {
   private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
   private final ComponentClient componentClient;
+  private final ReservationLookup reservationLookup;
 
-  public CompleteReservation(ComponentClient componentClient) {
+  public CompleteReservation(ComponentClient componentClient, ReservationLookup reservationLookup) {
     this.componentClient = componentClient;
+    this.reservationLookup = reservationLookup;
+  }
+
+  public Effect<Response> confirmReservation(WalletChargeAuthorized walletChargeAuthorized) {
+    logger.info("confirming reservation, triggered by " + walletChargeAuthorized);
+    return confirmReservation(walletChargeAuthorized.expenseId(), walletChargeAuthorized.sagaContext());
   }
 
   public Effect<Response> confirmReservation(WalletCharged walletCharged) {
     logger.info("confirming reservation, triggered by " + walletCharged);
+    return confirmReservation(walletCharged.expenseId(), walletCharged.sagaContext());
+  }
 
-    String reservationId = walletCharged.expenseId();
-
+  private Effect<Response> confirmReservation(String reservationId, SagaContext sagaContext) {
     return effects().asyncReply(
-      getShowIdBy(reservationId).thenCompose(showId ->
-        confirmReservation(showId, reservationId)
+      getShowIdBy(reservationId, sagaContext).thenCompose(showId ->
+        confirmReservation(showId, reservationId, sagaContext)
       ));
   }
 
@@ -43,15 +61,40 @@ public class CompleteReservation extends Action {
     String reservationId = walletChargeRejected.expenseId();
 
     return effects().asyncReply(
-      getShowIdBy(reservationId).thenCompose(showId ->
+      getShowIdBy(reservationId, walletChargeRejected.sagaContext()).thenCompose(showId ->
         cancelReservation(showId, reservationId)
       ));
   }
 
-  private CompletionStage<Response> confirmReservation(String showId, String reservationId) {
+  private CompletionStage<Response> confirmReservation(String showId, String reservationId, SagaContext sagaContext) {
     return componentClient.forEventSourcedEntity(showId)
-      .call(ShowEntity::confirmPayment)
-      .params(reservationId)
+      .call(ShowEntity::confirmPaymentWithContext)
+      .params(new ConfirmReservationPayment(reservationId, sagaContext))
+      .execute()
+      .thenCompose(response -> switch (response) {
+        case Failure failure when failure.message().equals(RESERVATION_NOT_FOUND.name()) ->
+          confirmArchivedReservation(showId, reservationId, sagaContext);
+        default -> completedFuture(response);
+      });
+  }
+
+  //the show keeps only the last finished reservation per seat, older ones are in the archive
+  private CompletionStage<Response> confirmArchivedReservation(String showId, String reservationId, SagaContext sagaContext) {
+    return componentClient.forValueEntity(reservationId).call(ArchivedReservationEntity::get).execute()
+      .thenCompose(archivedReservation -> {
+        if (archivedReservation.status() == CANCELLED && archivedReservation.showId().equals(showId)) {
+          return confirmArchivedPayment(archivedReservation, sagaContext);
+        } else {
+          logger.info("reservation {} already finished: {}", reservationId, archivedReservation);
+          return completedFuture(Success.of("ok"));
+        }
+      });
+  }
+
+  private CompletionStage<Response> confirmArchivedPayment(ArchivedReservation archivedReservation, SagaContext sagaContext) {
+    return componentClient.forEventSourcedEntity(archivedReservation.showId())
+      .call(ShowEntity::confirmArchivedPayment)
+      .params(new ConfirmArchivedReservationPayment(archivedReservation.reservationId(), archivedReservation.seatNumbers(), sagaContext))
       .execute();
   }
 
@@ -62,15 +105,18 @@ public class CompleteReservation extends Action {
       .execute();
   }
 
-  //Value Entity as a read model
-  private CompletionStage<String> getShowIdBy(String reservationId) {
-    return componentClient.forValueEntity(reservationId).call(ReservationEntity::get).execute()
-      .thenApply(Reservation::showId);
+  //events written before the Saga context was introduced require a read model lookup
+  private CompletionStage<String> getShowIdBy(String reservationId, SagaContext sagaContext) {
+    if (sagaContext.isEmpty()) {
+      return getShowIdBy(reservationId);
+    } else {
+      return completedFuture(sagaContext.showId());
+    }
   }
 
-  //View as a read model
-  private CompletionStage<String> getShowIdBy2(String reservationId) {
-    return componentClient.forView().call(ShowByReservationView::getShow).params(reservationId).execute()
-      .thenApply(ShowByReservation::showId);
+  //Value Entity as a read model, hedged with the View
+  private CompletionStage<String> getShowIdBy(String reservationId) {
+    return reservationLookup.get(reservationId, componentClient)
+      .thenApply(Reservation::showId);
   }
 }
@@ -1,8 +1,12 @@
 package com.example.cinema.application;
 
+import com.example.cinema.domain.Reservation;
 import com.example.cinema.domain.ShowEvent.SeatReservationCancelled;
 import com.example.cinema.domain.ShowEvent.SeatReservationPaid;
 import com.example.cinema.domain.ShowEvent.SeatReserved;
+import com.example.cinema.domain.ShowEvent.SeatsReservationPaid;
+import com.example.cinema.domain.ShowEvent.SeatsReserved;
+import com.example.common.Money;
 import com.google.protobuf.any.Any;
 import kalix.javasdk.DeferredCall;
 import kalix.javasdk.action.Action;
@@ -19,9 +23,11 @@ public class FoldShowEventsToReservation extends Action {
   private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
   private final ComponentClient componentClient;
+  private final ReservationCache reservationCache;
 
-  public FoldShowEventsToReservation(ComponentClient componentClient) {
+  public FoldShowEventsToReservation(ComponentClient componentClient, ReservationCache reservationCache) {
     this.componentClient = componentClient;
+    this.reservationCache = reservationCache;
   }
 
   public Effect<String> onEvent(SeatReserved reserved) {
@@ -32,18 +38,32 @@ public class FoldShowEventsToReservation extends Action {
     return effects().forward(deleteReservation(paid.reservationId()));
   }
 
+  public Effect<String> onEvent(SeatsReserved reserved) {
+    return effects().forward(createReservation(reserved.reservationId(), reserved.showId(), reserved.walletId(), reserved.price()));
+  }
+
+  public Effect<String> onEvent(SeatsReservationPaid paid) {
+    return effects().forward(deleteReservation(paid.reservationId()));
+  }
+
 //  alternatively we can use dedicated event for the cancellation after a failure
 //  public Effect<String> onEvent(SeatReservationCancelled cancelled) {
 //    return effects().forward(deleteReservation(cancelled.reservationId()));
 //  }
 
   private DeferredCall<Any, String> createReservation(SeatReserved reserved) {
-    return componentClient.forValueEntity(reserved.reservationId())
+    return createReservation(reserved.reservationId(), reserved.showId(), reserved.walletId(), reserved.price());
+  }
+
+  private DeferredCall<Any, String> createReservation(String reservationId, String showId, String walletId, Money price) {
+    reservationCache.put(new Reservation(reservationId, showId, walletId, price));
+    return componentClient.forValueEntity(reservationId)
       .call(ReservationEntity::create)
-      .params(new ReservationEntity.CreateReservation(reserved.showId(), reserved.walletId(), reserved.price()));
+      .params(new ReservationEntity.CreateReservation(showId, walletId, price));
   }
 
   private DeferredCall<Any, String> deleteReservation(String reservationId) {
+    reservationCache.invalidate(reservationId);
     return componentClient.forValueEntity(reservationId).call(ReservationEntity::delete);
   }
 }
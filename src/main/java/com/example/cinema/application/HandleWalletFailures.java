@@ -2,6 +2,7 @@ package com.example.cinema.application;
 
 import com.example.cinema.application.WalletFailureEntity.WalletChargeFailureOccurred;
 import com.example.cinema.domain.Reservation;
+import com.example.common.SagaContext;
 import kalix.javasdk.action.Action;
 import kalix.javasdk.annotations.Subscribe;
 import kalix.javasdk.client.ComponentClient;
@@ -11,6 +12,8 @@ import org.springframework.context.annotation.Profile;
 
 import java.util.concurrent.CompletionStage;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
 @Profile("choreography")
 @Subscribe.EventSourcedEntity(value = WalletFailureEntity.class)
 public class HandleWalletFailures extends Action {
@@ -18,17 +21,20 @@ public class HandleWalletFailures extends Action {
   private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
   private final ComponentClient componentClient;
+  private final ReservationLookup reservationLookup;
 
-  public HandleWalletFailures(ComponentClient componentClient) {
+  public HandleWalletFailures(ComponentClient componentClient, ReservationLookup reservationLookup) {
     this.componentClient = componentClient;
+    this.reservationLookup = reservationLookup;
   }
 
   public Effect<Response> handle(WalletChargeFailureOccurred walletChargeFailureOccurred) {
     logger.info("handling failure: " + walletChargeFailureOccurred);
 
     String reservationId = walletChargeFailureOccurred.source().expenseId();
+    SagaContext sagaContext = walletChargeFailureOccurred.source().sagaContext();
 
-    return effects().asyncReply(getShowIdBy(reservationId).thenCompose(showId ->
+    return effects().asyncReply(getShowIdBy(reservationId, sagaContext).thenCompose(showId ->
       cancelReservation(reservationId, showId)
     ));
   }
@@ -40,8 +46,17 @@ public class HandleWalletFailures extends Action {
       .execute();
   }
 
+  //failures registered before the Saga context was introduced require a read model lookup
+  private CompletionStage<String> getShowIdBy(String reservationId, SagaContext sagaContext) {
+    if (sagaContext.isEmpty()) {
+      return getShowIdBy(reservationId);
+    } else {
+      return completedFuture(sagaContext.showId());
+    }
+  }
+
   private CompletionStage<String> getShowIdBy(String reservationId) {
-    return componentClient.forValueEntity(reservationId).call(ReservationEntity::get).execute()
+    return reservationLookup.get(reservationId, componentClient)
       .thenApply(Reservation::showId);
   }
 }
@@ -0,0 +1,35 @@
+package com.example.cinema.application;
+
+import com.example.cinema.domain.ShowPartitions;
+import io.grpc.Status;
+import kalix.javasdk.annotations.Id;
+import kalix.javasdk.annotations.TypeId;
+import kalix.javasdk.valueentity.ValueEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+@Id("id")
+@TypeId("partitioned-show")
+@RequestMapping("/partitioned-show/{id}")
+public class PartitionedShowEntity extends ValueEntity<ShowPartitions> {
+
+  @GetMapping
+  public Effect<ShowPartitions> get() {
+    if (currentState() == null) {
+      return effects().error("show not found", Status.Code.NOT_FOUND);
+    } else {
+      return effects().reply(currentState());
+    }
+  }
+
+  @PostMapping
+  public Effect<String> create(@RequestBody ShowPartitions showPartitions) {
+    if (currentState() != null && !currentState().equals(showPartitions)) {
+      return effects().error("show already exists", Status.Code.INVALID_ARGUMENT);
+    } else {
+      return effects().updateState(showPartitions).thenReply("show created");
+    }
+  }
+}
@@ -0,0 +1,172 @@
+package com.example.cinema.application;
+
+import com.example.cinema.domain.SeatStatus;
+import com.example.cinema.domain.ShowCommand.ReserveSeat;
+import com.example.cinema.domain.ShowCommand.ReserveSeats;
+import com.example.cinema.domain.ShowCreator;
+import com.example.cinema.domain.ShowPartitions;
+import kalix.javasdk.action.Action;
+import kalix.javasdk.client.ComponentClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static com.example.cinema.domain.ShowCommandError.INVALID_SEAT_SELECTION;
+import static com.example.cinema.domain.ShowCommandError.SEAT_NOT_FOUND;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static kalix.javasdk.StatusCode.ErrorCode.NOT_FOUND;
+
+/**
+ * Entry point for shows split into seat-range partitions. Each partition is a {@link ShowEntity} that owns a slice
+ * of seats, so reservations for different sections are processed in parallel. Commands are routed by seat number,
+ * the reservation saga continues with the partition id as the show id.
+ */
+@RequestMapping("/partitioned-cinema-show/{showId}")
+public class PartitionedShowFacade extends Action {
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  public record CreatePartitionedShow(String title, int maxSeats, int partitionSize) {
+  }
+
+  private final ComponentClient componentClient;
+  private final ShowPartitionsCache showPartitionsCache;
+
+  public PartitionedShowFacade(ComponentClient componentClient, ShowPartitionsCache showPartitionsCache) {
+    this.componentClient = componentClient;
+    this.showPartitionsCache = showPartitionsCache;
+  }
+
+  @PostMapping
+  public Effect<Response> create(@PathVariable String showId, @RequestBody CreatePartitionedShow createShow) {
+    return ShowCreator.createPartitioned(showId, createShow.title(), createShow.maxSeats(), createShow.partitionSize()).fold(
+      error -> {
+        logger.error("creating partitioned show {} failed with {}", showId, error);
+        return effects().reply(Response.Failure.of(error.name()));
+      },
+      showPartitions -> effects().asyncReply(createLayout(showPartitions)
+        .thenCompose(__ -> createPartitions(showPartitions))
+        .thenApply(__ -> Response.Success.of("show created")))
+    );
+  }
+
+  @PatchMapping("/reserve")
+  public Effect<Response> reserve(@PathVariable String showId, @RequestBody ReserveSeat reserveSeat) {
+    return routeBySeat(showId, reserveSeat.seatNumber(), partitionId ->
+      componentClient.forEventSourcedEntity(partitionId)
+        .call(ShowEntity::reserve)
+        .params(reserveSeat)
+        .execute());
+  }
+
+  /**
+   * Group reservation is atomic only within a single partition, seats from other partitions are not found there.
+   */
+  @PatchMapping("/reserve-seats")
+  public Effect<Response> reserveSeats(@PathVariable String showId, @RequestBody ReserveSeats reserveSeats) {
+    if (reserveSeats.seatNumbers().isEmpty()) {
+      return effects().reply(Response.Failure.of(INVALID_SEAT_SELECTION.name()));
+    }
+    return routeBySeat(showId, reserveSeats.seatNumbers().get(0), partitionId ->
+      componentClient.forEventSourcedEntity(partitionId)
+        .call(ShowEntity::reserveSeats)
+        .params(reserveSeats)
+        .execute());
+  }
+
+  @PatchMapping("/cancel-reservation/{reservationId}")
+  public Effect<Response> cancelReservation(@PathVariable String showId, @PathVariable String reservationId, @RequestParam int seatNumber) {
+    return routeBySeat(showId, seatNumber, partitionId ->
+      componentClient.forEventSourcedEntity(partitionId)
+        .call(ShowEntity::cancelReservation)
+        .params(reservationId)
+        .execute());
+  }
+
+  @PatchMapping("/confirm-payment/{reservationId}")
+  public Effect<Response> confirmPayment(@PathVariable String showId, @PathVariable String reservationId, @RequestParam int seatNumber) {
+    return routeBySeat(showId, seatNumber, partitionId ->
+      componentClient.forEventSourcedEntity(partitionId)
+        .call(ShowEntity::confirmPayment)
+        .params(reservationId)
+        .execute());
+  }
+
+  @GetMapping
+  public Effect<ShowResponse> get(@PathVariable String showId) {
+    return effects().asyncReply(getLayout(showId).thenCompose(showPartitions -> {
+      List<CompletableFuture<ShowResponse>> partitions = showPartitions.partitionIds().stream()
+        .map(partitionId -> componentClient.forEventSourcedEntity(partitionId)
+          .call(ShowEntity::get)
+          .execute()
+          .toCompletableFuture())
+        .toList();
+      return CompletableFuture.allOf(partitions.toArray(CompletableFuture[]::new)).thenApply(__ -> {
+        List<SeatResponse> seats = partitions.stream()
+          .flatMap(partition -> partition.join().seats().stream())
+          .sorted(Comparator.comparingInt(SeatResponse::number))
+          .toList();
+        return new ShowResponse(showId, showPartitions.title(), seats);
+      });
+    }));
+  }
+
+  @GetMapping("/seat-status/{seatNumber}")
+  public Effect<SeatStatus> getSeatStatus(@PathVariable String showId, @PathVariable int seatNumber) {
+    return effects().asyncEffect(getLayout(showId).thenCompose(showPartitions ->
+      showPartitions.partitionIdFor(seatNumber).fold(
+        () -> completedFuture(effects().error("seat not found", NOT_FOUND)),
+        partitionId -> componentClient.forEventSourcedEntity(partitionId)
+          .call(ShowEntity::getSeatStatus)
+          .params(seatNumber)
+          .execute()
+          .thenApply(seatStatus -> effects().reply(seatStatus))
+      )));
+  }
+
+  private Effect<Response> routeBySeat(String showId, int seatNumber, Function<String, CompletionStage<Response>> call) {
+    return effects().asyncReply(getLayout(showId).thenCompose(showPartitions ->
+      showPartitions.partitionIdFor(seatNumber).fold(
+        () -> completedFuture(Response.Failure.of(SEAT_NOT_FOUND.name())),
+        call
+      )));
+  }
+
+  private CompletionStage<ShowPartitions> getLayout(String showId) {
+    return showPartitionsCache.get(showId, () ->
+      componentClient.forValueEntity(showId)
+        .call(PartitionedShowEntity::get)
+        .execute());
+  }
+
+  private CompletionStage<String> createLayout(ShowPartitions showPartitions) {
+    return componentClient.forValueEntity(showPartitions.showId())
+      .call(PartitionedShowEntity::create)
+      .params(showPartitions)
+      .execute();
+  }
+
+  private CompletionStage<Void> createPartitions(ShowPartitions showPartitions) {
+    CompletableFuture<?>[] partitions = IntStream.range(0, showPartitions.partitionCount())
+      .mapToObj(partition -> componentClient.forEventSourcedEntity(showPartitions.partitionId(partition))
+        .call(ShowEntity::createPartition)
+        .params(showPartitions.createPartition(partition))
+        .execute()
+        .toCompletableFuture())
+      .toArray(CompletableFuture[]::new);
+    return CompletableFuture.allOf(partitions);
+  }
+}
@@ -1,9 +1,14 @@
 package com.example.cinema.application;
 
+import akka.actor.ActorSystem;
 import com.example.cinema.domain.Reservation;
 import com.example.cinema.domain.ShowEvent.CancelledReservationConfirmed;
+import com.example.cinema.domain.ShowEvent.CancelledSeatsReservationConfirmed;
+import com.example.common.Money;
+import com.example.common.SagaContext;
 import com.example.wallet.application.WalletEntity;
-import com.example.wallet.domain.WalletCommand;
+import com.example.wallet.domain.WalletCommand.DepositFunds;
+import com.example.wallet.domain.WalletCommand.VoidCharge;
 import kalix.javasdk.action.Action;
 import kalix.javasdk.annotations.Subscribe;
 import kalix.javasdk.client.ComponentClient;
@@ -11,11 +16,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Profile;
 
-import java.math.BigDecimal;
 import java.util.UUID;
 import java.util.concurrent.CompletionStage;
 
+import static com.example.wallet.domain.WalletCommandError.AUTHORIZATION_NOT_FOUND;
+import static com.example.wallet.domain.WalletCommandError.POSSIBLY_DUPLICATED_COMMAND;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 
 @Profile("choreography")
 @Subscribe.EventSourcedEntity(value = ShowEntity.class, ignoreUnknown = true)
@@ -24,34 +31,74 @@ public class RefundForReservation extends Action {
   private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
   private final ComponentClient componentClient;
+  private final ReservationLookup reservationLookup;
+  private final WalletCalls walletCalls;
 
-  public RefundForReservation(ComponentClient componentClient) {
+  public RefundForReservation(ComponentClient componentClient, ReservationLookup reservationLookup, WalletCalls walletCalls) {
     this.componentClient = componentClient;
+    this.reservationLookup = reservationLookup;
+    this.walletCalls = walletCalls;
   }
 
   public Effect<Response> refund(CancelledReservationConfirmed cancelledReservationConfirmed) {
     logger.info("refunding for reservation, triggered by " + cancelledReservationConfirmed);
+    return refund(cancelledReservationConfirmed.reservationId(), cancelledReservationConfirmed.sagaContext());
+  }
+
+  public Effect<Response> refund(CancelledSeatsReservationConfirmed cancelledSeatsReservationConfirmed) {
+    logger.info("refunding for group reservation, triggered by " + cancelledSeatsReservationConfirmed);
+    return refund(cancelledSeatsReservationConfirmed.reservationId(), cancelledSeatsReservationConfirmed.sagaContext());
+  }
 
+  private Effect<Response> refund(String reservationId, SagaContext sagaContext) {
     String sequenceNum = contextForComponents().metadata().get("ce-sequence").orElseThrow();
     String commandId = UUID.nameUUIDFromBytes(sequenceNum.getBytes(UTF_8)).toString();
+    ActorSystem actorSystem = actionContext().materializer().system();
 
     return effects().asyncReply(
-      getReservation(cancelledReservationConfirmed.reservationId()).thenCompose(reservation ->
-        refund(reservation.walletId(), reservation.price(), commandId)
+      getReservation(reservationId, sagaContext).thenCompose(reservation ->
+        voidCharge(actorSystem, reservation.walletId(), reservationId, commandId).thenCompose(response -> switch (response) {
+          //no authorization to void, the wallet could be charged directly (before authorization was introduced)
+          case Response.Failure failure when failure.message().equals(AUTHORIZATION_NOT_FOUND.name()) ->
+            refund(actorSystem, reservation.walletId(), reservation.price(), commandId).thenApply(refundResponse -> {
+              if (refundResponse instanceof Response.Failure refundFailure && refundFailure.message().equals(POSSIBLY_DUPLICATED_COMMAND.name())) {
+                //might have been deposited already, can't be repeated with a different command id
+                logger.error("refund of {} for reservation {} not deposited, requires reconciliation", reservation.price(), reservationId);
+              }
+              return refundResponse;
+            });
+          default -> completedFuture(response);
+        })
       )
     );
   }
 
+  //events written before the Saga context was introduced require a read model lookup
+  private CompletionStage<Reservation> getReservation(String reservationId, SagaContext sagaContext) {
+    if (sagaContext.isEmpty()) {
+      return getReservation(reservationId);
+    } else {
+      return completedFuture(new Reservation(reservationId, sagaContext.showId(), sagaContext.walletId(), sagaContext.price()));
+    }
+  }
+
   private CompletionStage<Reservation> getReservation(String reservationId) {
-    return componentClient.forValueEntity(reservationId)
-      .call(ReservationEntity::get)
-      .execute();
+    return reservationLookup.get(reservationId, componentClient);
+  }
+
+  private CompletionStage<Response> voidCharge(ActorSystem actorSystem, String walletId, String reservationId, String commandId) {
+    return walletCalls.call(actorSystem, () ->
+      componentClient.forEventSourcedEntity(walletId)
+        .call(WalletEntity::voidCharge)
+        .params(new VoidCharge(reservationId, commandId))
+        .execute());
   }
 
-  private CompletionStage<Response> refund(String walletId, BigDecimal amount, String commandId) {
-    return componentClient.forEventSourcedEntity(walletId)
-      .call(WalletEntity::deposit)
-      .params(new WalletCommand.DepositFunds(amount, commandId))
-      .execute();
+  private CompletionStage<Response> refund(ActorSystem actorSystem, String walletId, Money amount, String commandId) {
+    return walletCalls.call(actorSystem, () ->
+      componentClient.forEventSourcedEntity(walletId)
+        .call(WalletEntity::deposit)
+        .params(new DepositFunds(amount, commandId))
+        .execute());
   }
 }
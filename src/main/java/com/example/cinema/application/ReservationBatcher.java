@@ -0,0 +1,100 @@
+package com.example.cinema.application;
+
+import com.example.cinema.domain.ShowCommand.ReserveSeat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects {@link ReserveSeat} commands per show on this node. A batch is submitted when it reaches {@code maxSize}
+ * or {@code window} after its first command, whichever comes first, so a single reservation waits at most
+ * {@code window}.
+ */
+@Component
+public class ReservationBatcher {
+
+  private record PendingReservation(ReserveSeat reserveSeat, CompletableFuture<Response> response) {
+  }
+
+  private final Duration window;
+  private final int maxSize;
+  private final Map<String, List<PendingReservation>> batches = new HashMap<>();
+
+  public ReservationBatcher(@Value("${cinema.reservation-batching.window:5ms}") Duration window,
+                            @Value("${cinema.reservation-batching.max-size:50}") int maxSize) {
+    this.window = window;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * @param submitBatch sends the batch and returns one response per command, in the same order
+   */
+  public CompletionStage<Response> submit(String showId, ReserveSeat reserveSeat,
+                                          Function<List<ReserveSeat>, CompletionStage<List<Response>>> submitBatch) {
+    var pendingReservation = new PendingReservation(reserveSeat, new CompletableFuture<>());
+    List<PendingReservation> fullBatch = null;
+    synchronized (batches) {
+      List<PendingReservation> batch = batches.computeIfAbsent(showId, __ -> new ArrayList<>());
+      batch.add(pendingReservation);
+      if (batch.size() >= maxSize) {
+        fullBatch = batches.remove(showId);
+      } else if (batch.size() == 1) {
+        CompletableFuture.runAsync(() -> submitAfterWindow(showId, batch, submitBatch),
+          CompletableFuture.delayedExecutor(window.toNanos(), TimeUnit.NANOSECONDS));
+      }
+    }
+    if (fullBatch != null) {
+      submit(fullBatch, submitBatch);
+    }
+    return pendingReservation.response();
+  }
+
+  private void submitAfterWindow(String showId, List<PendingReservation> batch,
+                                 Function<List<ReserveSeat>, CompletionStage<List<Response>>> submitBatch) {
+    synchronized (batches) {
+      //the batch might have been already submitted because it was full
+      if (batches.get(showId) != batch) {
+        return;
+      }
+      batches.remove(showId);
+    }
+    submit(batch, submitBatch);
+  }
+
+  private void submit(List<PendingReservation> batch, Function<List<ReserveSeat>, CompletionStage<List<Response>>> submitBatch) {
+    List<ReserveSeat> reserveSeats = batch.stream().map(PendingReservation::reserveSeat).toList();
+    CompletionStage<List<Response>> submitted;
+    try {
+      submitted = submitBatch.apply(reserveSeats);
+    } catch (RuntimeException e) {
+      failAll(batch, e);
+      return;
+    }
+    submitted.whenComplete((responses, error) -> {
+      if (error != null) {
+        failAll(batch, error);
+      } else if (responses == null || responses.size() != batch.size()) {
+        failAll(batch, new IllegalStateException("Expected " + batch.size() + " responses for the batch, got " + (responses == null ? null : responses.size())));
+      } else {
+        for (int i = 0; i < batch.size(); i++) {
+          batch.get(i).response().complete(responses.get(i));
+        }
+      }
+    });
+  }
+
+  private static void failAll(List<PendingReservation> batch, Throwable error) {
+    for (PendingReservation pendingReservation : batch) {
+      pendingReservation.response().completeExceptionally(error);
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.example.cinema.application;
+
+import com.example.cinema.application.ShowEntity.BatchResponse;
+import com.example.cinema.application.ShowEntity.ReserveSeatBatch;
+import com.example.cinema.domain.ShowCommand.ReserveSeat;
+import kalix.javasdk.action.Action;
+import kalix.javasdk.client.ComponentClient;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+/**
+ * Same contract as {@link ShowEntity#reserve}, but concurrent reservations for a show are sent to the entity as a
+ * single batch command, see {@link ReservationBatcher}.
+ */
+@RequestMapping("/batched-cinema-show/{showId}")
+public class ReservationBatchingGateway extends Action {
+
+  private final ComponentClient componentClient;
+  private final ReservationBatcher reservationBatcher;
+
+  public ReservationBatchingGateway(ComponentClient componentClient, ReservationBatcher reservationBatcher) {
+    this.componentClient = componentClient;
+    this.reservationBatcher = reservationBatcher;
+  }
+
+  @PatchMapping("/reserve")
+  public Effect<Response> reserve(@PathVariable String showId, @RequestBody ReserveSeat reserveSeat) {
+    return effects().asyncReply(
+      reservationBatcher.submit(showId, reserveSeat, reserveSeats ->
+        componentClient.forEventSourcedEntity(showId)
+          .call(ShowEntity::reserveBatch)
+          .params(new ReserveSeatBatch(reserveSeats))
+          .execute()
+          .thenApply(BatchResponse::responses)));
+  }
+}
@@ -0,0 +1,62 @@
+package com.example.cinema.application;
+
+import com.example.cinema.domain.Reservation;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Per node copy of {@link ReservationEntity} for the choreography actions. A reservation doesn't change after it's
+ * created, so the cache is filled from {@code SeatReserved} events and invalidated when the reservation entity is
+ * deleted. Bounded by size (W-TinyLFU eviction) and by time since the entry was written, a miss falls back to the
+ * loader.
+ */
+@Component
+public class ReservationCache {
+
+  public record Stats(long hitCount, long missCount, double hitRate, long evictionCount, long estimatedSize) {
+  }
+
+  private final Cache<String, Reservation> reservations;
+
+  public ReservationCache(@Value("${cinema.reservation-cache.max-size:100000}") long maxSize,
+                          @Value("${cinema.reservation-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+    this.reservations = Caffeine.newBuilder()
+      .maximumSize(maxSize)
+      .expireAfterWrite(expireAfterWrite)
+      .recordStats()
+      .build();
+  }
+
+  public void put(Reservation reservation) {
+    reservations.put(reservation.reservationId(), reservation);
+  }
+
+  public void invalidate(String reservationId) {
+    reservations.invalidate(reservationId);
+  }
+
+  public CompletionStage<Reservation> get(String reservationId, Supplier<CompletionStage<Reservation>> loader) {
+    Reservation cached = reservations.getIfPresent(reservationId);
+    if (cached != null) {
+      return CompletableFuture.completedFuture(cached);
+    } else {
+      return loader.get().thenApply(reservation -> {
+        reservations.put(reservationId, reservation);
+        return reservation;
+      });
+    }
+  }
+
+  public Stats stats() {
+    CacheStats stats = reservations.stats();
+    return new Stats(stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount(), reservations.estimatedSize());
+  }
+}
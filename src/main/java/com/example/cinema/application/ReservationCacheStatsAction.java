@@ -0,0 +1,30 @@
+package com.example.cinema.application;
+
+import com.example.common.HedgedCall;
+import kalix.javasdk.action.Action;
+import org.springframework.web.bind.annotation.GetMapping;
+
+/**
+ * Statistics of the {@link ReservationCache} and the {@link ReservationLookup} hedging on the node that handles the
+ * request.
+ */
+public class ReservationCacheStatsAction extends Action {
+
+  private final ReservationCache reservationCache;
+  private final ReservationLookup reservationLookup;
+
+  public ReservationCacheStatsAction(ReservationCache reservationCache, ReservationLookup reservationLookup) {
+    this.reservationCache = reservationCache;
+    this.reservationLookup = reservationLookup;
+  }
+
+  @GetMapping("/reservation-cache/stats")
+  public Effect<ReservationCache.Stats> stats() {
+    return effects().reply(reservationCache.stats());
+  }
+
+  @GetMapping("/reservation-lookup/stats")
+  public Effect<HedgedCall.Stats> lookupStats() {
+    return effects().reply(reservationLookup.stats());
+  }
+}
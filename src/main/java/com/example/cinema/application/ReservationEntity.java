@@ -1,6 +1,7 @@
 package com.example.cinema.application;
 
 import com.example.cinema.domain.Reservation;
+import com.example.common.Money;
 import io.grpc.Status;
 import kalix.javasdk.annotations.Id;
 import kalix.javasdk.annotations.TypeId;
@@ -12,15 +13,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 
-import java.math.BigDecimal;
-
 @Profile("choreography")
 @Id("id")
 @TypeId("reservation")
 @RequestMapping("/reservation/{id}")
 public class ReservationEntity extends ValueEntity<Reservation> {
 
-  public record CreateReservation(String showId, String walletId, BigDecimal price) {
+  public record CreateReservation(String showId, String walletId, Money price) {
   }
 
   @GetMapping
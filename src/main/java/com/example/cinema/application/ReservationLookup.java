@@ -0,0 +1,51 @@
+package com.example.cinema.application;
+
+import com.example.cinema.domain.Reservation;
+import com.example.cinema.domain.ShowByReservationId;
+import com.example.common.HedgedCall;
+import kalix.javasdk.client.ComponentClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Reservation lookup of the choreography actions. A {@link ReservationCache} miss reads {@link ReservationEntity}, and if
+ * it doesn't answer within the hedge delay (e.g. a slow entity activation), also {@link ShowByReservationIdView}, the
+ * first answer is used, see {@link HedgedCall}. The view is eventually consistent, a reservation that is not there yet
+ * is still read from the entity.
+ */
+@Component
+public class ReservationLookup {
+
+  private final ReservationCache reservationCache;
+  private final HedgedCall hedgedCall;
+
+  public ReservationLookup(ReservationCache reservationCache,
+                           @Value("${cinema.reservation-lookup.hedge.default-delay:50ms}") Duration defaultDelay,
+                           @Value("${cinema.reservation-lookup.hedge.min-delay:5ms}") Duration minDelay,
+                           @Value("${cinema.reservation-lookup.hedge.max-delay:1s}") Duration maxDelay,
+                           @Value("${cinema.reservation-lookup.hedge.percentile:95}") double percentile,
+                           @Value("${cinema.reservation-lookup.hedge.min-samples:100}") int minSamples) {
+    this.reservationCache = reservationCache;
+    this.hedgedCall = new HedgedCall(defaultDelay, minDelay, maxDelay, percentile, minSamples, 1000);
+  }
+
+  public CompletionStage<Reservation> get(String reservationId, ComponentClient componentClient) {
+    return reservationCache.get(reservationId, () ->
+      hedgedCall.call(
+        () -> componentClient.forValueEntity(reservationId)
+          .call(ReservationEntity::get)
+          .execute(),
+        () -> componentClient.forView()
+          .call(ShowByReservationIdView::getShow)
+          .params(reservationId)
+          .execute()
+          .thenApply(ShowByReservationId::toReservation)));
+  }
+
+  public HedgedCall.Stats stats() {
+    return hedgedCall.stats();
+  }
+}
@@ -0,0 +1,95 @@
+package com.example.cinema.application;
+
+import com.example.cinema.domain.ShowCommand.ReserveSeat;
+import com.example.cinema.domain.ShowEvent.SeatReservationCancelled;
+import com.example.cinema.domain.ShowEvent.SeatsReservationCancelled;
+import com.example.cinema.domain.Waitlist;
+import kalix.javasdk.action.Action;
+import kalix.javasdk.annotations.Subscribe;
+import kalix.javasdk.client.ComponentClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static com.example.cinema.application.ShowEntity.SEAT_RESERVED;
+
+/**
+ * Reserves seats freed by cancelled reservations for the head of the show {@link WaitlistEntity}. The reservation is
+ * made with the reservation id of the waitlist entry, so the Saga continues as for any other {@code SeatReserved}.
+ * <p>
+ * The entry leaves the waitlist only after the seat is reserved. If the seat was taken by a direct reservation in the
+ * meantime, the entry stays at the head of the waitlist. An entry whose reservation id was already used for the show
+ * (e.g. a redelivered event after the seat was reserved for it) can never be reserved, it's removed and the seat is
+ * offered to the next head.
+ */
+@Profile("choreography")
+@Subscribe.EventSourcedEntity(value = ShowEntity.class, ignoreUnknown = true)
+public class ReserveFreedSeatsForWaitlist extends Action {
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final ComponentClient componentClient;
+
+  public ReserveFreedSeatsForWaitlist(ComponentClient componentClient) {
+    this.componentClient = componentClient;
+  }
+
+  public Effect<String> reserve(SeatReservationCancelled cancelled) {
+    return effects().asyncReply(reserve(cancelled.showId(), List.of(cancelled.seatNumber())));
+  }
+
+  public Effect<String> reserve(SeatsReservationCancelled cancelled) {
+    return effects().asyncReply(reserve(cancelled.showId(), cancelled.seatNumbers()));
+  }
+
+  //seats are reserved one by one, each for the head of the waitlist at that time
+  private CompletionStage<String> reserve(String showId, List<Integer> seatNumbers) {
+    CompletionStage<String> result = CompletableFuture.completedFuture("done");
+    for (int seatNumber : seatNumbers) {
+      result = result.thenCompose(__ -> reserve(showId, seatNumber));
+    }
+    return result;
+  }
+
+  private CompletionStage<String> reserve(String showId, int seatNumber) {
+    return componentClient.forEventSourcedEntity(showId)
+      .call(WaitlistEntity::getHead)
+      .execute()
+      .thenCompose(head -> head.entry().fold(
+        () -> CompletableFuture.completedFuture("done"),
+        entry -> reserve(showId, seatNumber, entry)));
+  }
+
+  private CompletionStage<String> reserve(String showId, int seatNumber, Waitlist.Entry entry) {
+    logger.info("reserving freed seat {} of show {} for waitlisted reservation {}", seatNumber, showId, entry.reservationId());
+    return componentClient.forEventSourcedEntity(showId)
+      .call(ShowEntity::reserve)
+      .params(new ReserveSeat(entry.walletId(), entry.reservationId(), seatNumber))
+      .execute()
+      .thenCompose(response -> switch (response) {
+        case Response.Failure failure -> {
+          logger.info("freed seat {} of show {} not reserved for waitlist: {}", seatNumber, showId, failure.message());
+          yield CompletableFuture.completedFuture("done");
+        }
+        case Response.Success success when success.message().equals(SEAT_RESERVED) -> remove(showId, entry)
+          .thenApply(removed -> "done");
+        //duplicated reservation id, the seat was not reserved by this call
+        case Response.Success __ -> {
+          logger.warn("dropping waitlisted reservation {} of show {}, the reservation id is already used", entry.reservationId(), showId);
+          yield remove(showId, entry)
+            .thenCompose(removed -> reserve(showId, seatNumber));
+        }
+      });
+  }
+
+  private CompletionStage<Response> remove(String showId, Waitlist.Entry entry) {
+    return componentClient.forEventSourcedEntity(showId)
+      .call(WaitlistEntity::remove)
+      .params(entry.reservationId())
+      .execute();
+  }
+}
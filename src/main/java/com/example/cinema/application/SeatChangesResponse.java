@@ -0,0 +1,21 @@
+package com.example.cinema.application;
+
+import com.example.cinema.domain.SeatInventory;
+import com.example.cinema.domain.Show;
+
+import java.util.List;
+
+/**
+ * Seats changed after the revision passed by the client, or all seats ({@code snapshot} is true) if the changes since
+ * that revision are not kept anymore. The client passes {@code revision} in the next request.
+ */
+public record SeatChangesResponse(String id, long revision, boolean snapshot, List<SeatResponse> seats) {
+
+  public static SeatChangesResponse from(Show show, long since) {
+    SeatInventory seats = show.seats();
+    long revision = seats.changes().revision();
+    return seats.changes().since(since).fold(
+      () -> new SeatChangesResponse(show.id(), revision, true, seats.toList().stream().map(SeatResponse::from).toList()),
+      changed -> new SeatChangesResponse(show.id(), revision, false, changed.stream().map(seatNumber -> SeatResponse.from(seats.get(seatNumber).get())).toList()));
+  }
+}
@@ -0,0 +1,56 @@
+package com.example.cinema.application;
+
+import kalix.javasdk.action.Action;
+import kalix.javasdk.annotations.Acl;
+import kalix.javasdk.client.ComponentClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import static com.example.cinema.application.ShowEntity.RESERVATION_CANCELLED;
+
+/**
+ * Target of the {@link SeatHoldTimers}. Cancelling an already paid or cancelled reservation is a no-op in
+ * {@link ShowEntity#cancelReservation}, so an expiry racing with the Saga doesn't change the outcome. The expiry is not
+ * exposed to the internet, only the timers (and other services of the project) can call it.
+ */
+@RequestMapping("/seat-hold")
+public class SeatHoldExpiryAction extends Action {
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final ComponentClient componentClient;
+  private final SeatHolds seatHolds;
+
+  public SeatHoldExpiryAction(ComponentClient componentClient, SeatHolds seatHolds) {
+    this.componentClient = componentClient;
+    this.seatHolds = seatHolds;
+  }
+
+  @Acl(allow = @Acl.Matcher(service = "*"))
+  @PatchMapping("/{showId}/{reservationId}/expire")
+  public Effect<Response> expire(@PathVariable String showId, @PathVariable String reservationId) {
+    return effects().asyncReply(
+      componentClient.forEventSourcedEntity(showId)
+        .call(ShowEntity::cancelReservation)
+        .params(reservationId)
+        .execute()
+        .thenApply(response -> {
+          if (response instanceof Response.Success success && success.message().equals(RESERVATION_CANCELLED)) {
+            logger.warn("seat hold of reservation {} in show {} expired", reservationId, showId);
+            seatHolds.recordExpired();
+          } else {
+            seatHolds.recordAlreadyFinished();
+          }
+          return response;
+        }));
+  }
+
+  @GetMapping("/stats")
+  public Effect<SeatHolds.Stats> stats() {
+    return effects().reply(seatHolds.stats());
+  }
+}
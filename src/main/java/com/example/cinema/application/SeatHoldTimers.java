@@ -0,0 +1,67 @@
+package com.example.cinema.application;
+
+import com.example.cinema.domain.ShowEvent.SeatReservationCancelled;
+import com.example.cinema.domain.ShowEvent.SeatReservationPaid;
+import com.example.cinema.domain.ShowEvent.SeatReserved;
+import com.example.cinema.domain.ShowEvent.SeatsReservationCancelled;
+import com.example.cinema.domain.ShowEvent.SeatsReservationPaid;
+import com.example.cinema.domain.ShowEvent.SeatsReserved;
+import kalix.javasdk.action.Action;
+import kalix.javasdk.annotations.Subscribe;
+import kalix.javasdk.client.ComponentClient;
+
+/**
+ * Starts a {@link SeatHolds} timer for every new reservation and cancels it when the reservation is paid or cancelled.
+ * Used by both Saga implementations.
+ */
+@Subscribe.EventSourcedEntity(value = ShowEntity.class, ignoreUnknown = true)
+public class SeatHoldTimers extends Action {
+
+  private final ComponentClient componentClient;
+  private final SeatHolds seatHolds;
+
+  public SeatHoldTimers(ComponentClient componentClient, SeatHolds seatHolds) {
+    this.componentClient = componentClient;
+    this.seatHolds = seatHolds;
+  }
+
+  public Effect<String> onEvent(SeatReserved reserved) {
+    return startTimer(reserved.showId(), reserved.reservationId());
+  }
+
+  public Effect<String> onEvent(SeatsReserved reserved) {
+    return startTimer(reserved.showId(), reserved.reservationId());
+  }
+
+  public Effect<String> onEvent(SeatReservationPaid paid) {
+    return cancelTimer(paid.reservationId());
+  }
+
+  public Effect<String> onEvent(SeatReservationCancelled cancelled) {
+    return cancelTimer(cancelled.reservationId());
+  }
+
+  public Effect<String> onEvent(SeatsReservationPaid paid) {
+    return cancelTimer(paid.reservationId());
+  }
+
+  public Effect<String> onEvent(SeatsReservationCancelled cancelled) {
+    return cancelTimer(cancelled.reservationId());
+  }
+
+  private Effect<String> startTimer(String showId, String reservationId) {
+    var expire = componentClient.forAction()
+      .call(SeatHoldExpiryAction::expire)
+      .params(showId, reservationId);
+
+    return effects().asyncReply(
+      timers().startSingleTimer(seatHolds.timerName(reservationId), seatHolds.ttl(), expire)
+        .thenApply(__ -> "seat hold timer started"));
+  }
+
+  private Effect<String> cancelTimer(String reservationId) {
+    return effects().asyncReply(
+      timers().cancel(seatHolds.timerName(reservationId))
+        .thenApply(__ -> "seat hold timer cancelled"));
+  }
+}
@@ -0,0 +1,46 @@
+package com.example.cinema.application;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reserved seats are held for {@code ttl}, a reservation still pending after that time is cancelled by a timer, so a
+ * lost event or a stuck Saga doesn't block the seat forever. Expiry counts are kept per node.
+ */
+@Component
+public class SeatHolds {
+
+  public record Stats(Duration ttl, long expired, long alreadyFinished) {
+  }
+
+  private final Duration ttl;
+  private final AtomicLong expired = new AtomicLong();
+  private final AtomicLong alreadyFinished = new AtomicLong();
+
+  public SeatHolds(@Value("${cinema.seat-hold.ttl:15m}") Duration ttl) {
+    this.ttl = ttl;
+  }
+
+  public Duration ttl() {
+    return ttl;
+  }
+
+  public String timerName(String reservationId) {
+    return "seat-hold-" + reservationId;
+  }
+
+  public void recordExpired() {
+    expired.incrementAndGet();
+  }
+
+  public void recordAlreadyFinished() {
+    alreadyFinished.incrementAndGet();
+  }
+
+  public Stats stats() {
+    return new Stats(ttl, expired.get(), alreadyFinished.get());
+  }
+}
@@ -0,0 +1,54 @@
+package com.example.cinema.application;
+
+import com.example.cinema.application.SeatReservationWorkflow.ReserveSeat;
+import com.example.cinema.application.SeatReservationWorkflow.ReserveSeats;
+import kalix.javasdk.action.Action;
+import kalix.javasdk.client.ComponentClient;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import static com.example.cinema.application.ShowAdmissionGateway.readAvailable;
+
+/**
+ * Starts {@link SeatReservationWorkflow} only if the reservation is admitted by {@link ShowAdmissions}, not admitted
+ * requests don't create a workflow instance.
+ */
+@Profile("orchestration")
+@RequestMapping("/admitted-seat-reservation/{id}")
+public class SeatReservationAdmissionGateway extends Action {
+
+  private final ComponentClient componentClient;
+  private final ShowAdmissions showAdmissions;
+
+  public SeatReservationAdmissionGateway(ComponentClient componentClient, ShowAdmissions showAdmissions) {
+    this.componentClient = componentClient;
+    this.showAdmissions = showAdmissions;
+  }
+
+  @PostMapping
+  public Effect<AdmissionResponse> start(@PathVariable String id, @RequestBody ReserveSeat reserveSeat) {
+    return effects().asyncReply(
+      showAdmissions.admit(reserveSeat.showId(), () -> readAvailable(componentClient, reserveSeat.showId()))
+        .thenCompose(admission -> AdmissionResponse.of(admission, () ->
+          componentClient.forWorkflow(id)
+            .call(SeatReservationWorkflow::start)
+            .params(reserveSeat)
+            .execute()
+            .<Response>thenApply(Response.Success::of))));
+  }
+
+  @PostMapping("/seats")
+  public Effect<AdmissionResponse> startGroup(@PathVariable String id, @RequestBody ReserveSeats reserveSeats) {
+    return effects().asyncReply(
+      showAdmissions.admit(reserveSeats.showId(), () -> readAvailable(componentClient, reserveSeats.showId()))
+        .thenCompose(admission -> AdmissionResponse.of(admission, () ->
+          componentClient.forWorkflow(id)
+            .call(SeatReservationWorkflow::startGroup)
+            .params(reserveSeats)
+            .execute()
+            .<Response>thenApply(Response.Success::of))));
+  }
+}
@@ -0,0 +1,38 @@
+package com.example.cinema.application;
+
+import kalix.javasdk.action.Action;
+import kalix.javasdk.client.ComponentClient;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+/**
+ * Replies when the seat reservation ends, for clients that would otherwise poll {@link SeatReservationWorkflow#getState()},
+ * see {@link SeatReservationAwaits}.
+ */
+@Profile("orchestration")
+@RequestMapping("/seat-reservation-await")
+public class SeatReservationAwaitAction extends Action {
+
+  private final ComponentClient componentClient;
+  private final SeatReservationAwaits awaits;
+
+  public SeatReservationAwaitAction(ComponentClient componentClient, SeatReservationAwaits awaits) {
+    this.componentClient = componentClient;
+    this.awaits = awaits;
+  }
+
+  @GetMapping("/reservation/{reservationId}")
+  public Effect<String> await(@PathVariable String reservationId) {
+    return effects().asyncReply(awaits.await(reservationId, () ->
+      componentClient.forWorkflow(reservationId)
+        .call(SeatReservationWorkflow::getState)
+        .execute()));
+  }
+
+  @GetMapping("/stats")
+  public Effect<SeatReservationAwaits.Stats> stats() {
+    return effects().reply(awaits.stats());
+  }
+}
@@ -0,0 +1,194 @@
+package com.example.cinema.application;
+
+import com.example.cinema.domain.SeatReservationStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Long polling of seat reservations, for clients that would otherwise call {@link SeatReservationWorkflow#getState()}
+ * until the reservation reaches a terminal status.
+ * <p>
+ * Workflow state can't be subscribed to, so all clients awaiting the same reservation on this node share one read
+ * loop, with the interval between reads doubling from {@code min-poll-interval} up to {@code max-poll-interval}. A
+ * workflow that ends on this node restarts the loop with an immediate read, the workflow ends before its state is
+ * persisted, so clients are replied only with a read status and a terminal status is always final. A client still
+ * waiting after {@code timeout} gets the last read status, which might not be terminal.
+ */
+@Component
+public class SeatReservationAwaits {
+
+  public record Stats(int reservations, long awaits, long reads, long notified, long timedOut) {
+  }
+
+  private final Duration timeout;
+  private final Duration minPollInterval;
+  private final Duration maxPollInterval;
+  private final Map<String, AwaitedReservation> reservations = new ConcurrentHashMap<>();
+  private final AtomicLong awaits = new AtomicLong();
+  private final AtomicLong reads = new AtomicLong();
+  private final AtomicLong notified = new AtomicLong();
+  private final AtomicLong timedOut = new AtomicLong();
+
+  public SeatReservationAwaits(@Value("${cinema.seat-reservation.await.timeout:20s}") Duration timeout,
+                               @Value("${cinema.seat-reservation.await.min-poll-interval:100ms}") Duration minPollInterval,
+                               @Value("${cinema.seat-reservation.await.max-poll-interval:2s}") Duration maxPollInterval) {
+    this.timeout = timeout;
+    this.minPollInterval = minPollInterval;
+    this.maxPollInterval = maxPollInterval;
+  }
+
+  /**
+   * @param readStatus reads the current status of the reservation, used only if the reservation is not awaited yet
+   * @return terminal status or, after the timeout, the last read status
+   */
+  public CompletionStage<String> await(String reservationId, Supplier<CompletionStage<String>> readStatus) {
+    awaits.incrementAndGet();
+    AwaitedReservation reservation = reservations.computeIfAbsent(reservationId, id -> new AwaitedReservation(readStatus));
+    while (!reservation.join()) {
+      reservations.remove(reservationId, reservation);
+      reservation = reservations.computeIfAbsent(reservationId, id -> new AwaitedReservation(readStatus));
+    }
+    AwaitedReservation joined = reservation;
+
+    CompletableFuture<String> reply = new CompletableFuture<>();
+    joined.ended.whenComplete((status, error) -> {
+      if (error != null) {
+        reply.completeExceptionally(error);
+      } else {
+        reply.complete(status);
+      }
+    });
+    CompletableFuture.delayedExecutor(timeout.toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+      String status = joined.status();
+      boolean completed = status == null
+        ? reply.completeExceptionally(new TimeoutException("seat reservation " + reservationId + " not read within " + timeout))
+        : reply.complete(status);
+      if (completed) {
+        timedOut.incrementAndGet();
+      }
+    });
+    reply.whenComplete((status, error) -> {
+      if (joined.leave()) {
+        reservations.remove(reservationId, joined);
+      }
+    });
+    return reply;
+  }
+
+  /**
+   * Called by the workflow when the reservation ends on this node, possibly before the end is persisted.
+   */
+  public void ended(String reservationId) {
+    AwaitedReservation reservation = reservations.get(reservationId);
+    if (reservation != null && reservation.readNow()) {
+      notified.incrementAndGet();
+    }
+  }
+
+  public Stats stats() {
+    return new Stats(reservations.size(), awaits.get(), reads.get(), notified.get(), timedOut.get());
+  }
+
+  private final class AwaitedReservation {
+
+    private final Supplier<CompletionStage<String>> readStatus;
+    private final CompletableFuture<String> ended = new CompletableFuture<>();
+    private String status;
+    private Duration pollInterval = minPollInterval;
+    private int readLoop;
+    private int clients;
+    private boolean closed;
+
+    private AwaitedReservation(Supplier<CompletionStage<String>> readStatus) {
+      this.readStatus = readStatus;
+    }
+
+    /**
+     * @return false if the last client has already left and the reservation is no longer awaited
+     */
+    synchronized boolean join() {
+      if (closed) {
+        return false;
+      }
+      if (clients++ == 0) {
+        int loop = readLoop;
+        CompletableFuture.runAsync(() -> read(loop));
+      }
+      return true;
+    }
+
+    /**
+     * @return true if it was the last client
+     */
+    synchronized boolean leave() {
+      clients--;
+      if (clients == 0) {
+        closed = true;
+        return true;
+      } else {
+        return false;
+      }
+    }
+
+    synchronized String status() {
+      return status;
+    }
+
+    /**
+     * Replaces the current read loop with one starting with an immediate read.
+     *
+     * @return false if the reservation is no longer awaited
+     */
+    boolean readNow() {
+      int loop;
+      synchronized (this) {
+        if (closed || ended.isDone()) {
+          return false;
+        }
+        loop = ++readLoop;
+        pollInterval = minPollInterval;
+      }
+      CompletableFuture.runAsync(() -> read(loop));
+      return true;
+    }
+
+    private synchronized boolean isStopped(int loop) {
+      return closed || loop != readLoop;
+    }
+
+    private void read(int loop) {
+      if (isStopped(loop) || ended.isDone()) {
+        return;
+      }
+      reads.incrementAndGet();
+      CompletableFuture.supplyAsync(readStatus, Runnable::run)
+        .thenCompose(stage -> stage)
+        .whenComplete((status, error) -> {
+          if (error != null) {
+            ended.completeExceptionally(error);
+          } else if (SeatReservationStatus.valueOf(status).isTerminal()) {
+            ended.complete(status);
+          } else {
+            CompletableFuture.delayedExecutor(nextPollInterval(status).toNanos(), TimeUnit.NANOSECONDS).execute(() -> read(loop));
+          }
+        });
+    }
+
+    private synchronized Duration nextPollInterval(String status) {
+      this.status = status;
+      Duration current = pollInterval;
+      pollInterval = pollInterval.multipliedBy(2).compareTo(maxPollInterval) > 0 ? maxPollInterval : pollInterval.multipliedBy(2);
+      return current;
+    }
+  }
+}
@@ -2,9 +2,12 @@ package com.example.cinema.application;
 
 import com.example.cinema.domain.SeatReservation;
 import com.example.cinema.domain.ShowCommand;
+import com.example.common.Money;
 import com.example.wallet.application.WalletEntity;
-import com.example.wallet.domain.WalletCommand;
+import com.example.wallet.domain.WalletCommand.AuthorizeCharge;
+import com.example.wallet.domain.WalletCommand.CaptureCharge;
 import com.example.wallet.domain.WalletCommand.Refund;
+import com.example.wallet.domain.WalletCommand.VoidCharge;
 import com.google.protobuf.any.Any;
 import kalix.javasdk.DeferredCall;
 import kalix.javasdk.annotations.Id;
@@ -20,11 +23,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 
-import java.math.BigDecimal;
 import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletionStage;
 
+import static com.example.cinema.application.ShowEntity.CANCELLED_RESERVATION_CONFIRMED;
 import static com.example.cinema.domain.SeatReservationStatus.STARTED;
+import static com.example.cinema.domain.ShowCommandError.RESERVATION_NOT_FOUND;
+import static com.example.wallet.domain.WalletCommandError.AUTHORIZATION_NOT_FOUND;
 import static io.grpc.Status.Code.INVALID_ARGUMENT;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static kalix.javasdk.workflow.Workflow.RecoverStrategy.maxRetries;
@@ -39,35 +46,57 @@ public class SeatReservationWorkflow extends Workflow<SeatReservation> {
   public static final String CHARGE_WALLET_STEP = "charge-wallet";
   public static final String CANCEL_RESERVATION_STEP = "cancel-reservation";
   public static final String CONFIRM_RESERVATION_STEP = "confirm-reservation";
+  public static final String CAPTURE_CHARGE_STEP = "capture-charge";
+  public static final String VOID_CHARGE_STEP = "void-charge";
   public static final String REFUND_STEP = "refund";
   private final Logger logger = LoggerFactory.getLogger(this.getClass());
   private final ComponentClient componentClient;
+  private final WorkflowStepPolicy stepPolicy;
+  private final SeatReservationAwaits awaits;
 
-  public SeatReservationWorkflow(ComponentClient componentClient) {
+  public SeatReservationWorkflow(ComponentClient componentClient, WorkflowStepPolicy stepPolicy, SeatReservationAwaits awaits) {
     this.componentClient = componentClient;
+    this.stepPolicy = stepPolicy;
+    this.awaits = awaits;
   }
 
-  record ReserveSeat(String showId, int seatNumber, BigDecimal price, String walletId) {
+  record ReserveSeat(String showId, int seatNumber, Money price, String walletId) {
+  }
+
+  /**
+   * @param price total price of all seats
+   */
+  record ReserveSeats(String showId, List<Integer> seatNumbers, Money price, String walletId) {
   }
 
   @Override
   public WorkflowDef<SeatReservation> definition() {
     var reserveSeat = step(RESERVE_SEAT_STEP)
-      .call(this::reserveSeat)
-      .andThen(Response.class, this::chargeWalletOrStop);
+      .asyncCall(() -> withRetryBudget(RESERVE_SEAT_STEP, reserveSeat()))
+      .andThen(Response.class, this::chargeWalletOrStop)
+      .timeout(stepPolicy.timeout(RESERVE_SEAT_STEP));
 
     var chargeWallet = step(CHARGE_WALLET_STEP)
-      .call(this::chargeWallet)
-      .andThen(Response.class, this::confirmOrCancelReservation);
+      .asyncCall(() -> withRetryBudget(CHARGE_WALLET_STEP, chargeWallet()))
+      .andThen(Response.class, this::confirmOrCancelReservation)
+      .timeout(stepPolicy.timeout(CHARGE_WALLET_STEP));
 
     var confirmReservation = step(CONFIRM_RESERVATION_STEP)
       .call(this::confirmReservation)
+      .andThen(Response.class, this::captureCharge);
+
+    var captureCharge = step(CAPTURE_CHARGE_STEP)
+      .call(this::captureCharge)
       .andThen(Response.class, this::endAsCompleted);
 
     var cancelReservation = step(CANCEL_RESERVATION_STEP)
       .call(this::cancelReservation)
       .andThen(Response.class, this::endAsFailed);
 
+    var voidCharge = step(VOID_CHARGE_STEP)
+      .call(this::voidCharge)
+      .andThen(Response.class, this::cancelReservationOrRefund);
+
     var refund = step(REFUND_STEP)
       .call(this::refund)
       .andThen(Response.class, this::cancelReservation);
@@ -75,12 +104,38 @@ public class SeatReservationWorkflow extends Workflow<SeatReservation> {
     return workflow()
       .defaultStepTimeout(Duration.ofSeconds(3))
       .addStep(reserveSeat, maxRetries(3).failoverTo(CANCEL_RESERVATION_STEP))
-      .addStep(chargeWallet, maxRetries(3).failoverTo(REFUND_STEP))
+      .addStep(chargeWallet, maxRetries(3).failoverTo(VOID_CHARGE_STEP))
       .addStep(confirmReservation)
+      .addStep(captureCharge)
       .addStep(cancelReservation)
+      .addStep(voidCharge)
       .addStep(refund);
   }
 
+  //retries of steps with a failover are limited by the node wide retry budget
+  private CompletionStage<Response> withRetryBudget(String step, DeferredCall<Any, Response> call) {
+    return stepPolicy.call(currentState().reservationId(), step, call::execute);
+  }
+
+  private DeferredCall<Any, Response> voidCharge() {
+    logger.info("voiding charge");
+    return componentClient.forEventSourcedEntity(currentState().walletId())
+      .call(WalletEntity::voidCharge)
+      .params(new VoidCharge(currentState().reservationId(), commandId("void")));
+  }
+
+  private TransitionalEffect<Void> cancelReservationOrRefund(Response response) {
+    return switch (response) {
+      //no authorization to void, the wallet could be charged directly (before authorization was introduced)
+      case Response.Failure failure when failure.message().equals(AUTHORIZATION_NOT_FOUND.name()) -> effects()
+        .transitionTo(REFUND_STEP);
+      case Response.Failure failure -> throw new IllegalStateException("Expecting successful response, but got: " + failure);
+      case Response.Success __ -> effects()
+        .updateState(currentState().asWalletChargeVoided())
+        .transitionTo(CANCEL_RESERVATION_STEP);
+    };
+  }
+
   private DeferredCall<Any, Response> refund() {
     logger.info("refunding");
     //we can't use reservationId for refund, because it was used for charging.
@@ -109,12 +164,18 @@ public class SeatReservationWorkflow extends Workflow<SeatReservation> {
   private TransitionalEffect<Void> endAsFailed(Response response) {
     return switch (response) {
       case Response.Failure failure -> throw new IllegalStateException("Expecting successful response, but got: " + failure);
-      case Response.Success __ -> effects()
-        .updateState(currentState().asFailed())
-        .end();
+      case Response.Success __ -> end(currentState().asFailed());
     };
   }
 
+  //clients awaiting the reservation on this node don't wait for their next read, they still get the persisted status
+  private TransitionalEffect<Void> end(SeatReservation ended) {
+    awaits.ended(ended.reservationId());
+    return effects()
+      .updateState(ended)
+      .end();
+  }
+
   private DeferredCall<Any, Response> confirmReservation() {
     logger.info("confirming reservation");
     return componentClient.forEventSourcedEntity(currentState().showId())
@@ -122,53 +183,77 @@ public class SeatReservationWorkflow extends Workflow<SeatReservation> {
       .params(currentState().reservationId());
   }
 
-  private TransitionalEffect<Void> endAsCompleted(Response response) {
+  private TransitionalEffect<Void> captureCharge(Response response) {
     return switch (response) {
+      //seat hold expired before the confirmation, and the show no longer remembers the reservation
+      case Response.Failure failure when failure.message().equals(RESERVATION_NOT_FOUND.name()) -> effects()
+        .transitionTo(VOID_CHARGE_STEP);
       case Response.Failure failure -> throw new IllegalStateException("Expecting successful response, but got: " + failure);
+      //seat hold expired before the confirmation
+      case Response.Success success when success.message().equals(CANCELLED_RESERVATION_CONFIRMED) -> effects()
+        .transitionTo(VOID_CHARGE_STEP);
       case Response.Success __ -> effects()
-        .updateState(currentState().asCompleted())
-        .end();
+        .transitionTo(CAPTURE_CHARGE_STEP);
+    };
+  }
+
+  private DeferredCall<Any, Response> captureCharge() {
+    logger.info("capturing charge");
+    return componentClient.forEventSourcedEntity(currentState().walletId())
+      .call(WalletEntity::capture)
+      .params(new CaptureCharge(currentState().reservationId(), commandId("capture")));
+  }
+
+  private TransitionalEffect<Void> endAsCompleted(Response response) {
+    return switch (response) {
+      case Response.Failure failure -> throw new IllegalStateException("Expecting successful response, but got: " + failure);
+      case Response.Success __ -> end(currentState().asCompleted());
     };
   }
 
   private DeferredCall<Any, Response> chargeWallet() {
-    logger.info("charging wallet");
+    logger.info("authorizing wallet charge");
     var expenseId = currentState().reservationId();
     var commandId = expenseId; //reusing the same id, since we know that it will be unique
     return componentClient.forEventSourcedEntity(currentState().walletId())
-      .call(WalletEntity::charge)
-      .params(new WalletCommand.ChargeWallet(currentState().price(), expenseId, commandId));
+      .call(WalletEntity::authorize)
+      .params(new AuthorizeCharge(currentState().price(), expenseId, commandId));
   }
 
   private TransitionalEffect<Void> confirmOrCancelReservation(Response response) {
     return switch (response) {
       case Response.Failure failure -> {
-        //Here we know that wallet was not charged. We can just cancel reservation as compensation action
+        //Here we know that wallet was not charged (also for POSSIBLY_DUPLICATED_COMMAND). We can just cancel reservation as compensation action
         logger.warn("charging wallet failed with: " + failure);
         yield effects()
           .updateState(currentState().asWalletChargeRejected())
           .transitionTo(CANCEL_RESERVATION_STEP);
       }
       case Response.Success __ -> effects()
-        .updateState(currentState().asWalletCharged())
+        .updateState(currentState().asWalletChargeAuthorized())
         .transitionTo(CONFIRM_RESERVATION_STEP);
     };
   }
 
   private DeferredCall<Any, Response> reserveSeat() {
-    logger.info("reserving seat");
-    return componentClient.forEventSourcedEntity(currentState().showId())
-      .call(ShowEntity::reserve)
-      .params(new ShowCommand.ReserveSeat(currentState().walletId(), currentState().reservationId(), currentState().seatNumber()));
+    if (currentState().isGroupReservation()) {
+      logger.info("reserving seats");
+      return componentClient.forEventSourcedEntity(currentState().showId())
+        .call(ShowEntity::reserveSeats)
+        .params(new ShowCommand.ReserveSeats(currentState().walletId(), currentState().reservationId(), currentState().groupSeatNumbers()));
+    } else {
+      logger.info("reserving seat");
+      return componentClient.forEventSourcedEntity(currentState().showId())
+        .call(ShowEntity::reserve)
+        .params(new ShowCommand.ReserveSeat(currentState().walletId(), currentState().reservationId(), currentState().seatNumber()));
+    }
   }
 
   private TransitionalEffect<Void> chargeWalletOrStop(Response response) {
     return switch (response) {
       case Response.Failure failure -> {
         logger.warn("seat reservation failed with: " + failure);
-        yield effects()
-          .updateState(currentState().asSeatReservationFailed())
-          .end();
+        yield end(currentState().asSeatReservationFailed());
       }
       case Response.Success __ -> effects()
         .updateState(currentState().asSeatReserved())
@@ -182,7 +267,21 @@ public class SeatReservationWorkflow extends Workflow<SeatReservation> {
       return effects().error("seat reservation already exists", INVALID_ARGUMENT);
     } else {
       return effects()
-        .updateState(new SeatReservation(reservationId(), reserveSeat.showId, reserveSeat.seatNumber, reserveSeat.walletId, reserveSeat.price, STARTED))
+        .updateState(new SeatReservation(reservationId(), reserveSeat.showId, reserveSeat.seatNumber, reserveSeat.walletId, reserveSeat.price, STARTED, List.of()))
+        .transitionTo(RESERVE_SEAT_STEP)
+        .thenReply("reservation workflow started");
+    }
+  }
+
+  @PostMapping("/seats")
+  public Effect<String> startGroup(@RequestBody ReserveSeats reserveSeats) {
+    if (currentState() != null) {
+      return effects().error("seat reservation already exists", INVALID_ARGUMENT);
+    } else if (reserveSeats.seatNumbers.isEmpty()) {
+      return effects().error("no seats to reserve", INVALID_ARGUMENT);
+    } else {
+      return effects()
+        .updateState(new SeatReservation(reservationId(), reserveSeats.showId, reserveSeats.seatNumbers.get(0), reserveSeats.walletId, reserveSeats.price, STARTED, reserveSeats.seatNumbers))
         .transitionTo(RESERVE_SEAT_STEP)
         .thenReply("reservation workflow started");
     }
@@ -192,6 +291,10 @@ public class SeatReservationWorkflow extends Workflow<SeatReservation> {
     return commandContext().workflowId();
   }
 
+  private String commandId(String step) {
+    return UUID.nameUUIDFromBytes((currentState().reservationId() + "-" + step).getBytes(UTF_8)).toString();
+  }
+
   @GetMapping()
   public Effect<String> getState() {
     if (currentState() == null) {
@@ -0,0 +1,17 @@
+package com.example.cinema.application;
+
+import com.example.cinema.domain.Seat;
+import com.example.cinema.domain.SeatStatus;
+import com.example.common.Money;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Seat in responses, with the price as a plain decimal as before the money type, {@link Seat} itself is also persisted
+ * in {@code ShowCreated} events and keeps the money form.
+ */
+public record SeatResponse(int number, SeatStatus status, @JsonSerialize(using = Money.DecimalSerializer.class) Money price) {
+
+  public static SeatResponse from(Seat seat) {
+    return new SeatResponse(seat.number(), seat.status(), seat.price());
+  }
+}
@@ -0,0 +1,197 @@
+package com.example.cinema.application;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Live seat statuses of shows watched by clients connected to this node. While a show has at least one client, its
+ * seat changes are read once per {@code tick} (see {@link ShowEntity#getSeatChanges(long)}), regardless of the number
+ * of clients, and all changes within a tick are sent as one update. A new client gets all seats first.
+ * <p>
+ * Show events are delivered to a single node, so instead of subscribing to them each node reads the changes of the
+ * watched shows on its own.
+ * <p>
+ * Updates are deltas and can't be dropped, a client that falls more than {@code max-buffered-updates} behind gets an
+ * error and has to reconnect for a new snapshot. A failed read is logged and the next reads are skipped for a doubling
+ * number of ticks, a show that doesn't exist ends the stream of all its clients with an error.
+ */
+@Component
+public class SeatStatusFeeds {
+
+  /**
+   * @param snapshot {@code seats} contains all seats of the show, otherwise only seats changed since the previous update
+   */
+  public record SeatStatusUpdate(String showId, long revision, boolean snapshot, List<SeatResponse> seats) {
+  }
+
+  public record Stats(int shows, int clients, long reads) {
+  }
+
+  private static final int MAX_SKIPPED_TICKS = 64;
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final Duration tick;
+  private final int maxBufferedUpdates;
+  private final Map<String, ShowFeed> feeds = new ConcurrentHashMap<>();
+  private final AtomicLong reads = new AtomicLong();
+
+  public SeatStatusFeeds(@Value("${cinema.seat-status.tick:500ms}") Duration tick,
+                         @Value("${cinema.seat-status.max-buffered-updates:100}") int maxBufferedUpdates) {
+    this.tick = tick;
+    this.maxBufferedUpdates = maxBufferedUpdates;
+  }
+
+  /**
+   * @param readChanges reads seat changes of the show since the given revision, used only if the show is not watched yet
+   */
+  public Flux<SeatStatusUpdate> watch(String showId, Function<Long, CompletionStage<SeatChangesResponse>> readChanges) {
+    return Flux.<SeatStatusUpdate>create(client -> {
+      ShowFeed feed = feeds.computeIfAbsent(showId, id -> new ShowFeed(id, readChanges));
+      while (!feed.add(client)) {
+        feeds.remove(showId, feed);
+        feed = feeds.computeIfAbsent(showId, id -> new ShowFeed(id, readChanges));
+      }
+      ShowFeed watched = feed;
+      client.onDispose(() -> {
+        if (watched.remove(client)) {
+          feeds.remove(showId, watched);
+        }
+      });
+    }).onBackpressureBuffer(maxBufferedUpdates, BufferOverflowStrategy.ERROR);
+  }
+
+  public Stats stats() {
+    return new Stats(feeds.size(), feeds.values().stream().mapToInt(ShowFeed::clients).sum(), reads.get());
+  }
+
+  private final class ShowFeed {
+
+    private final String showId;
+    private final Function<Long, CompletionStage<SeatChangesResponse>> readChanges;
+    private final Set<FluxSink<SeatStatusUpdate>> clients = new HashSet<>();
+    private final Map<Integer, SeatResponse> seats = new TreeMap<>();
+    private long revision = -1;
+    private int failedReads;
+    private int ticksToSkip;
+    private Disposable polling;
+    private boolean closed;
+
+    private ShowFeed(String showId, Function<Long, CompletionStage<SeatChangesResponse>> readChanges) {
+      this.showId = showId;
+      this.readChanges = readChanges;
+    }
+
+    /**
+     * @return false if the last client has already left and the feed is being removed
+     */
+    synchronized boolean add(FluxSink<SeatStatusUpdate> client) {
+      if (closed) {
+        return false;
+      }
+      if (revision >= 0) {
+        client.next(new SeatStatusUpdate(showId, revision, true, List.copyOf(seats.values())));
+      }
+      clients.add(client);
+      if (polling == null) {
+        polling = Flux.interval(Duration.ZERO, tick)
+          .onBackpressureDrop()
+          .concatMap(__ -> read(), 1)
+          .subscribe(this::publish);
+      }
+      return true;
+    }
+
+    /**
+     * @return true if it was the last client
+     */
+    synchronized boolean remove(FluxSink<SeatStatusUpdate> client) {
+      clients.remove(client);
+      if (clients.isEmpty() && !closed) {
+        closed = true;
+        polling.dispose();
+        return true;
+      } else {
+        return false;
+      }
+    }
+
+    synchronized int clients() {
+      return clients.size();
+    }
+
+    private synchronized long revision() {
+      return revision;
+    }
+
+    private Mono<SeatChangesResponse> read() {
+      if (skipTick()) {
+        return Mono.empty();
+      }
+      return Mono.fromCompletionStage(() -> {
+          reads.incrementAndGet();
+          return readChanges.apply(revision());
+        })
+        .onErrorResume(error -> {
+          failed(error);
+          return Mono.empty();
+        });
+    }
+
+    private synchronized boolean skipTick() {
+      if (ticksToSkip > 0) {
+        ticksToSkip--;
+        return true;
+      } else {
+        return false;
+      }
+    }
+
+    private synchronized void failed(Throwable error) {
+      Throwable unwrapped = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+      if (unwrapped instanceof WebClientResponseException.NotFound) {
+        logger.warn("show {} not found, ending seat status stream of {} clients", showId, clients.size());
+        //a client leaves in the middle of the loop
+        List.copyOf(clients).forEach(client -> client.error(unwrapped));
+      } else {
+        failedReads++;
+        ticksToSkip = Math.min(1 << Math.min(failedReads - 1, 30), MAX_SKIPPED_TICKS);
+        logger.warn("reading seat changes of show {} failed {} times in a row, skipping {} ticks", showId, failedReads, ticksToSkip, error);
+      }
+    }
+
+    private synchronized void publish(SeatChangesResponse changes) {
+      failedReads = 0;
+      if (changes.snapshot()) {
+        seats.clear();
+      }
+      changes.seats().forEach(seat -> seats.put(seat.number(), seat));
+      revision = changes.revision();
+      if (changes.snapshot() || !changes.seats().isEmpty()) {
+        var update = new SeatStatusUpdate(showId, revision, changes.snapshot(), changes.seats());
+        //a client completed by the update leaves in the middle of the loop
+        List.copyOf(clients).forEach(client -> client.next(update));
+      }
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package com.example.cinema.application;
+
+import com.example.cinema.application.SeatStatusFeeds.SeatStatusUpdate;
+import kalix.javasdk.action.Action;
+import kalix.javasdk.client.ComponentClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import reactor.core.publisher.Flux;
+
+/**
+ * Live seat map for clients that would otherwise poll {@link ShowEntity#get()}, see {@link SeatStatusFeeds}.
+ */
+@RequestMapping("/seat-status")
+public class SeatStatusStreamAction extends Action {
+
+  private final ComponentClient componentClient;
+  private final SeatStatusFeeds seatStatusFeeds;
+
+  public SeatStatusStreamAction(ComponentClient componentClient, SeatStatusFeeds seatStatusFeeds) {
+    this.componentClient = componentClient;
+    this.seatStatusFeeds = seatStatusFeeds;
+  }
+
+  @GetMapping("/stream/{showId}")
+  public Flux<Effect<SeatStatusUpdate>> stream(@PathVariable String showId) {
+    return seatStatusFeeds.watch(showId, since ->
+        componentClient.forEventSourcedEntity(showId)
+          .call(ShowEntity::getSeatChanges)
+          .params(since)
+          .execute())
+      .map(update -> effects().reply(update));
+  }
+
+  @GetMapping("/stats")
+  public Effect<SeatStatusFeeds.Stats> stats() {
+    return effects().reply(seatStatusFeeds.stats());
+  }
+}
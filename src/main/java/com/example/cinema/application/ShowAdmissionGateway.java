@@ -0,0 +1,51 @@
+package com.example.cinema.application;
+
+import com.example.cinema.domain.ShowCommand.ReserveSeat;
+import kalix.javasdk.action.Action;
+import kalix.javasdk.client.ComponentClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Same contract as {@link ShowEntity#reserve}, but the reservation is sent to the entity only if it's admitted by
+ * {@link ShowAdmissions}.
+ */
+@RequestMapping("/admitted-cinema-show")
+public class ShowAdmissionGateway extends Action {
+
+  private final ComponentClient componentClient;
+  private final ShowAdmissions showAdmissions;
+
+  public ShowAdmissionGateway(ComponentClient componentClient, ShowAdmissions showAdmissions) {
+    this.componentClient = componentClient;
+    this.showAdmissions = showAdmissions;
+  }
+
+  @PatchMapping("/{showId}/reserve")
+  public Effect<AdmissionResponse> reserve(@PathVariable String showId, @RequestBody ReserveSeat reserveSeat) {
+    return effects().asyncReply(
+      showAdmissions.admit(showId, () -> readAvailable(componentClient, showId))
+        .thenCompose(admission -> AdmissionResponse.of(admission, () ->
+          componentClient.forEventSourcedEntity(showId)
+            .call(ShowEntity::reserve)
+            .params(reserveSeat)
+            .execute())));
+  }
+
+  @GetMapping("/stats")
+  public Effect<ShowAdmissions.Stats> stats() {
+    return effects().reply(showAdmissions.stats());
+  }
+
+  static CompletionStage<Integer> readAvailable(ComponentClient componentClient, String showId) {
+    return componentClient.forEventSourcedEntity(showId)
+      .call(ShowEntity::getAvailability)
+      .execute()
+      .thenApply(AvailabilityResponse::available);
+  }
+}
@@ -0,0 +1,129 @@
+package com.example.cinema.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per show admission of reservation requests on this node, so a flood of requests for a hot show doesn't start
+ * reservations that can only end with {@code SEAT_NOT_AVAILABLE} and their compensations.
+ * <p>
+ * Each show has an admission budget reset every {@code refresh-interval} to the number of available seats times
+ * {@code overbooking-factor}, the factor covers reservations that fail for other reasons (e.g. wallet charge). Unused
+ * budget doesn't carry over to the next interval. A request over the budget is rejected with the time left until the
+ * next reset, after which the client can retry, a request for a show without available seats is answered with sold out.
+ * Rejected requests are not held on the node. The number of available seats is read at most once per refresh interval,
+ * regardless of the number of requests. If it can't be read, requests are admitted.
+ */
+@Component
+public class ShowAdmissions {
+
+  public sealed interface Admission {
+    Admitted ADMITTED = new Admitted();
+    SoldOut SOLD_OUT = new SoldOut();
+
+    record Admitted() implements Admission {
+    }
+
+    /**
+     * @param retryAfter time left until the next reset of the budget
+     */
+    record Rejected(Duration retryAfter) implements Admission {
+    }
+
+    record SoldOut() implements Admission {
+    }
+  }
+
+  public record Stats(long shows, long admitted, long rejected, long soldOut, long reads) {
+  }
+
+  private final double overbookingFactor;
+  private final Duration refreshInterval;
+  private final Cache<String, ShowBudget> budgets;
+  private final AtomicLong admitted = new AtomicLong();
+  private final AtomicLong rejected = new AtomicLong();
+  private final AtomicLong soldOut = new AtomicLong();
+  private final AtomicLong reads = new AtomicLong();
+
+  public ShowAdmissions(@Value("${cinema.admission.overbooking-factor:1.2}") double overbookingFactor,
+                        @Value("${cinema.admission.refresh-interval:1s}") Duration refreshInterval) {
+    this.overbookingFactor = overbookingFactor;
+    this.refreshInterval = refreshInterval;
+    this.budgets = Caffeine.newBuilder().expireAfterAccess(Duration.ofMinutes(10)).build();
+  }
+
+  /**
+   * @param readAvailable reads the number of available seats of the show, used only if the budget has to be reset
+   */
+  public CompletionStage<Admission> admit(String showId, Supplier<CompletionStage<Integer>> readAvailable) {
+    ShowBudget budget = budgets.get(showId, __ -> new ShowBudget());
+    return budget.reset(readAvailable)
+      .thenApply(reset -> reset ? budget.take() : Admission.ADMITTED)
+      .thenApply(admission -> {
+        switch (admission) {
+          case Admission.Admitted __ -> admitted.incrementAndGet();
+          case Admission.Rejected __ -> rejected.incrementAndGet();
+          case Admission.SoldOut __ -> soldOut.incrementAndGet();
+        }
+        return admission;
+      });
+  }
+
+  public Stats stats() {
+    return new Stats(budgets.estimatedSize(), admitted.get(), rejected.get(), soldOut.get(), reads.get());
+  }
+
+  private final class ShowBudget {
+
+    private int available;
+    private int remaining;
+    private long resetAt;
+    private CompletableFuture<Boolean> reset;
+
+    /**
+     * @return completed with false if the number of available seats couldn't be read
+     */
+    synchronized CompletionStage<Boolean> reset(Supplier<CompletionStage<Integer>> readAvailable) {
+      if (reset != null && (!reset.isDone() || System.nanoTime() - resetAt < refreshInterval.toNanos())) {
+        return reset;
+      }
+      reads.incrementAndGet();
+      resetAt = System.nanoTime();
+      CompletableFuture<Boolean> started = new CompletableFuture<>();
+      reset = started;
+      CompletableFuture.supplyAsync(readAvailable, Runnable::run)
+        .thenCompose(stage -> stage)
+        .whenComplete((available, error) -> started.complete(error == null && wasReset(started, available)));
+      return started;
+    }
+
+    private synchronized boolean wasReset(CompletableFuture<Boolean> started, int available) {
+      //a later reset has already started
+      if (reset == started) {
+        this.available = available;
+        this.remaining = (int) Math.ceil(available * overbookingFactor);
+      }
+      return true;
+    }
+
+    synchronized Admission take() {
+      if (available == 0) {
+        return Admission.SOLD_OUT;
+      } else if (remaining > 0) {
+        remaining--;
+        return Admission.ADMITTED;
+      } else {
+        long untilReset = refreshInterval.toNanos() - (System.nanoTime() - resetAt);
+        return new Admission.Rejected(Duration.ofNanos(Math.max(untilReset, 0)));
+      }
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package com.example.cinema.application;
+
+import com.example.cinema.domain.ShowAvailability;
+import com.example.cinema.domain.ShowEvent.CancelledReservationConfirmed;
+import com.example.cinema.domain.ShowEvent.CancelledSeatsReservationConfirmed;
+import com.example.cinema.domain.ShowEvent.SeatReservationCancelled;
+import com.example.cinema.domain.ShowEvent.SeatReservationPaid;
+import com.example.cinema.domain.ShowEvent.SeatReserved;
+import com.example.cinema.domain.ShowEvent.SeatsReservationCancelled;
+import com.example.cinema.domain.ShowEvent.SeatsReservationPaid;
+import com.example.cinema.domain.ShowEvent.SeatsReserved;
+import com.example.cinema.domain.ShowEvent.ShowCreated;
+import kalix.javasdk.annotations.Query;
+import kalix.javasdk.annotations.Subscribe;
+import kalix.javasdk.annotations.Table;
+import kalix.javasdk.annotations.ViewId;
+import kalix.javasdk.view.View;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import java.util.List;
+
+/**
+ * Seat counts of all shows for listing pages, so browsing doesn't load show entities.
+ * <p>
+ * Rows are keyed by the id of the source entity, so each partition of a partitioned show is a separate row, counts are
+ * not summed per show and {@code minAvailable} applies to each partition. Rows carry {@code parentShowId}, so catalogue
+ * pages merge the returned partitions of a show, a partition below the minimum is not returned.
+ */
+@ViewId("show_availability_view_v2")
+@Table("show_availability")
+@Subscribe.EventSourcedEntity(value = ShowEntity.class)
+public class ShowAvailabilityView extends View<ShowAvailability> {
+
+  public record ShowsAvailability(List<ShowAvailability> shows) {
+  }
+
+  @GetMapping("/show-availability/min-available/{minAvailable}")
+  @Query("SELECT * AS shows FROM show_availability WHERE available >= :minAvailable")
+  public ShowsAvailability getShows(int minAvailable) {
+    return null;
+  }
+
+  public UpdateEffect<ShowAvailability> onEvent(ShowCreated created) {
+    return effects().updateState(ShowAvailability.of(created.initialShow()));
+  }
+
+  public UpdateEffect<ShowAvailability> onEvent(SeatReserved reserved) {
+    return effects().updateState(viewState().reserve(1));
+  }
+
+  public UpdateEffect<ShowAvailability> onEvent(SeatReservationPaid paid) {
+    return effects().updateState(viewState().pay(1));
+  }
+
+  public UpdateEffect<ShowAvailability> onEvent(SeatReservationCancelled cancelled) {
+    return effects().updateState(viewState().cancel(1));
+  }
+
+  public UpdateEffect<ShowAvailability> onEvent(CancelledReservationConfirmed confirmed) {
+    return effects().ignore();
+  }
+
+  public UpdateEffect<ShowAvailability> onEvent(SeatsReserved reserved) {
+    return effects().updateState(viewState().reserve(reserved.seatNumbers().size()));
+  }
+
+  public UpdateEffect<ShowAvailability> onEvent(SeatsReservationPaid paid) {
+    return effects().updateState(viewState().pay(paid.seatNumbers().size()));
+  }
+
+  public UpdateEffect<ShowAvailability> onEvent(SeatsReservationCancelled cancelled) {
+    return effects().updateState(viewState().cancel(cancelled.seatNumbers().size()));
+  }
+
+  public UpdateEffect<ShowAvailability> onEvent(CancelledSeatsReservationConfirmed confirmed) {
+    return effects().ignore();
+  }
+}
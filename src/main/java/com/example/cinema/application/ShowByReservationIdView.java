@@ -0,0 +1,41 @@
+package com.example.cinema.application;
+
+import com.example.cinema.domain.Reservation;
+import com.example.cinema.domain.ShowByReservationId;
+import kalix.javasdk.annotations.Query;
+import kalix.javasdk.annotations.Subscribe;
+import kalix.javasdk.annotations.Table;
+import kalix.javasdk.annotations.ViewId;
+import kalix.javasdk.view.View;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+
+/**
+ * One row per reservation, so a lookup is an indexed point read regardless of the number of reservations in a show.
+ * <p>
+ * View rows are keyed by the id of the source entity, that's why the view is fed by {@link ReservationEntity} (created
+ * from {@code SeatReserved} and {@code SeatsReserved}, keyed by reservation id) instead of the show events. A row is
+ * removed together with the reservation entity when the reservation is paid. Rows carry the whole reservation, so the
+ * view can answer any reservation lookup of the choreography actions, see {@link ReservationLookup}.
+ */
+@Profile("choreography")
+@ViewId("show_by_reservation_id_view_v2")
+@Table("show_by_reservation_id")
+public class ShowByReservationIdView extends View<ShowByReservationId> {
+
+  @GetMapping("/show-by-reservation/{reservationId}")
+  @Query("SELECT * FROM show_by_reservation_id WHERE reservationId = :reservationId")
+  public ShowByReservationId getShow(String reservationId) {
+    return null;
+  }
+
+  @Subscribe.ValueEntity(ReservationEntity.class)
+  public UpdateEffect<ShowByReservationId> onChange(Reservation reservation) {
+    return effects().updateState(ShowByReservationId.of(reservation));
+  }
+
+  @Subscribe.ValueEntity(value = ReservationEntity.class, handleDeletes = true)
+  public UpdateEffect<ShowByReservationId> onDelete() {
+    return effects().deleteState();
+  }
+}
@@ -2,9 +2,13 @@ package com.example.cinema.application;
 
 import com.example.cinema.domain.ShowByReservation;
 import com.example.cinema.domain.ShowEvent.CancelledReservationConfirmed;
+import com.example.cinema.domain.ShowEvent.CancelledSeatsReservationConfirmed;
 import com.example.cinema.domain.ShowEvent.SeatReservationCancelled;
 import com.example.cinema.domain.ShowEvent.SeatReservationPaid;
 import com.example.cinema.domain.ShowEvent.SeatReserved;
+import com.example.cinema.domain.ShowEvent.SeatsReservationCancelled;
+import com.example.cinema.domain.ShowEvent.SeatsReservationPaid;
+import com.example.cinema.domain.ShowEvent.SeatsReserved;
 import com.example.cinema.domain.ShowEvent.ShowCreated;
 import kalix.javasdk.annotations.Query;
 import kalix.javasdk.annotations.Subscribe;
@@ -14,6 +18,12 @@ import kalix.javasdk.view.View;
 import org.springframework.context.annotation.Profile;
 import org.springframework.web.bind.annotation.GetMapping;
 
+/**
+ * @deprecated a single row per show grows with every reservation and can't be queried by a key index, use
+ * {@link ShowByReservationIdView}. Kept until the new view has been built from the existing reservations after
+ * deployment, it can be removed in the next release.
+ */
+@Deprecated
 @Profile("choreography")
 @ViewId("show_by_reservation_view")
 @Table("show_by_reservation")
@@ -45,4 +55,20 @@ public class ShowByReservationView extends View<ShowByReservation> {
   public UpdateEffect<ShowByReservation> onEvent(CancelledReservationConfirmed confirmed) {
     return effects().ignore();
   }
+
+  public UpdateEffect<ShowByReservation> onEvent(SeatsReserved reserved) {
+    return effects().updateState(viewState().add(reserved.reservationId()));
+  }
+
+  public UpdateEffect<ShowByReservation> onEvent(SeatsReservationPaid paid) {
+    return effects().ignore();
+  }
+
+  public UpdateEffect<ShowByReservation> onEvent(SeatsReservationCancelled cancelled) {
+    return effects().ignore();
+  }
+
+  public UpdateEffect<ShowByReservation> onEvent(CancelledSeatsReservationConfirmed confirmed) {
+    return effects().ignore();
+  }
 }
@@ -6,21 +6,30 @@ import com.example.cinema.domain.SeatStatus;
 import com.example.cinema.domain.Show;
 import com.example.cinema.domain.ShowCommand;
 import com.example.cinema.domain.ShowCommand.CancelSeatReservation;
+import com.example.cinema.domain.ShowCommand.ConfirmArchivedReservationPayment;
 import com.example.cinema.domain.ShowCommand.ConfirmReservationPayment;
 import com.example.cinema.domain.ShowCommand.CreateShow;
+import com.example.cinema.domain.ShowCommand.CreateShowPartition;
+import com.example.cinema.domain.ShowCommand.ReserveBestAvailable;
 import com.example.cinema.domain.ShowCommand.ReserveSeat;
+import com.example.cinema.domain.ShowCommand.ReserveSeats;
 import com.example.cinema.domain.ShowCommandError;
 import com.example.cinema.domain.ShowCreator;
 import com.example.cinema.domain.ShowEvent;
 import com.example.cinema.domain.ShowEvent.CancelledReservationConfirmed;
+import com.example.cinema.domain.ShowEvent.CancelledSeatsReservationConfirmed;
 import com.example.cinema.domain.ShowEvent.SeatReservationCancelled;
 import com.example.cinema.domain.ShowEvent.SeatReservationPaid;
 import com.example.cinema.domain.ShowEvent.SeatReserved;
+import com.example.cinema.domain.ShowEvent.SeatsReservationCancelled;
+import com.example.cinema.domain.ShowEvent.SeatsReservationPaid;
+import com.example.cinema.domain.ShowEvent.SeatsReserved;
 import com.example.cinema.domain.ShowEvent.ShowCreated;
 import kalix.javasdk.annotations.EventHandler;
 import kalix.javasdk.annotations.Id;
 import kalix.javasdk.annotations.TypeId;
 import kalix.javasdk.eventsourcedentity.EventSourcedEntity;
+import kalix.javasdk.eventsourcedentity.EventSourcedEntityContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -30,11 +39,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Predicate;
 
 import static com.example.cinema.domain.ShowCommandError.CANCELLING_CONFIRMED_RESERVATION;
 import static com.example.cinema.domain.ShowCommandError.DUPLICATED_COMMAND;
 import static com.example.cinema.domain.ShowCommandError.RESERVATION_NOT_FOUND;
+import static com.example.cinema.domain.ShowCommandError.SHOW_ALREADY_EXISTS;
 import static kalix.javasdk.StatusCode.ErrorCode.BAD_REQUEST;
 import static kalix.javasdk.StatusCode.ErrorCode.NOT_FOUND;
 
@@ -43,11 +55,36 @@ import static kalix.javasdk.StatusCode.ErrorCode.NOT_FOUND;
 @RequestMapping("/cinema-show/{id}")
 public class ShowEntity extends EventSourcedEntity<Show, ShowEvent> {
 
+  public static final String SEAT_RESERVED = "reserved";
+  public static final String RESERVATION_CANCELLED = "reservation cancelled";
+  public static final String CANCELLED_RESERVATION_CONFIRMED = "cancelled reservation confirmed";
+
   private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
+  private final String entityId;
+
+  public ShowEntity(EventSourcedEntityContext context) {
+    this.entityId = context.entityId();
+  }
+
+  public record ReserveSeatBatch(List<ReserveSeat> reserveSeats) {
+  }
+
+  /**
+   * @param responses one response per command, in the order of {@link ReserveSeatBatch#reserveSeats()}
+   */
+  public record BatchResponse(List<Response> responses) {
+  }
+
+  /**
+   * @param seatNumbers seats picked for the reservation, empty if it failed
+   */
+  public record BestAvailableResponse(Response response, List<Integer> seatNumbers) {
+  }
+
   @PostMapping
   public Effect<Response> create(@RequestBody CreateShow createShow) {
-    String showId = commandContext().entityId();
+    String showId = entityId;
     if (currentState() != null) {
       return effects().error("show already exists", BAD_REQUEST);
     } else {
@@ -58,6 +95,22 @@ public class ShowEntity extends EventSourcedEntity<Show, ShowEvent> {
     }
   }
 
+  @PostMapping("/partition")
+  public Effect<Response> createPartition(@RequestBody CreateShowPartition createShowPartition) {
+    String partitionId = entityId;
+    if (currentState() != null && currentState().isPartitionCreatedBy(createShowPartition)) {
+      //partitions are created by a fan-out that can be retried
+      return effects().reply(Success.of("ok"));
+    } else if (currentState() != null) {
+      return errorEffect(SHOW_ALREADY_EXISTS, createShowPartition);
+    } else {
+      return ShowCreator.createPartition(partitionId, createShowPartition).fold(
+          error -> errorEffect(error, createShowPartition),
+          showCreated -> persistEffect(showCreated, "show partition created")
+      );
+    }
+  }
+
   @PatchMapping("/reserve")
   public Effect<Response> reserve(@RequestBody ReserveSeat reserveSeat) {
     if (currentState() == null) {
@@ -65,7 +118,64 @@ public class ShowEntity extends EventSourcedEntity<Show, ShowEvent> {
     } else {
       return currentState().process(reserveSeat).fold(
           error -> errorEffect(error, reserveSeat),
-          showEvent -> persistEffect(showEvent, "reserved")
+          showEvent -> persistEffect(showEvent, SEAT_RESERVED)
+      );
+    }
+  }
+
+  @PatchMapping("/reserve-batch")
+  public Effect<BatchResponse> reserveBatch(@RequestBody ReserveSeatBatch reserveSeatBatch) {
+    if (currentState() == null) {
+      return effects().error("show not found", NOT_FOUND);
+    } else {
+      List<ReserveSeat> reserveSeats = reserveSeatBatch.reserveSeats();
+      var results = currentState().processBatch(reserveSeats);
+      List<ShowEvent> events = new ArrayList<>();
+      List<Response> responses = new ArrayList<>(results.size());
+      for (int i = 0; i < results.size(); i++) {
+        ReserveSeat reserveSeat = reserveSeats.get(i);
+        responses.add(results.get(i).fold(
+            error -> errorResponse(error, reserveSeat, e -> e == DUPLICATED_COMMAND),
+            showEvent -> {
+              events.add(showEvent);
+              return Success.of(SEAT_RESERVED);
+            }
+        ));
+      }
+      var batchResponse = new BatchResponse(responses);
+      if (events.isEmpty()) {
+        return effects().reply(batchResponse);
+      } else {
+        return effects().emitEvents(events).thenReply(__ -> batchResponse);
+      }
+    }
+  }
+
+  @PatchMapping("/reserve-seats")
+  public Effect<Response> reserveSeats(@RequestBody ReserveSeats reserveSeats) {
+    if (currentState() == null) {
+      return effects().error("show not found", NOT_FOUND);
+    } else {
+      return currentState().process(reserveSeats).fold(
+          error -> errorEffect(error, reserveSeats),
+          showEvent -> persistEffect(showEvent, SEAT_RESERVED)
+      );
+    }
+  }
+
+  @PatchMapping("/reserve-best-available")
+  public Effect<BestAvailableResponse> reserveBestAvailable(@RequestBody ReserveBestAvailable reserveBestAvailable) {
+    if (currentState() == null) {
+      return effects().error("show not found", NOT_FOUND);
+    } else {
+      String reservationId = reserveBestAvailable.reservationId();
+      return currentState().process(reserveBestAvailable).fold(
+          error -> effects().reply(new BestAvailableResponse(
+              errorResponse(error, reserveBestAvailable, e -> e == DUPLICATED_COMMAND),
+              currentState().reservedSeats(reservationId))),
+          showEvent -> effects()
+              .emitEvent(showEvent)
+              .thenReply(show -> new BestAvailableResponse(Success.of(SEAT_RESERVED), show.reservedSeats(reservationId)))
       );
     }
   }
@@ -80,24 +190,52 @@ public class ShowEntity extends EventSourcedEntity<Show, ShowEvent> {
           error -> errorEffect(error, cancelSeatReservation, e -> e == DUPLICATED_COMMAND
               || e == CANCELLING_CONFIRMED_RESERVATION
               || e == RESERVATION_NOT_FOUND),
-          showEvent -> persistEffect(showEvent, "reservation cancelled")
+          showEvent -> persistEffect(showEvent, RESERVATION_CANCELLED)
       );
     }
   }
 
   @PatchMapping("/confirm-payment/{reservationId}")
   public Effect<Response> confirmPayment(@PathVariable String reservationId) {
+    return confirmPaymentWithContext(new ConfirmReservationPayment(reservationId));
+  }
+
+  /**
+   * Same as {@link #confirmPayment(String)}, the Saga context is passed to the emitted event.
+   */
+  @PatchMapping("/confirm-payment")
+  public Effect<Response> confirmPaymentWithContext(@RequestBody ConfirmReservationPayment confirmReservationPayment) {
     if (currentState() == null) {
       return effects().error("show not found", NOT_FOUND);
     } else {
-      ConfirmReservationPayment confirmReservationPayment = new ConfirmReservationPayment(reservationId);
       return currentState().process(confirmReservationPayment).fold(
           error -> errorEffect(error, confirmReservationPayment),
-          showEvent -> persistEffect(showEvent, "payment confirmed")
+          showEvent -> persistEffect(showEvent, confirmationMessage(showEvent))
+      );
+    }
+  }
+
+  @PatchMapping("/confirm-archived-payment")
+  public Effect<Response> confirmArchivedPayment(@RequestBody ConfirmArchivedReservationPayment confirmArchived) {
+    if (currentState() == null) {
+      return effects().error("show not found", NOT_FOUND);
+    } else {
+      return currentState().process(confirmArchived).fold(
+          error -> errorEffect(error, confirmArchived),
+          showEvent -> persistEffect(showEvent, confirmationMessage(showEvent))
       );
     }
   }
 
+  //payment for a cancelled (e.g. expired) reservation must be returned by the caller
+  private String confirmationMessage(ShowEvent showEvent) {
+    return switch (showEvent) {
+      case CancelledReservationConfirmed __ -> CANCELLED_RESERVATION_CONFIRMED;
+      case CancelledSeatsReservationConfirmed __ -> CANCELLED_RESERVATION_CONFIRMED;
+      default -> "payment confirmed";
+    };
+  }
+
   private Effect<Response> persistEffect(ShowEvent showEvent, String message) {
     return effects()
         .emitEvent(showEvent)
@@ -109,11 +247,15 @@ public class ShowEntity extends EventSourcedEntity<Show, ShowEvent> {
   }
 
   private Effect<Response> errorEffect(ShowCommandError error, ShowCommand showCommand, Predicate<ShowCommandError> shouldBeSuccessful) {
+    return effects().reply(errorResponse(error, showCommand, shouldBeSuccessful));
+  }
+
+  private Response errorResponse(ShowCommandError error, ShowCommand showCommand, Predicate<ShowCommandError> shouldBeSuccessful) {
     if (shouldBeSuccessful.test(error)) {
-      return effects().reply(Success.of("ok"));
+      return Success.of("ok");
     } else {
       logger.error("processing command {} failed with {}", showCommand, error);
-      return effects().reply(Failure.of(error.name()));
+      return Failure.of(error.name());
     }
   }
 
@@ -126,6 +268,27 @@ public class ShowEntity extends EventSourcedEntity<Show, ShowEvent> {
     }
   }
 
+  @GetMapping("/availability")
+  public Effect<AvailabilityResponse> getAvailability() {
+    if (currentState() == null) {
+      return effects().error("show not found", NOT_FOUND);
+    } else {
+      return effects().reply(AvailabilityResponse.from(currentState()));
+    }
+  }
+
+  /**
+   * For seat map polling, pass -1 to get all seats and the revision for the next request.
+   */
+  @GetMapping("/seat-changes/{since}")
+  public Effect<SeatChangesResponse> getSeatChanges(@PathVariable long since) {
+    if (currentState() == null) {
+      return effects().error("show not found", NOT_FOUND);
+    } else {
+      return effects().reply(SeatChangesResponse.from(currentState(), since));
+    }
+  }
+
   @GetMapping("/seat-status/{seatNumber}")
   public Effect<SeatStatus> getSeatStatus(@PathVariable int seatNumber) {
     if (currentState() == null) {
@@ -162,4 +325,24 @@ public class ShowEntity extends EventSourcedEntity<Show, ShowEvent> {
   public Show onEvent(CancelledReservationConfirmed cancelledReservationConfirmed) {
     return currentState().apply(cancelledReservationConfirmed);
   }
+
+  @EventHandler
+  public Show onEvent(SeatsReserved seatsReserved) {
+    return currentState().apply(seatsReserved);
+  }
+
+  @EventHandler
+  public Show onEvent(SeatsReservationCancelled seatsReservationCancelled) {
+    return currentState().apply(seatsReservationCancelled);
+  }
+
+  @EventHandler
+  public Show onEvent(SeatsReservationPaid seatsReservationPaid) {
+    return currentState().apply(seatsReservationPaid);
+  }
+
+  @EventHandler
+  public Show onEvent(CancelledSeatsReservationConfirmed cancelledSeatsReservationConfirmed) {
+    return currentState().apply(cancelledSeatsReservationConfirmed);
+  }
 }
@@ -0,0 +1,43 @@
+package com.example.cinema.application;
+
+import com.example.cinema.domain.ShowPartitions;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Partition layout never changes after the show is created, so it's safe to keep it per node
+ * instead of reading the coordinating {@link PartitionedShowEntity} for every routed command.
+ * Layouts of shows not routed to for {@code expire-after-access} are evicted, as are the least used above {@code max-size}.
+ */
+@Component
+public class ShowPartitionsCache {
+
+  private final Cache<String, ShowPartitions> layouts;
+
+  public ShowPartitionsCache(@Value("${cinema.show-partitions-cache.max-size:10000}") long maxSize,
+                             @Value("${cinema.show-partitions-cache.expire-after-access:1h}") Duration expireAfterAccess) {
+    this.layouts = Caffeine.newBuilder()
+      .maximumSize(maxSize)
+      .expireAfterAccess(expireAfterAccess)
+      .build();
+  }
+
+  public CompletionStage<ShowPartitions> get(String showId, Supplier<CompletionStage<ShowPartitions>> loader) {
+    ShowPartitions cached = layouts.getIfPresent(showId);
+    if (cached != null) {
+      return CompletableFuture.completedFuture(cached);
+    } else {
+      return loader.get().thenApply(layout -> {
+        layouts.put(showId, layout);
+        return layout;
+      });
+    }
+  }
+}
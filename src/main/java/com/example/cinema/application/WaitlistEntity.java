@@ -0,0 +1,99 @@
+package com.example.cinema.application;
+
+import com.example.cinema.domain.Waitlist;
+import com.example.cinema.domain.WaitlistEvent;
+import com.example.cinema.domain.WaitlistEvent.Enqueued;
+import com.example.cinema.domain.WaitlistEvent.Removed;
+import io.grpc.Status;
+import io.vavr.control.Option;
+import kalix.javasdk.annotations.EventHandler;
+import kalix.javasdk.annotations.Id;
+import kalix.javasdk.annotations.TypeId;
+import kalix.javasdk.eventsourcedentity.EventSourcedEntity;
+import kalix.javasdk.eventsourcedentity.EventSourcedEntityContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+/**
+ * Waitlist of a show, the id is the show id. Served by {@link ReserveFreedSeatsForWaitlist}.
+ * <p>
+ * Each enqueue and removal persists a single {@link WaitlistEvent}, so storage work per released seat doesn't depend on
+ * the length of the waitlist. The whole waitlist is written only in snapshots (by default every 100 events), from which
+ * the entity is recovered together with the events after them.
+ */
+@Profile("choreography")
+@Id("id")
+@TypeId("waitlist")
+@RequestMapping("/waitlist/{id}")
+public class WaitlistEntity extends EventSourcedEntity<Waitlist, WaitlistEvent> {
+
+  private final String entityId;
+
+  public WaitlistEntity(EventSourcedEntityContext context) {
+    this.entityId = context.entityId();
+  }
+
+  public record Enqueue(String walletId, String reservationId) {
+  }
+
+  /**
+   * @param size number of waiting entries
+   */
+  public record Head(Option<Waitlist.Entry> entry, int size) {
+  }
+
+  @Override
+  public Waitlist emptyState() {
+    return Waitlist.empty(entityId);
+  }
+
+  /**
+   * Only the head is exposed, so reading the waitlist doesn't depend on its length.
+   */
+  @GetMapping("/head")
+  public Effect<Head> getHead() {
+    return effects().reply(new Head(currentState().head(), currentState().size()));
+  }
+
+  @GetMapping("/position/{reservationId}")
+  public Effect<Integer> getPosition(@PathVariable String reservationId) {
+    return currentState().position(reservationId).fold(
+      () -> effects().error("reservation not on the waitlist", Status.Code.NOT_FOUND),
+      position -> effects().reply(position)
+    );
+  }
+
+  @PostMapping("/enqueue")
+  public Effect<Response> enqueue(@RequestBody Enqueue enqueue) {
+    if (currentState().contains(enqueue.reservationId())) {
+      return effects().reply(Response.Success.of("ok"));
+    } else {
+      var entry = new Waitlist.Entry(enqueue.reservationId(), enqueue.walletId());
+      return effects().emitEvent(new Enqueued(currentState().showId(), entry)).thenReply(__ -> Response.Success.of("enqueued"));
+    }
+  }
+
+  @DeleteMapping("/{reservationId}")
+  public Effect<Response> remove(@PathVariable String reservationId) {
+    if (!currentState().contains(reservationId)) {
+      return effects().reply(Response.Success.of("ok"));
+    } else {
+      return effects().emitEvent(new Removed(currentState().showId(), reservationId)).thenReply(__ -> Response.Success.of("removed"));
+    }
+  }
+
+  @EventHandler
+  public Waitlist onEvent(Enqueued enqueued) {
+    return currentState().apply(enqueued);
+  }
+
+  @EventHandler
+  public Waitlist onEvent(Removed removed) {
+    return currentState().apply(removed);
+  }
+}
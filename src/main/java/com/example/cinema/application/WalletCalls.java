@@ -0,0 +1,128 @@
+package com.example.cinema.application;
+
+import akka.actor.ActorSystem;
+import akka.pattern.CircuitBreaker;
+import akka.pattern.CircuitBreakerOpenException;
+import akka.pattern.Patterns;
+import com.example.common.RetryPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wallet calls of the choreography actions on this node. Every attempt goes through a shared circuit breaker, failed
+ * attempts are retried according to the {@link RetryPolicy}. Rejections of a wallet command (bad request) are neither
+ * retried nor counted as breaker failures.
+ * <p>
+ * With the breaker open, calls fail fast with {@link CircuitBreakerOpenException}, see {@link #isBreakerOpen(Throwable)}.
+ */
+@Component
+public class WalletCalls {
+
+  public record Stats(String state, long opened, long halfOpened, long closed, long failedFast) {
+  }
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final RetryPolicy retryPolicy;
+  private final int maxFailures;
+  private final Duration callTimeout;
+  private final Duration resetTimeout;
+  private final Duration maxResetTimeout;
+  private final AtomicLong opened = new AtomicLong();
+  private final AtomicLong halfOpened = new AtomicLong();
+  private final AtomicLong closed = new AtomicLong();
+  private final AtomicLong failedFast = new AtomicLong();
+  private volatile CircuitBreaker circuitBreaker;
+
+  public WalletCalls(@Value("${cinema.wallet-calls.retry.attempts:3}") int attempts,
+                     @Value("${cinema.wallet-calls.retry.min-backoff:200ms}") Duration minBackoff,
+                     @Value("${cinema.wallet-calls.retry.max-backoff:5s}") Duration maxBackoff,
+                     @Value("${cinema.wallet-calls.circuit-breaker.max-failures:10}") int maxFailures,
+                     @Value("${cinema.wallet-calls.circuit-breaker.call-timeout:3s}") Duration callTimeout,
+                     @Value("${cinema.wallet-calls.circuit-breaker.reset-timeout:5s}") Duration resetTimeout,
+                     @Value("${cinema.wallet-calls.circuit-breaker.max-reset-timeout:1m}") Duration maxResetTimeout) {
+    this.retryPolicy = new RetryPolicy(attempts, minBackoff, maxBackoff);
+    this.maxFailures = maxFailures;
+    this.callTimeout = callTimeout;
+    this.resetTimeout = resetTimeout;
+    this.maxResetTimeout = maxResetTimeout;
+  }
+
+  public <T> CompletionStage<T> call(ActorSystem actorSystem, Callable<CompletionStage<T>> call) {
+    return call(actorSystem, call, retryPolicy.attempts(), retryPolicy.firstDelay());
+  }
+
+  private <T> CompletionStage<T> call(ActorSystem actorSystem, Callable<CompletionStage<T>> call, int attemptsLeft, Duration delay) {
+    return circuitBreaker(actorSystem).callWithCircuitBreakerCS(call, WalletCalls::isFailure)
+      .handle((result, throwable) -> {
+        if (throwable == null) {
+          return CompletableFuture.completedFuture(result);
+        } else if (attemptsLeft > 0 && !isBreakerOpen(throwable) && !isBadRequest(throwable)) {
+          return Patterns.after(delay, actorSystem, () ->
+            call(actorSystem, call, attemptsLeft - 1, retryPolicy.nextDelay(delay)));
+        } else {
+          return CompletableFuture.<T>failedFuture(throwable);
+        }
+      })
+      .thenCompose(result -> result);
+  }
+
+  public static boolean isBreakerOpen(Throwable throwable) {
+    return unwrap(throwable) instanceof CircuitBreakerOpenException;
+  }
+
+  public Stats stats() {
+    CircuitBreaker current = circuitBreaker;
+    String state = current == null || current.isClosed() ? "CLOSED" : current.isOpen() ? "OPEN" : "HALF_OPEN";
+    return new Stats(state, opened.get(), halfOpened.get(), closed.get(), failedFast.get());
+  }
+
+  private static <T> boolean isFailure(Optional<T> result, Optional<Throwable> throwable) {
+    return throwable.filter(t -> !isBadRequest(t)).isPresent();
+  }
+
+  private static boolean isBadRequest(Throwable throwable) {
+    Throwable unwrapped = unwrap(throwable);
+    return unwrapped instanceof WebClientResponseException.BadRequest
+      || unwrapped.getCause() instanceof WebClientResponseException.BadRequest;
+  }
+
+  private static Throwable unwrap(Throwable throwable) {
+    return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+  }
+
+  //created with the first call, the actor system is available only from the action context
+  private CircuitBreaker circuitBreaker(ActorSystem actorSystem) {
+    CircuitBreaker current = circuitBreaker;
+    if (current == null) {
+      synchronized (this) {
+        if (circuitBreaker == null) {
+          circuitBreaker = CircuitBreaker.create(actorSystem.scheduler(), maxFailures, callTimeout, resetTimeout)
+            .withExponentialBackoff(maxResetTimeout)
+            .addOnOpenListener(() -> transition(opened, "open"))
+            .addOnHalfOpenListener(() -> transition(halfOpened, "half-open"))
+            .addOnCloseListener(() -> transition(closed, "closed"))
+            .addOnCallBreakerOpenListener(failedFast::incrementAndGet);
+        }
+        current = circuitBreaker;
+      }
+    }
+    return current;
+  }
+
+  private void transition(AtomicLong counter, String state) {
+    counter.incrementAndGet();
+    logger.warn("wallet calls circuit breaker {}, {}", state, stats());
+  }
+}
@@ -0,0 +1,21 @@
+package com.example.cinema.application;
+
+import kalix.javasdk.action.Action;
+import org.springframework.web.bind.annotation.GetMapping;
+
+/**
+ * Circuit breaker state and transition counts of {@link WalletCalls} on the node that handles the request.
+ */
+public class WalletCallsStatsAction extends Action {
+
+  private final WalletCalls walletCalls;
+
+  public WalletCallsStatsAction(WalletCalls walletCalls) {
+    this.walletCalls = walletCalls;
+  }
+
+  @GetMapping("/wallet-calls/stats")
+  public Effect<WalletCalls.Stats> stats() {
+    return effects().reply(walletCalls.stats());
+  }
+}
@@ -1,6 +1,6 @@
 package com.example.cinema.application;
 
-import com.example.wallet.domain.WalletCommand.ChargeWallet;
+import com.example.wallet.domain.WalletCommand.AuthorizeCharge;
 import kalix.javasdk.annotations.EventHandler;
 import kalix.javasdk.annotations.Id;
 import kalix.javasdk.annotations.TypeId;
@@ -28,7 +28,11 @@ public class WalletFailureEntity extends EventSourcedEntity<WalletFailureEntity.
   interface WalletFailureEvent {
   }
 
-  public record WalletChargeFailureOccurred(ChargeWallet source, String msg) implements WalletFailureEvent {
+  /**
+   * @param source has the same fields as {@link com.example.wallet.domain.WalletCommand.ChargeWallet}, recorded before
+   *               charges were authorized
+   */
+  public record WalletChargeFailureOccurred(AuthorizeCharge source, String msg) implements WalletFailureEvent {
   }
 
   @Override
@@ -37,7 +41,7 @@ public class WalletFailureEntity extends EventSourcedEntity<WalletFailureEntity.
   }
 
   @PostMapping
-  public Effect<String> registerChargeError(@RequestBody ChargeWallet source, @RequestParam String msg) {
+  public Effect<String> registerChargeError(@RequestBody AuthorizeCharge source, @RequestParam String msg) {
     return effects().emitEvent(new WalletChargeFailureOccurred(source, msg))
       .thenReply(__ -> "registered");
   }
@@ -0,0 +1,93 @@
+package com.example.cinema.application;
+
+import com.example.common.LatencyWindow;
+import com.example.common.RetryBudget;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Node wide retry budget and latency based timeouts for workflow steps.
+ * <p>
+ * Step retries are triggered by Kalix, a call for a workflow step that hasn't completed successfully on this node is
+ * treated as a retry and requires a token from the {@link RetryBudget}. Without a token the call fails immediately,
+ * without reaching the called component, so the step recovery strategy moves to the failover step sooner.
+ * <p>
+ * Step timeouts are a multiple of the observed latency percentile, within the configured bounds, or the default
+ * timeout until there are enough samples.
+ */
+@Component
+public class WorkflowStepPolicy {
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final RetryBudget retryBudget;
+  private final Cache<String, Boolean> attemptedSteps;
+  private final ConcurrentHashMap<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+  private final Duration defaultTimeout;
+  private final Duration minTimeout;
+  private final Duration maxTimeout;
+  private final double timeoutPercentile;
+  private final double timeoutMultiplier;
+  private final int minSamples;
+
+  public WorkflowStepPolicy(@Value("${cinema.workflow.retry-budget.ratio:0.1}") double retryRatio,
+                            @Value("${cinema.workflow.retry-budget.max-tokens:100}") int maxTokens,
+                            @Value("${cinema.workflow.step-timeout.default:3s}") Duration defaultTimeout,
+                            @Value("${cinema.workflow.step-timeout.min:500ms}") Duration minTimeout,
+                            @Value("${cinema.workflow.step-timeout.max:10s}") Duration maxTimeout,
+                            @Value("${cinema.workflow.step-timeout.percentile:99}") double timeoutPercentile,
+                            @Value("${cinema.workflow.step-timeout.multiplier:2}") double timeoutMultiplier,
+                            @Value("${cinema.workflow.step-timeout.min-samples:100}") int minSamples) {
+    this.retryBudget = new RetryBudget(retryRatio, maxTokens);
+    this.attemptedSteps = Caffeine.newBuilder().expireAfterWrite(Duration.ofMinutes(10)).build();
+    this.defaultTimeout = defaultTimeout;
+    this.minTimeout = minTimeout;
+    this.maxTimeout = maxTimeout;
+    this.timeoutPercentile = timeoutPercentile;
+    this.timeoutMultiplier = timeoutMultiplier;
+    this.minSamples = minSamples;
+  }
+
+  public <T> CompletionStage<T> call(String workflowId, String step, Supplier<CompletionStage<T>> call) {
+    String attemptKey = workflowId + "/" + step;
+    boolean isRetry = attemptedSteps.asMap().putIfAbsent(attemptKey, Boolean.TRUE) != null;
+    if (!isRetry) {
+      retryBudget.onFirstAttempt();
+    } else if (!retryBudget.tryAcquireRetry()) {
+      logger.warn("retry budget exhausted, failing step {} of workflow {} without a call", step, workflowId);
+      return CompletableFuture.failedFuture(new IllegalStateException("Retry budget exhausted for step " + step));
+    }
+    long startNanos = System.nanoTime();
+    return call.get().whenComplete((result, throwable) -> {
+      if (throwable == null) {
+        latencyWindow(step).record(Duration.ofNanos(System.nanoTime() - startNanos));
+        attemptedSteps.invalidate(attemptKey);
+      }
+    });
+  }
+
+  public Duration timeout(String step) {
+    LatencyWindow window = latencyWindow(step);
+    if (window.count() < minSamples) {
+      return defaultTimeout;
+    } else {
+      Duration observed = window.percentile(timeoutPercentile).orElse(defaultTimeout);
+      Duration timeout = Duration.ofNanos((long) (observed.toNanos() * timeoutMultiplier));
+      return timeout.compareTo(minTimeout) < 0 ? minTimeout : timeout.compareTo(maxTimeout) > 0 ? maxTimeout : timeout;
+    }
+  }
+
+  private LatencyWindow latencyWindow(String step) {
+    return latencies.computeIfAbsent(step, __ -> new LatencyWindow(1024));
+  }
+}
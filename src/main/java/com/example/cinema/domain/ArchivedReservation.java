@@ -0,0 +1,6 @@
+package com.example.cinema.domain;
+
+import java.util.List;
+
+public record ArchivedReservation(String reservationId, String showId, List<Integer> seatNumbers, ReservationStatus status) {
+}
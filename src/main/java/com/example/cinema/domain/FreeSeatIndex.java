@@ -0,0 +1,173 @@
+package com.example.cinema.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Available seats of a {@link SeatInventory} per price tier, updated with every status change, so the best available
+ * seats are picked without going through all seats of the show.
+ * <p>
+ * Seats are grouped into rows of {@link #ROW_SIZE} consecutive seat numbers, the row of a seat is
+ * {@code seatNumber / ROW_SIZE}. Each tier keeps a bitmap of available seats (one bit per seat, starting from the first
+ * row) and the longest run of available seats in every row, a contiguous group is looked up only in rows with a long
+ * enough run. The index is not persisted, it's rebuilt from seat statuses when an inventory is created or recovered.
+ */
+public final class FreeSeatIndex {
+
+  public static final int ROW_SIZE = 10;
+  public static final int ANY_TIER = -1;
+
+  private static final long ROW_MASK = (1L << ROW_SIZE) - 1;
+
+  private final int firstSeatNumber;
+  private final int rowStart;
+  private final byte[] priceTiers;
+  private final long[][] available;
+  private final byte[][] longestRuns;
+
+  private FreeSeatIndex(int firstSeatNumber, int rowStart, byte[] priceTiers, long[][] available, byte[][] longestRuns) {
+    this.firstSeatNumber = firstSeatNumber;
+    this.rowStart = rowStart;
+    this.priceTiers = priceTiers;
+    this.available = available;
+    this.longestRuns = longestRuns;
+  }
+
+  /**
+   * @param isAvailable tells if the seat at {@code seatNumber - firstSeatNumber} is available
+   */
+  static FreeSeatIndex of(int firstSeatNumber, byte[] priceTiers, int tiers, IntPredicate isAvailable) {
+    int rowStart = Math.floorDiv(firstSeatNumber, ROW_SIZE) * ROW_SIZE;
+    int rows = (firstSeatNumber - rowStart + priceTiers.length + ROW_SIZE - 1) / ROW_SIZE;
+    int words = (rows * ROW_SIZE + Long.SIZE - 1) / Long.SIZE;
+    long[][] available = new long[tiers][words];
+    byte[][] longestRuns = new byte[tiers][rows];
+    for (int index = 0; index < priceTiers.length; index++) {
+      if (isAvailable.test(index)) {
+        int tier = priceTiers[index] & 0xFF;
+        int bit = firstSeatNumber + index - rowStart;
+        available[tier][bit / Long.SIZE] |= 1L << bit;
+      }
+    }
+    for (int tier = 0; tier < tiers; tier++) {
+      for (int row = 0; row < rows; row++) {
+        longestRuns[tier][row] = (byte) longestRun(rowBits(available[tier], row));
+      }
+    }
+    return new FreeSeatIndex(firstSeatNumber, rowStart, priceTiers, available, longestRuns);
+  }
+
+  /**
+   * Copies only bitmaps and runs of tiers with a changed seat, nothing if no seat changed availability (e.g. a payment).
+   */
+  FreeSeatIndex update(List<Integer> seatNumbers, boolean isAvailable) {
+    long[][] updatedAvailable = available;
+    byte[][] updatedRuns = longestRuns;
+    for (int seatNumber : seatNumbers) {
+      int tier = priceTiers[seatNumber - firstSeatNumber] & 0xFF;
+      int bit = seatNumber - rowStart;
+      long mask = 1L << bit;
+      boolean wasAvailable = (updatedAvailable[tier][bit / Long.SIZE] & mask) != 0;
+      if (wasAvailable != isAvailable) {
+        if (updatedAvailable == available) {
+          updatedAvailable = available.clone();
+          updatedRuns = longestRuns.clone();
+        }
+        if (updatedAvailable[tier] == available[tier]) {
+          updatedAvailable[tier] = available[tier].clone();
+          updatedRuns[tier] = longestRuns[tier].clone();
+        }
+        updatedAvailable[tier][bit / Long.SIZE] ^= mask;
+        int row = bit / ROW_SIZE;
+        updatedRuns[tier][row] = (byte) longestRun(rowBits(updatedAvailable[tier], row));
+      }
+    }
+    return updatedAvailable == available ? this : new FreeSeatIndex(firstSeatNumber, rowStart, priceTiers, updatedAvailable, updatedRuns);
+  }
+
+  /**
+   * @return lowest available seat numbers, empty if there are less than {@code count} available seats, callers check
+   * {@link SeatCounts} first to avoid going through the bitmap in such case
+   */
+  List<Integer> lowestAvailable(int count, int tier) {
+    List<Integer> seatNumbers = new ArrayList<>(count);
+    int words = available.length == 0 ? 0 : available[0].length;
+    for (int word = 0; word < words && seatNumbers.size() < count; word++) {
+      long bits = wordOf(tier, word);
+      while (bits != 0 && seatNumbers.size() < count) {
+        seatNumbers.add(rowStart + word * Long.SIZE + Long.numberOfTrailingZeros(bits));
+        bits &= bits - 1;
+      }
+    }
+    return seatNumbers.size() == count ? seatNumbers : List.of();
+  }
+
+  /**
+   * @return lowest {@code count} consecutive available seats in one row and price tier, empty if there is no such run
+   */
+  List<Integer> lowestAvailableRun(int count, int tier) {
+    if (count > ROW_SIZE) {
+      return List.of();
+    }
+    int rows = longestRuns.length == 0 ? 0 : longestRuns[0].length;
+    for (int row = 0; row < rows; row++) {
+      for (int t = firstTier(tier); t <= lastTier(tier); t++) {
+        if (longestRuns[t][row] >= count) {
+          int first = rowStart + row * ROW_SIZE + runStart(rowBits(available[t], row), count);
+          List<Integer> seatNumbers = new ArrayList<>(count);
+          for (int seatNumber = first; seatNumber < first + count; seatNumber++) {
+            seatNumbers.add(seatNumber);
+          }
+          return seatNumbers;
+        }
+      }
+    }
+    return List.of();
+  }
+
+  private long wordOf(int tier, int word) {
+    long bits = 0;
+    for (int t = firstTier(tier); t <= lastTier(tier); t++) {
+      bits |= available[t][word];
+    }
+    return bits;
+  }
+
+  private int firstTier(int tier) {
+    return tier == ANY_TIER ? 0 : tier;
+  }
+
+  private int lastTier(int tier) {
+    return tier == ANY_TIER ? available.length - 1 : tier;
+  }
+
+  private static long rowBits(long[] bitmap, int row) {
+    int start = row * ROW_SIZE;
+    int word = start / Long.SIZE;
+    int offset = start % Long.SIZE;
+    long bits = bitmap[word] >>> offset;
+    if (offset + ROW_SIZE > Long.SIZE) {
+      bits |= bitmap[word + 1] << (Long.SIZE - offset);
+    }
+    return bits & ROW_MASK;
+  }
+
+  private static int longestRun(long bits) {
+    int run = 0;
+    while (bits != 0) {
+      bits &= bits << 1;
+      run++;
+    }
+    return run;
+  }
+
+  //bit i of the mask is set when bits i..i+count-1 are all set
+  private static int runStart(long bits, int count) {
+    long mask = bits;
+    for (int i = 1; i < count; i++) {
+      mask &= bits >>> i;
+    }
+    return Long.numberOfTrailingZeros(mask);
+  }
+}
@@ -1,6 +1,6 @@
 package com.example.cinema.domain;
 
-import java.math.BigDecimal;
+import com.example.common.Money;
 
-public record Reservation(String reservationId, String showId, String walletId, BigDecimal price) {
+public record Reservation(String reservationId, String showId, String walletId, Money price) {
 }
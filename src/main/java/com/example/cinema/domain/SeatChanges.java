@@ -0,0 +1,105 @@
+package com.example.cinema.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.vavr.control.Option;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Seat numbers of the last {@link #CAPACITY} seat status changes of a show, {@code revision} counts all changes. The
+ * change {@code r} (counted from 0) is kept at position {@code r % CAPACITY}, so the buffer never grows above the
+ * capacity. Positions are split into chunks of {@link #CHUNK_SIZE}, an append copies only the chunks it writes to and
+ * the chunk table, the other chunks are shared with the previous changes.
+ * <p>
+ * Kept in snapshots as one {@code seatNumbers} array, shows recovered from snapshots written before the changes were
+ * tracked start with {@link #EMPTY}.
+ */
+public record SeatChanges(long revision, @JsonIgnore int[][] chunks) {
+
+  public static final int CAPACITY = 256;
+  public static final int CHUNK_SIZE = 16;
+  public static final SeatChanges EMPTY = new SeatChanges();
+
+  public SeatChanges() {
+    this(0, new int[CAPACITY / CHUNK_SIZE][]);
+  }
+
+  @JsonCreator
+  public static SeatChanges of(@JsonProperty("revision") long revision, @JsonProperty("seatNumbers") int[] seatNumbers) {
+    int[][] chunks = new int[CAPACITY / CHUNK_SIZE][];
+    for (int position = 0; position < seatNumbers.length; position++) {
+      int chunk = position / CHUNK_SIZE;
+      if (chunks[chunk] == null) {
+        chunks[chunk] = new int[CHUNK_SIZE];
+      }
+      chunks[chunk][position % CHUNK_SIZE] = seatNumbers[position];
+    }
+    return new SeatChanges(revision, chunks);
+  }
+
+  /**
+   * @return kept changes by position, {@code min(revision, CAPACITY)} of them
+   */
+  @JsonProperty("seatNumbers")
+  public int[] seatNumbers() {
+    int[] seatNumbers = new int[kept()];
+    for (int position = 0; position < seatNumbers.length; position++) {
+      seatNumbers[position] = chunks[position / CHUNK_SIZE][position % CHUNK_SIZE];
+    }
+    return seatNumbers;
+  }
+
+  public SeatChanges append(List<Integer> changedSeats) {
+    int[][] updated = chunks.clone();
+    long change = revision;
+    for (int seatNumber : changedSeats) {
+      int position = (int) (change++ % CAPACITY);
+      int chunk = position / CHUNK_SIZE;
+      if (updated[chunk] == chunks[chunk]) {
+        updated[chunk] = chunks[chunk] == null ? new int[CHUNK_SIZE] : chunks[chunk].clone();
+      }
+      updated[chunk][position % CHUNK_SIZE] = seatNumber;
+    }
+    return new SeatChanges(change, updated);
+  }
+
+  /**
+   * @return seats changed after the given revision in ascending order, empty if these changes are not kept (anymore)
+   */
+  public Option<List<Integer>> since(long since) {
+    if (since < 0 || since > revision || revision - since > kept()) {
+      return Option.none();
+    }
+    var changed = new TreeSet<Integer>();
+    for (long change = since; change < revision; change++) {
+      int position = (int) (change % CAPACITY);
+      changed.add(chunks[position / CHUNK_SIZE][position % CHUNK_SIZE]);
+    }
+    return Option.some(List.copyOf(changed));
+  }
+
+  private int kept() {
+    return (int) Math.min(revision, CAPACITY);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof SeatChanges that
+      && revision == that.revision
+      && Arrays.deepEquals(chunks, that.chunks);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Long.hashCode(revision) + Arrays.deepHashCode(chunks);
+  }
+
+  @Override
+  public String toString() {
+    return "SeatChanges[revision=" + revision + "]";
+  }
+}
@@ -0,0 +1,68 @@
+package com.example.cinema.domain;
+
+/**
+ * Number of seats in each status per price tier of a {@link SeatInventory}, updated with every status change, so
+ * availability is read without going through the seats. An update copies only the counts of tiers with a moved seat,
+ * the other tiers are shared. Not persisted, rebuilt from seat statuses like {@link FreeSeatIndex}.
+ */
+public final class SeatCounts {
+
+  private static final SeatStatus[] STATUSES = SeatStatus.values();
+
+  //[tier][status.ordinal()]
+  private final int[][] counts;
+
+  private SeatCounts(int[][] counts) {
+    this.counts = counts;
+  }
+
+  static SeatCounts empty(int tiers) {
+    return new SeatCounts(new int[tiers][STATUSES.length]);
+  }
+
+  /**
+   * @param tiers tier of each moved seat
+   * @param from  previous status of each moved seat
+   */
+  SeatCounts move(int[] tiers, SeatStatus[] from, SeatStatus to) {
+    int[][] updated = counts;
+    for (int i = 0; i < tiers.length; i++) {
+      if (from[i] == to) {
+        continue;
+      }
+      int tier = tiers[i];
+      if (updated == counts) {
+        updated = counts.clone();
+      }
+      if (updated[tier] == counts[tier]) {
+        updated[tier] = counts[tier].clone();
+      }
+      updated[tier][from[i].ordinal()]--;
+      updated[tier][to.ordinal()]++;
+    }
+    return updated == counts ? this : new SeatCounts(updated);
+  }
+
+  /**
+   * Mutable counterpart of {@link #move(int[], SeatStatus[], SeatStatus)}, only for a just created instance.
+   */
+  void add(int tier, SeatStatus status) {
+    counts[tier][status.ordinal()]++;
+  }
+
+  public int tiers() {
+    return counts.length;
+  }
+
+  public int count(int tier, SeatStatus status) {
+    return counts[tier][status.ordinal()];
+  }
+
+  public int count(SeatStatus status) {
+    int count = 0;
+    for (int tier = 0; tier < tiers(); tier++) {
+      count += count(tier, status);
+    }
+    return count;
+  }
+}
@@ -0,0 +1,254 @@
+package com.example.cinema.domain;
+
+import com.example.common.Money;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+import io.vavr.control.Option;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.cinema.domain.SeatStatus.AVAILABLE;
+import static com.example.cinema.domain.SeatStatus.PAID;
+import static com.example.cinema.domain.SeatStatus.RESERVED;
+
+/**
+ * Seats of a show packed into primitive arrays indexed by {@code seatNumber - firstSeatNumber}.
+ * <p>
+ * Each seat status takes 2 bits in {@code statuses} (32 seats per long, {@code 0} means there is no such seat).
+ * Prices are kept as a small table of tiers, {@code priceTiers} holds the tier index of every seat.
+ * Only {@code statuses} changes after creation, so an update copies a single {@code long[]} and shares the rest.
+ * Recently changed seats are appended to {@code changes}, see {@link SeatChanges}.
+ * Available seats and counts of seats in each status are additionally tracked in a {@link FreeSeatIndex} and
+ * {@link SeatCounts}, derived from {@code statuses} and not persisted.
+ */
+public record SeatInventory(int firstSeatNumber, long[] statuses, byte[] priceTiers, Money[] prices,
+                            SeatChanges changes, @JsonIgnore FreeSeatIndex freeSeats, @JsonIgnore SeatCounts counts) {
+
+  public static final SeatInventory EMPTY = new SeatInventory(0, new long[0], new byte[0], new Money[0], SeatChanges.EMPTY);
+
+  private static final int BITS_PER_SEAT = 2;
+  private static final int SEATS_PER_WORD = Long.SIZE / BITS_PER_SEAT;
+  private static final long STATUS_MASK = 0b11;
+  private static final long NO_SEAT = 0;
+  private static final int MAX_PRICE_TIERS = 256;
+  private static final SeatStatus[] STATUS_BY_CODE = {null, AVAILABLE, RESERVED, PAID};
+
+  @JsonCreator
+  public SeatInventory(@JsonProperty("firstSeatNumber") int firstSeatNumber, @JsonProperty("statuses") long[] statuses,
+                       @JsonProperty("priceTiers") byte[] priceTiers, @JsonProperty("prices") Money[] prices,
+                       @JsonProperty("changes") @JsonSetter(nulls = Nulls.AS_EMPTY) SeatChanges changes) {
+    this(firstSeatNumber, statuses, priceTiers, prices, changes,
+      FreeSeatIndex.of(firstSeatNumber, priceTiers, prices.length, index -> getCode(statuses, index) == code(AVAILABLE)),
+      countSeats(statuses, priceTiers, prices.length));
+  }
+
+  public static SeatInventory of(List<Seat> seats) {
+    if (seats.isEmpty()) {
+      return EMPTY;
+    }
+    int first = seats.stream().mapToInt(Seat::number).min().getAsInt();
+    int last = seats.stream().mapToInt(Seat::number).max().getAsInt();
+    int capacity = last - first + 1;
+    long[] statuses = new long[words(capacity)];
+    byte[] priceTiers = new byte[capacity];
+    Map<Money, Integer> tiers = new LinkedHashMap<>();
+    for (Seat seat : seats) {
+      int index = seat.number() - first;
+      int tier = tiers.computeIfAbsent(seat.price(), __ -> tiers.size());
+      if (tier >= MAX_PRICE_TIERS) {
+        throw new IllegalArgumentException("Too many price tiers, max is %s".formatted(MAX_PRICE_TIERS));
+      }
+      priceTiers[index] = (byte) tier;
+      setCode(statuses, index, code(seat.status()));
+    }
+    return new SeatInventory(first, statuses, priceTiers, tiers.keySet().toArray(new Money[0]), SeatChanges.EMPTY);
+  }
+
+  public Option<Seat> get(int seatNumber) {
+    int index = seatNumber - firstSeatNumber;
+    if (index < 0 || index >= priceTiers.length || getCode(statuses, index) == NO_SEAT) {
+      return Option.none();
+    } else {
+      return Option.some(seatAt(index));
+    }
+  }
+
+  public SeatInventory reserve(int seatNumber) {
+    return withStatus(seatNumber, RESERVED);
+  }
+
+  public SeatInventory pay(int seatNumber) {
+    return withStatus(seatNumber, PAID);
+  }
+
+  public SeatInventory release(int seatNumber) {
+    return withStatus(seatNumber, AVAILABLE);
+  }
+
+  public SeatInventory reserveAll(List<Integer> seatNumbers) {
+    return withStatus(seatNumbers, RESERVED);
+  }
+
+  public SeatInventory payAll(List<Integer> seatNumbers) {
+    return withStatus(seatNumbers, PAID);
+  }
+
+  public SeatInventory releaseAll(List<Integer> seatNumbers) {
+    return withStatus(seatNumbers, AVAILABLE);
+  }
+
+  /**
+   * Picks the lowest available seat numbers, all of them in the given price, if defined.
+   *
+   * @param contiguous consecutive seats in one row, see {@link FreeSeatIndex#ROW_SIZE}
+   * @return empty list if there are not enough available seats
+   */
+  public List<Integer> bestAvailable(int count, Option<Money> price, boolean contiguous) {
+    int tier = FreeSeatIndex.ANY_TIER;
+    if (price.isDefined()) {
+      tier = Arrays.asList(prices).indexOf(price.get());
+      if (tier < 0) {
+        return List.of();
+      }
+    }
+    int available = tier == FreeSeatIndex.ANY_TIER ? counts.count(AVAILABLE) : counts.count(tier, AVAILABLE);
+    if (available < count) {
+      return List.of();
+    }
+    return contiguous ? freeSeats.lowestAvailableRun(count, tier) : freeSeats.lowestAvailable(count, tier);
+  }
+
+  /**
+   * Adds or replaces a seat, extending the seat number range if needed. The history of {@link #changes()} is not kept.
+   */
+  public SeatInventory put(Seat seat) {
+    List<Seat> seats = new ArrayList<>(toList());
+    seats.removeIf(existing -> existing.number() == seat.number());
+    seats.add(seat);
+    return of(seats);
+  }
+
+  public int size() {
+    int size = 0;
+    for (long word : statuses) {
+      size += Long.bitCount((word | (word >>> 1)) & 0x5555555555555555L);
+    }
+    return size;
+  }
+
+  public List<Seat> toList() {
+    List<Seat> seats = new ArrayList<>(priceTiers.length);
+    for (int index = 0; index < priceTiers.length; index++) {
+      if (getCode(statuses, index) != NO_SEAT) {
+        seats.add(seatAt(index));
+      }
+    }
+    return seats;
+  }
+
+  private SeatInventory withStatus(int seatNumber, SeatStatus status) {
+    return withStatus(List.of(seatNumber), status);
+  }
+
+  private SeatInventory withStatus(List<Integer> seatNumbers, SeatStatus status) {
+    long[] updated = statuses.clone();
+    int[] tiers = new int[seatNumbers.size()];
+    SeatStatus[] previous = new SeatStatus[seatNumbers.size()];
+    for (int i = 0; i < seatNumbers.size(); i++) {
+      int seatNumber = seatNumbers.get(i);
+      previous[i] = setStatus(updated, seatNumber, status);
+      tiers[i] = priceTiers[seatNumber - firstSeatNumber] & 0xFF;
+    }
+    return new SeatInventory(firstSeatNumber, updated, priceTiers, prices, changes.append(seatNumbers),
+      freeSeats.update(seatNumbers, status == AVAILABLE), counts.move(tiers, previous, status));
+  }
+
+  /**
+   * Changes a seat status in place, {@code target} must be a copy of {@link #statuses()}, see {@link ShowReplay}.
+   *
+   * @return previous status of the seat
+   */
+  SeatStatus setStatus(long[] target, int seatNumber, SeatStatus status) {
+    int index = seatNumber - firstSeatNumber;
+    if (index < 0 || index >= priceTiers.length || getCode(target, index) == NO_SEAT) {
+      throw new IllegalStateException("Seat not found %s".formatted(seatNumber));
+    }
+    SeatStatus previous = STATUS_BY_CODE[(int) getCode(target, index)];
+    setCode(target, index, code(status));
+    return previous;
+  }
+
+  /**
+   * Rebuilds the {@link FreeSeatIndex} and {@link SeatCounts}, used once at the end of a replay.
+   */
+  SeatInventory withStatuses(long[] updated, List<Integer> changedSeats) {
+    return new SeatInventory(firstSeatNumber, updated, priceTiers, prices, changes.append(changedSeats));
+  }
+
+  private Seat seatAt(int index) {
+    return new Seat(index + firstSeatNumber, STATUS_BY_CODE[(int) getCode(statuses, index)], prices[priceTiers[index] & 0xFF]);
+  }
+
+  private static SeatCounts countSeats(long[] statuses, byte[] priceTiers, int tiers) {
+    SeatCounts counts = SeatCounts.empty(tiers);
+    for (int index = 0; index < priceTiers.length; index++) {
+      long code = getCode(statuses, index);
+      if (code != NO_SEAT) {
+        counts.add(priceTiers[index] & 0xFF, STATUS_BY_CODE[(int) code]);
+      }
+    }
+    return counts;
+  }
+
+  private static int words(int capacity) {
+    return (capacity + SEATS_PER_WORD - 1) / SEATS_PER_WORD;
+  }
+
+  private static long code(SeatStatus status) {
+    return status.ordinal() + 1;
+  }
+
+  private static long getCode(long[] statuses, int index) {
+    return (statuses[index / SEATS_PER_WORD] >>> shift(index)) & STATUS_MASK;
+  }
+
+  private static void setCode(long[] statuses, int index, long code) {
+    int word = index / SEATS_PER_WORD;
+    statuses[word] = (statuses[word] & ~(STATUS_MASK << shift(index))) | (code << shift(index));
+  }
+
+  private static int shift(int index) {
+    return (index % SEATS_PER_WORD) * BITS_PER_SEAT;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof SeatInventory that
+      && firstSeatNumber == that.firstSeatNumber
+      && Arrays.equals(statuses, that.statuses)
+      && Arrays.equals(priceTiers, that.priceTiers)
+      && Arrays.equals(prices, that.prices)
+      && changes.equals(that.changes);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = Integer.hashCode(firstSeatNumber);
+    result = 31 * result + Arrays.hashCode(statuses);
+    result = 31 * result + Arrays.hashCode(priceTiers);
+    result = 31 * result + Arrays.hashCode(prices);
+    return 31 * result + changes.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "SeatInventory" + toList();
+  }
+}
@@ -1,49 +1,66 @@
 package com.example.cinema.domain;
 
-import java.math.BigDecimal;
+import com.example.common.Money;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+
+import java.util.List;
 
 import static com.example.cinema.domain.SeatReservationStatus.COMPLETED;
 import static com.example.cinema.domain.SeatReservationStatus.SEAT_RESERVATION_FAILED;
 import static com.example.cinema.domain.SeatReservationStatus.SEAT_RESERVATION_REFUNDED;
 import static com.example.cinema.domain.SeatReservationStatus.SEAT_RESERVED;
 import static com.example.cinema.domain.SeatReservationStatus.STARTED;
-import static com.example.cinema.domain.SeatReservationStatus.WALLET_CHARGED;
+import static com.example.cinema.domain.SeatReservationStatus.WALLET_CHARGE_AUTHORIZED;
 import static com.example.cinema.domain.SeatReservationStatus.WALLET_CHARGE_REJECTED;
+import static com.example.cinema.domain.SeatReservationStatus.WALLET_CHARGE_VOIDED;
 import static com.example.cinema.domain.SeatReservationStatus.WALLET_REFUNDED;
 
-public record SeatReservation(String reservationId, String showId, int seatNumber, String walletId, BigDecimal price,
-                              SeatReservationStatus status) {
+/**
+ * @param groupSeatNumbers all seats of a group reservation, empty for a single seat reservation
+ */
+public record SeatReservation(String reservationId, String showId, int seatNumber, String walletId, Money price,
+                              SeatReservationStatus status,
+                              @JsonSetter(nulls = Nulls.AS_EMPTY) List<Integer> groupSeatNumbers) {
+
+  public boolean isGroupReservation() {
+    return !groupSeatNumbers.isEmpty();
+  }
 
   public SeatReservation asSeatReservationFailed() {
-    return new SeatReservation(reservationId, showId, seatNumber, walletId, price, SEAT_RESERVATION_FAILED);
+    return new SeatReservation(reservationId, showId, seatNumber, walletId, price, SEAT_RESERVATION_FAILED, groupSeatNumbers);
   }
 
   public SeatReservation asSeatReserved() {
-    return new SeatReservation(reservationId, showId, seatNumber, walletId, price, SEAT_RESERVED);
+    return new SeatReservation(reservationId, showId, seatNumber, walletId, price, SEAT_RESERVED, groupSeatNumbers);
   }
 
   public SeatReservation asWalletChargeRejected() {
-    return new SeatReservation(reservationId, showId, seatNumber, walletId, price, WALLET_CHARGE_REJECTED);
+    return new SeatReservation(reservationId, showId, seatNumber, walletId, price, WALLET_CHARGE_REJECTED, groupSeatNumbers);
+  }
+
+  public SeatReservation asWalletChargeAuthorized() {
+    return new SeatReservation(reservationId, showId, seatNumber, walletId, price, WALLET_CHARGE_AUTHORIZED, groupSeatNumbers);
   }
 
-  public SeatReservation asWalletCharged() {
-    return new SeatReservation(reservationId, showId, seatNumber, walletId, price, WALLET_CHARGED);
+  public SeatReservation asWalletChargeVoided() {
+    return new SeatReservation(reservationId, showId, seatNumber, walletId, price, WALLET_CHARGE_VOIDED, groupSeatNumbers);
   }
 
   public SeatReservation asCompleted() {
-    return new SeatReservation(reservationId, showId, seatNumber, walletId, price, COMPLETED);
+    return new SeatReservation(reservationId, showId, seatNumber, walletId, price, COMPLETED, groupSeatNumbers);
   }
 
   public SeatReservation asSeatReservationRefunded() {
-    return new SeatReservation(reservationId, showId, seatNumber, walletId, price, SEAT_RESERVATION_REFUNDED);
+    return new SeatReservation(reservationId, showId, seatNumber, walletId, price, SEAT_RESERVATION_REFUNDED, groupSeatNumbers);
   }
 
   public SeatReservation asWalletRefunded() {
-    return new SeatReservation(reservationId, showId, seatNumber, walletId, price, WALLET_REFUNDED);
+    return new SeatReservation(reservationId, showId, seatNumber, walletId, price, WALLET_REFUNDED, groupSeatNumbers);
   }
 
   public SeatReservation asFailed() {
-    if (status == WALLET_CHARGE_REJECTED || status == STARTED) {
+    if (status == WALLET_CHARGE_REJECTED || status == WALLET_CHARGE_VOIDED || status == STARTED) {
       return asSeatReservationFailed();
     } else if (status == WALLET_REFUNDED) {
       return asSeatReservationRefunded();
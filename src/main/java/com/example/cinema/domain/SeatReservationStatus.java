@@ -1,5 +1,10 @@
 package com.example.cinema.domain;
 
 public enum SeatReservationStatus {
-  STARTED, SEAT_RESERVED, WALLET_CHARGE_REJECTED, WALLET_CHARGED, COMPLETED, SEAT_RESERVATION_FAILED, WALLET_REFUNDED, SEAT_RESERVATION_REFUNDED
+  STARTED, SEAT_RESERVED, WALLET_CHARGE_REJECTED, WALLET_CHARGED, COMPLETED, SEAT_RESERVATION_FAILED, WALLET_REFUNDED, SEAT_RESERVATION_REFUNDED,
+  WALLET_CHARGE_AUTHORIZED, WALLET_CHARGE_VOIDED;
+
+  public boolean isTerminal() {
+    return this == COMPLETED || this == SEAT_RESERVATION_FAILED || this == SEAT_RESERVATION_REFUNDED;
+  }
 }
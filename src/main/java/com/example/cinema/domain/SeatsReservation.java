@@ -0,0 +1,19 @@
+package com.example.cinema.domain;
+
+import io.vavr.control.Option;
+
+import java.util.List;
+
+/**
+ * Group reservation of several seats, pending until {@code finishedAs} is set.
+ */
+public record SeatsReservation(String reservationId, List<Integer> seatNumbers, Option<ReservationStatus> finishedAs) {
+
+  public static SeatsReservation pending(String reservationId, List<Integer> seatNumbers) {
+    return new SeatsReservation(reservationId, seatNumbers, Option.none());
+  }
+
+  public SeatsReservation finish(ReservationStatus status) {
+    return new SeatsReservation(reservationId, seatNumbers, Option.some(status));
+  }
+}
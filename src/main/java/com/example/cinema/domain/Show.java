@@ -1,26 +1,39 @@
 package com.example.cinema.domain;
 
 import com.example.cinema.domain.ShowCommand.CancelSeatReservation;
+import com.example.cinema.domain.ShowCommand.ConfirmArchivedReservationPayment;
 import com.example.cinema.domain.ShowCommand.ConfirmReservationPayment;
 import com.example.cinema.domain.ShowCommand.CreateShow;
+import com.example.cinema.domain.ShowCommand.CreateShowPartition;
+import com.example.cinema.domain.ShowCommand.ReserveBestAvailable;
 import com.example.cinema.domain.ShowCommand.ReserveSeat;
+import com.example.cinema.domain.ShowCommand.ReserveSeats;
 import com.example.cinema.domain.ShowEvent.CancelledReservationConfirmed;
+import com.example.cinema.domain.ShowEvent.CancelledSeatsReservationConfirmed;
 import com.example.cinema.domain.ShowEvent.SeatReservationCancelled;
 import com.example.cinema.domain.ShowEvent.SeatReservationPaid;
 import com.example.cinema.domain.ShowEvent.SeatReserved;
+import com.example.cinema.domain.ShowEvent.SeatsReservationCancelled;
+import com.example.cinema.domain.ShowEvent.SeatsReservationPaid;
+import com.example.cinema.domain.ShowEvent.SeatsReserved;
 import com.example.cinema.domain.ShowEvent.ShowCreated;
-import io.vavr.Tuple2;
+import com.example.common.Money;
+import com.example.common.SagaContext;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
 import io.vavr.collection.HashMap;
 import io.vavr.collection.Map;
 import io.vavr.control.Either;
 import io.vavr.control.Option;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static com.example.cinema.domain.ReservationStatus.CANCELLED;
 import static com.example.cinema.domain.ReservationStatus.CONFIRMED;
 import static com.example.cinema.domain.ShowCommandError.CANCELLING_CONFIRMED_RESERVATION;
 import static com.example.cinema.domain.ShowCommandError.DUPLICATED_COMMAND;
+import static com.example.cinema.domain.ShowCommandError.INVALID_SEAT_SELECTION;
 import static com.example.cinema.domain.ShowCommandError.RESERVATION_NOT_FOUND;
 import static com.example.cinema.domain.ShowCommandError.SEAT_NOT_AVAILABLE;
 import static com.example.cinema.domain.ShowCommandError.SEAT_NOT_FOUND;
@@ -28,36 +41,107 @@ import static com.example.cinema.domain.ShowCommandError.SHOW_ALREADY_EXISTS;
 import static io.vavr.control.Either.left;
 import static io.vavr.control.Either.right;
 
-public record Show(String id, String title, Map<Integer, Seat> seats, Map<String, Integer> pendingReservations,
-                   Map<String, FinishedReservation> finishedReservations) {
+/**
+ * Only the last finished reservation of each seat is kept in {@code finishedReservations} (or {@code seatsReservations}
+ * for a group), {@code lastFinishedReservations} points from a seat number to it. When a seat is finished again, the
+ * previous reservation is dropped, so the state is proportional to the number of seats, not to the number of
+ * reservations. A confirmed reservation is never dropped, because a paid seat can't be reserved again. Ids and seats of
+ * the most recently dropped (cancelled) reservations are kept in {@code supersededReservations}, so retried commands of
+ * such reservations are still recognized. All finished reservations are archived outside of the show, see
+ * {@link ConfirmArchivedReservationPayment}.
+ */
+public record Show(String id, String title, SeatInventory seats, Map<String, Integer> pendingReservations,
+                   Map<String, FinishedReservation> finishedReservations,
+                   Map<String, SeatsReservation> seatsReservations,
+                   Map<Integer, String> lastFinishedReservations,
+                   @JsonSetter(nulls = Nulls.AS_EMPTY) SupersededReservations supersededReservations) {
 
   public static Show create(ShowCreated showCreated) {
     InitialShow initialShow = showCreated.initialShow();
-    List<Tuple2<Integer, Seat>> seats = initialShow.seats().stream().map(seat -> new Tuple2<>(seat.number(), seat)).toList();
-    return new Show(initialShow.id(), initialShow.title(), HashMap.ofEntries(seats), HashMap.empty(), HashMap.empty());
+    return new Show(initialShow.id(), initialShow.title(), SeatInventory.of(initialShow.seats()), HashMap.empty(), HashMap.empty(), HashMap.empty(), HashMap.empty(), SupersededReservations.EMPTY);
+  }
+
+  /**
+   * @return true if the show is the partition the command would create, so a retried creation can be acknowledged
+   */
+  public boolean isPartitionCreatedBy(ShowCommand.CreateShowPartition createShowPartition) {
+    return title.equals(createShowPartition.title())
+      && seats.firstSeatNumber() == createShowPartition.firstSeatNumber()
+      && seats.size() == createShowPartition.seatCount();
   }
 
   public Either<ShowCommandError, ShowEvent> process(ShowCommand command) {
     return switch (command) {
       case CreateShow ignored -> left(SHOW_ALREADY_EXISTS);
+      case CreateShowPartition ignored -> left(SHOW_ALREADY_EXISTS);
       case ReserveSeat reserveSeat -> handleReservation(reserveSeat);
+      case ReserveSeats reserveSeats -> handleReservation(reserveSeats);
+      case ReserveBestAvailable reserveBestAvailable -> handleReservation(reserveBestAvailable);
       case ConfirmReservationPayment confirmReservationPayment -> handleConfirmation(confirmReservationPayment);
+      case ConfirmArchivedReservationPayment confirmArchived -> handleArchivedConfirmation(confirmArchived);
       case CancelSeatReservation cancelSeatReservation -> handleCancellation(cancelSeatReservation);
     };
   }
 
+  /**
+   * Processes commands in order, each one against the state with events of the previously accepted commands applied.
+   */
+  public List<Either<ShowCommandError, ShowEvent>> processBatch(List<? extends ShowCommand> commands) {
+    List<Either<ShowCommandError, ShowEvent>> results = new ArrayList<>(commands.size());
+    Show show = this;
+    for (ShowCommand command : commands) {
+      Either<ShowCommandError, ShowEvent> result = show.process(command);
+      if (result.isRight()) {
+        show = show.apply(result.get());
+      }
+      results.add(result);
+    }
+    return results;
+  }
+
   private Either<ShowCommandError, ShowEvent> handleConfirmation(ConfirmReservationPayment confirmReservationPayment) {
     String reservationId = confirmReservationPayment.reservationId();
-    return pendingReservations.get(reservationId).fold(
-      () -> finishedReservations.get(reservationId).<Either<ShowCommandError, ShowEvent>>map(finishedReservation ->
-        switch (finishedReservation.status()) {
+    SagaContext sagaContext = confirmReservationPayment.sagaContext();
+    return seatsReservations.get(reservationId).fold(
+      () -> pendingReservations.get(reservationId).fold(
+        () -> finishedReservations.get(reservationId).<Either<ShowCommandError, ShowEvent>>map(finishedReservation ->
+          switch (finishedReservation.status()) {
+            case CONFIRMED -> left(DUPLICATED_COMMAND);
+            case CANCELLED -> right(new CancelledReservationConfirmed(id, reservationId, finishedReservation.seatNumber(), sagaContext));
+          }).getOrElse(() -> supersededReservations.get(reservationId).<Either<ShowCommandError, ShowEvent>>map(seatNumbers ->
+            right(cancelledReservationConfirmed(reservationId, seatNumbers, sagaContext))
+          ).getOrElse(left(RESERVATION_NOT_FOUND))),
+        seatNumber ->
+          seats.get(seatNumber).<Either<ShowCommandError, ShowEvent>>map(seat ->
+            right(new SeatReservationPaid(id, reservationId, seatNumber, sagaContext))
+          ).getOrElse(left(SEAT_NOT_FOUND))),
+      seatsReservation -> seatsReservation.finishedAs().fold(
+        () -> right(new SeatsReservationPaid(id, reservationId, seatsReservation.seatNumbers(), sagaContext)),
+        status -> switch (status) {
           case CONFIRMED -> left(DUPLICATED_COMMAND);
-          case CANCELLED -> right(new CancelledReservationConfirmed(id, reservationId, finishedReservation.seatNumber()));
-        }).getOrElse(left(RESERVATION_NOT_FOUND)),
-      seatNumber ->
-        seats.get(seatNumber).<Either<ShowCommandError, ShowEvent>>map(seat ->
-          right(new SeatReservationPaid(id, reservationId, seatNumber))
-        ).getOrElse(left(SEAT_NOT_FOUND)));
+          case CANCELLED -> right(new CancelledSeatsReservationConfirmed(id, reservationId, seatsReservation.seatNumbers(), sagaContext));
+        }));
+  }
+
+  private Either<ShowCommandError, ShowEvent> handleArchivedConfirmation(ConfirmArchivedReservationPayment confirmArchived) {
+    String reservationId = confirmArchived.reservationId();
+    List<Integer> seatNumbers = confirmArchived.seatNumbers();
+    if (isDuplicate(reservationId)) {
+      return handleConfirmation(new ConfirmReservationPayment(reservationId, confirmArchived.sagaContext()));
+    } else if (seatNumbers.isEmpty() || !seatNumbers.stream().allMatch(seatNumber -> seats.get(seatNumber).isDefined())) {
+      return left(SEAT_NOT_FOUND);
+    } else {
+      return right(cancelledReservationConfirmed(reservationId, seatNumbers, confirmArchived.sagaContext()));
+    }
+  }
+
+  //a group reservation has at least two seats
+  private ShowEvent cancelledReservationConfirmed(String reservationId, List<Integer> seatNumbers, SagaContext sagaContext) {
+    if (seatNumbers.size() == 1) {
+      return new CancelledReservationConfirmed(id, reservationId, seatNumbers.get(0), sagaContext);
+    } else {
+      return new CancelledSeatsReservationConfirmed(id, reservationId, seatNumbers, sagaContext);
+    }
   }
 
   private Either<ShowCommandError, ShowEvent> handleReservation(ReserveSeat reserveSeat) {
@@ -75,25 +159,74 @@ public record Show(String id, String title, Map<Integer, Seat> seats, Map<String
     }
   }
 
+  private Either<ShowCommandError, ShowEvent> handleReservation(ReserveSeats reserveSeats) {
+    List<Integer> seatNumbers = reserveSeats.seatNumbers();
+    if (isDuplicate(reserveSeats.reservationId())) {
+      return left(DUPLICATED_COMMAND);
+    } else if (seatNumbers.size() < 2 || seatNumbers.stream().distinct().count() != seatNumbers.size()) {
+      return left(INVALID_SEAT_SELECTION);
+    } else {
+      Money price = Money.ZERO;
+      for (int seatNumber : seatNumbers) {
+        Option<Seat> seat = seats.get(seatNumber);
+        if (seat.isEmpty()) {
+          return left(SEAT_NOT_FOUND);
+        } else if (!seat.get().isAvailable()) {
+          return left(SEAT_NOT_AVAILABLE);
+        }
+        price = price.plus(seat.get().price());
+      }
+      return right(new SeatsReserved(id, reserveSeats.walletId(), reserveSeats.reservationId(), seatNumbers, price));
+    }
+  }
+
+  private Either<ShowCommandError, ShowEvent> handleReservation(ReserveBestAvailable reserveBestAvailable) {
+    int count = reserveBestAvailable.count();
+    if (isDuplicate(reserveBestAvailable.reservationId())) {
+      return left(DUPLICATED_COMMAND);
+    } else if (count < 1 || (reserveBestAvailable.contiguous() && count > FreeSeatIndex.ROW_SIZE)) {
+      return left(INVALID_SEAT_SELECTION);
+    } else {
+      List<Integer> seatNumbers = seats.bestAvailable(count, Option.of(reserveBestAvailable.price()), reserveBestAvailable.contiguous());
+      if (seatNumbers.isEmpty()) {
+        return left(SEAT_NOT_AVAILABLE);
+      } else if (count == 1) {
+        return handleReservation(new ReserveSeat(reserveBestAvailable.walletId(), reserveBestAvailable.reservationId(), seatNumbers.get(0)));
+      } else {
+        return handleReservation(new ReserveSeats(reserveBestAvailable.walletId(), reserveBestAvailable.reservationId(), seatNumbers));
+      }
+    }
+  }
+
   private Either<ShowCommandError, ShowEvent> handleCancellation(CancelSeatReservation cancelSeatReservation) {
     String reservationId = cancelSeatReservation.reservationId();
-    return pendingReservations.get(reservationId).fold(
-      /*no reservation*/
-      () -> finishedReservations.get(reservationId).<Either<ShowCommandError, ShowEvent>>map(finishedReservation ->
-        switch (finishedReservation.status()) {
+    return seatsReservations.get(reservationId).fold(
+      () -> pendingReservations.get(reservationId).fold(
+        /*no reservation*/
+        () -> finishedReservations.get(reservationId).<Either<ShowCommandError, ShowEvent>>map(finishedReservation ->
+          switch (finishedReservation.status()) {
+            case CANCELLED -> left(DUPLICATED_COMMAND);
+            case CONFIRMED -> left(CANCELLING_CONFIRMED_RESERVATION);
+          }).getOrElse(() -> supersededReservations.contains(reservationId) ? left(DUPLICATED_COMMAND) : left(RESERVATION_NOT_FOUND)),
+        /*matching reservation*/
+        seatNumber -> seats.get(seatNumber).<Either<ShowCommandError, ShowEvent>>map(seat ->
+          right(new SeatReservationCancelled(id, reservationId, seatNumber))
+        ).getOrElse(left(SEAT_NOT_FOUND))
+      ),
+      /*matching group reservation*/
+      seatsReservation -> seatsReservation.finishedAs().fold(
+        () -> right(new SeatsReservationCancelled(id, reservationId, seatsReservation.seatNumbers())),
+        status -> switch (status) {
           case CANCELLED -> left(DUPLICATED_COMMAND);
           case CONFIRMED -> left(CANCELLING_CONFIRMED_RESERVATION);
-        }).getOrElse(left(RESERVATION_NOT_FOUND)),
-      /*matching reservation*/
-      seatNumber -> seats.get(seatNumber).<Either<ShowCommandError, ShowEvent>>map(seat ->
-        right(new SeatReservationCancelled(id, reservationId, seatNumber))
-      ).getOrElse(left(SEAT_NOT_FOUND))
-    );
+        }));
   }
 
   private boolean isDuplicate(String reservationId) {
     return pendingReservations.containsKey(reservationId) ||
-      finishedReservations.get(reservationId).isDefined();
+      finishedReservations.get(reservationId).isDefined() ||
+      seatsReservations.containsKey(reservationId) ||
+      supersededReservations.contains(reservationId);
   }
 
   public Show apply(ShowEvent event) {
@@ -103,41 +236,128 @@ public record Show(String id, String title, Map<Integer, Seat> seats, Map<String
       case SeatReservationPaid seatReservationPaid -> applyReservationPaid(seatReservationPaid);
       case SeatReservationCancelled seatReservationCancelled -> applyReservationCancelled(seatReservationCancelled);
       case CancelledReservationConfirmed __ -> this;
+      case SeatsReserved seatsReserved -> applyReserved(seatsReserved);
+      case SeatsReservationPaid seatsReservationPaid -> applyReservationPaid(seatsReservationPaid);
+      case SeatsReservationCancelled seatsReservationCancelled -> applyReservationCancelled(seatsReservationCancelled);
+      case CancelledSeatsReservationConfirmed __ -> this;
     };
   }
 
+  /**
+   * Same as applying the events one by one, but with intermediate states kept in a mutable {@link ShowReplay}.
+   */
+  public Show applyAll(Iterable<? extends ShowEvent> events) {
+    ShowReplay replay = new ShowReplay(this);
+    for (ShowEvent event : events) {
+      replay.apply(event);
+    }
+    return replay.freeze();
+  }
+
   private Show applyReservationPaid(SeatReservationPaid seatReservationPaid) {
-    Seat seat = getSeatOrThrow(seatReservationPaid.seatNumber());
+    int seatNumber = seatReservationPaid.seatNumber();
     String reservationId = seatReservationPaid.reservationId();
-    FinishedReservation finishedReservation = new FinishedReservation(reservationId, seat.number(), CONFIRMED);
-    return new Show(id, title, seats.put(seat.number(), seat.paid()),
-      pendingReservations.remove(reservationId),
-      finishedReservations.put(reservationId, finishedReservation));
-
+    FinishedReservation finishedReservation = new FinishedReservation(reservationId, seatNumber, CONFIRMED);
+    return finish(finishedReservation, seats.pay(seatNumber));
   }
 
   private Show applyReservationCancelled(SeatReservationCancelled seatReservationCancelled) {
-    Seat seat = getSeatOrThrow(seatReservationCancelled.seatNumber());
+    int seatNumber = seatReservationCancelled.seatNumber();
     String reservationId = seatReservationCancelled.reservationId();
-    FinishedReservation finishedReservation = new FinishedReservation(reservationId, seat.number(), CANCELLED);
-    return new Show(id, title, seats.put(seat.number(), seat.available()),
+    FinishedReservation finishedReservation = new FinishedReservation(reservationId, seatNumber, CANCELLED);
+    return finish(finishedReservation, seats.release(seatNumber));
+  }
+
+  private Show applyReservationPaid(SeatsReservationPaid seatsReservationPaid) {
+    var seatsReservation = new SeatsReservation(seatsReservationPaid.reservationId(), seatsReservationPaid.seatNumbers(), Option.some(CONFIRMED));
+    return finish(seatsReservation, seats.payAll(seatsReservation.seatNumbers()));
+  }
+
+  private Show applyReservationCancelled(SeatsReservationCancelled seatsReservationCancelled) {
+    var seatsReservation = new SeatsReservation(seatsReservationCancelled.reservationId(), seatsReservationCancelled.seatNumbers(), Option.some(CANCELLED));
+    return finish(seatsReservation, seats.releaseAll(seatsReservation.seatNumbers()));
+  }
+
+  private Show finish(FinishedReservation finishedReservation, SeatInventory updatedSeats) {
+    String reservationId = finishedReservation.reservationId();
+    Show superseded = supersede(reservationId, List.of(finishedReservation.seatNumber()));
+    return new Show(id, title, updatedSeats,
       pendingReservations.remove(reservationId),
-      finishedReservations.put(reservationId, finishedReservation));
+      superseded.finishedReservations.put(reservationId, finishedReservation),
+      superseded.seatsReservations,
+      superseded.lastFinishedReservations,
+      superseded.supersededReservations);
+  }
+
+  private Show finish(SeatsReservation seatsReservation, SeatInventory updatedSeats) {
+    String reservationId = seatsReservation.reservationId();
+    Show superseded = supersede(reservationId, seatsReservation.seatNumbers());
+    return new Show(id, title, updatedSeats,
+      pendingReservations,
+      superseded.finishedReservations,
+      superseded.seatsReservations.put(reservationId, seatsReservation),
+      superseded.lastFinishedReservations,
+      superseded.supersededReservations);
+  }
+
+  /**
+   * Points the seats to the just finished reservation and moves reservations previously finished on these seats to
+   * {@code supersededReservations}. Other seats of a moved group reservation stop pointing to it, so it's moved only
+   * once, with all its seats.
+   */
+  private Show supersede(String reservationId, List<Integer> seatNumbers) {
+    var updatedFinished = finishedReservations;
+    var updatedSeatsReservations = seatsReservations;
+    var updatedLastFinished = lastFinishedReservations;
+    var updatedSuperseded = supersededReservations;
+    for (int seatNumber : seatNumbers) {
+      for (String previousReservationId : updatedLastFinished.get(seatNumber)) {
+        List<Integer> previousSeats = updatedSeatsReservations.get(previousReservationId).map(SeatsReservation::seatNumbers)
+          .getOrElse(() -> List.of(seatNumber));
+        for (int previousSeat : previousSeats) {
+          if (updatedLastFinished.get(previousSeat).contains(previousReservationId)) {
+            updatedLastFinished = updatedLastFinished.remove(previousSeat);
+          }
+        }
+        updatedSuperseded = updatedSuperseded.add(previousReservationId, previousSeats);
+        updatedFinished = updatedFinished.remove(previousReservationId);
+        updatedSeatsReservations = updatedSeatsReservations.remove(previousReservationId);
+      }
+      updatedLastFinished = updatedLastFinished.put(seatNumber, reservationId);
+    }
+    return new Show(id, title, seats, pendingReservations, updatedFinished, updatedSeatsReservations, updatedLastFinished, updatedSuperseded);
   }
 
   private Show applyReserved(SeatReserved seatReserved) {
-    Seat seat = getSeatOrThrow(seatReserved.seatNumber());
-    return new Show(id, title, seats.put(seat.number(), seat.reserved()),
+    return new Show(id, title, seats.reserve(seatReserved.seatNumber()),
       pendingReservations.put(seatReserved.reservationId(), seatReserved.seatNumber()),
-      finishedReservations);
+      finishedReservations,
+      seatsReservations,
+      lastFinishedReservations,
+      supersededReservations);
   }
 
-  private Seat getSeatOrThrow(int seatNumber) {
-    return seats.get(seatNumber).getOrElseThrow(() -> new IllegalStateException("Seat not found %s".formatted(seatNumber)));
+  private Show applyReserved(SeatsReserved seatsReserved) {
+    return new Show(id, title, seats.reserveAll(seatsReserved.seatNumbers()),
+      pendingReservations,
+      finishedReservations,
+      seatsReservations.put(seatsReserved.reservationId(), SeatsReservation.pending(seatsReserved.reservationId(), seatsReserved.seatNumbers())),
+      lastFinishedReservations,
+      supersededReservations);
+  }
+
+  /**
+   * @return seats of a pending or finished reservation, empty if the show doesn't keep it (anymore)
+   */
+  public List<Integer> reservedSeats(String reservationId) {
+    return seatsReservations.get(reservationId).map(SeatsReservation::seatNumbers)
+      .orElse(() -> pendingReservations.get(reservationId).map(List::of))
+      .orElse(() -> finishedReservations.get(reservationId).map(finished -> List.of(finished.seatNumber())))
+      .orElse(() -> supersededReservations.get(reservationId))
+      .getOrElse(List.of());
   }
 
   public Option<Seat> getSeat(int seatNumber) {
     return seats.get(seatNumber);
   }
 }
-
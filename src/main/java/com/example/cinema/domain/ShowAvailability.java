@@ -0,0 +1,33 @@
+package com.example.cinema.domain;
+
+import static com.example.cinema.domain.SeatStatus.AVAILABLE;
+import static com.example.cinema.domain.SeatStatus.PAID;
+import static com.example.cinema.domain.SeatStatus.RESERVED;
+
+/**
+ * Seat counts of a show, changed by the number of seats of every reservation event, without the seats themselves.
+ * For a partition of a partitioned show the counts are only of that partition, {@code parentShowId} is the id of the
+ * partitioned show, for other shows it's the same as {@code showId}.
+ */
+public record ShowAvailability(String showId, String parentShowId, String title, int available, int reserved, int paid) {
+
+  public static ShowAvailability of(InitialShow initialShow) {
+    var seats = initialShow.seats();
+    return new ShowAvailability(initialShow.id(), ShowPartitions.parentShowId(initialShow.id()), initialShow.title(),
+      (int) seats.stream().filter(seat -> seat.status() == AVAILABLE).count(),
+      (int) seats.stream().filter(seat -> seat.status() == RESERVED).count(),
+      (int) seats.stream().filter(seat -> seat.status() == PAID).count());
+  }
+
+  public ShowAvailability reserve(int seats) {
+    return new ShowAvailability(showId, parentShowId, title, available - seats, reserved + seats, paid);
+  }
+
+  public ShowAvailability pay(int seats) {
+    return new ShowAvailability(showId, parentShowId, title, available, reserved - seats, paid + seats);
+  }
+
+  public ShowAvailability cancel(int seats) {
+    return new ShowAvailability(showId, parentShowId, title, available + seats, reserved - seats, paid);
+  }
+}
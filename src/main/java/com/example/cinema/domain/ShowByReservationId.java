@@ -0,0 +1,14 @@
+package com.example.cinema.domain;
+
+import com.example.common.Money;
+
+public record ShowByReservationId(String reservationId, String showId, String walletId, Money price) {
+
+  public static ShowByReservationId of(Reservation reservation) {
+    return new ShowByReservationId(reservation.reservationId(), reservation.showId(), reservation.walletId(), reservation.price());
+  }
+
+  public Reservation toReservation() {
+    return new Reservation(reservationId, showId, walletId, price);
+  }
+}
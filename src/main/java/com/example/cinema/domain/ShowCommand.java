@@ -1,14 +1,59 @@
 package com.example.cinema.domain;
 
+import com.example.common.Money;
+import com.example.common.SagaContext;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+
+import java.util.List;
+
 public sealed interface ShowCommand {
 
   record CreateShow(String title, int maxSeats) implements ShowCommand {
   }
 
+  record CreateShowPartition(String title, int firstSeatNumber, int seatCount) implements ShowCommand {
+  }
+
   record ReserveSeat(String walletId, String reservationId, int seatNumber) implements ShowCommand {
   }
 
-  record ConfirmReservationPayment(String reservationId) implements ShowCommand {
+  /**
+   * Reserves all seats or none of them, the reservation is confirmed or cancelled as a whole.
+   */
+  record ReserveSeats(String walletId, String reservationId, List<Integer> seatNumbers) implements ShowCommand {
+  }
+
+  /**
+   * Reserves {@code count} best available seats picked by the show, instead of exact seat numbers.
+   *
+   * @param price      price of all picked seats, any price if null
+   * @param contiguous seats next to each other in one row, see {@link FreeSeatIndex#ROW_SIZE}
+   */
+  record ReserveBestAvailable(String walletId, String reservationId, int count, Money price,
+                              boolean contiguous) implements ShowCommand {
+  }
+
+  /**
+   * @param sagaContext not used by the show, passed to the resulting event
+   */
+  record ConfirmReservationPayment(String reservationId,
+                                   @JsonSetter(nulls = Nulls.AS_EMPTY) SagaContext sagaContext) implements ShowCommand {
+
+    public ConfirmReservationPayment(String reservationId) {
+      this(reservationId, SagaContext.EMPTY);
+    }
+  }
+
+  /**
+   * Confirmation of a cancelled reservation that is no longer kept in the show state, resolved from the archive.
+   */
+  record ConfirmArchivedReservationPayment(String reservationId, List<Integer> seatNumbers,
+                                           @JsonSetter(nulls = Nulls.AS_EMPTY) SagaContext sagaContext) implements ShowCommand {
+
+    public ConfirmArchivedReservationPayment(String reservationId, List<Integer> seatNumbers) {
+      this(reservationId, seatNumbers, SagaContext.EMPTY);
+    }
   }
 
   record CancelSeatReservation(String reservationId) implements ShowCommand {
@@ -3,9 +3,13 @@ package com.example.cinema.domain;
 public enum ShowCommandError {
   SHOW_ALREADY_EXISTS,
   SHOW_NOT_FOUND,
+  INVALID_SHOW_ID,
   TOO_MANY_SEATS,
+  INVALID_SEAT_RANGE,
+  INVALID_PARTITION_SIZE,
   SEAT_NOT_FOUND,
   SEAT_NOT_AVAILABLE,
+  INVALID_SEAT_SELECTION,
   RESERVATION_NOT_FOUND,
   DUPLICATED_COMMAND,
   CANCELLING_CONFIRMED_RESERVATION
@@ -1,25 +1,33 @@
 package com.example.cinema.domain;
 
 import com.example.cinema.domain.ShowCommand.CreateShow;
+import com.example.cinema.domain.ShowCommand.CreateShowPartition;
 import com.example.cinema.domain.ShowEvent.ShowCreated;
+import com.example.common.Money;
 import io.vavr.control.Either;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.stream.IntStream;
 
 import static com.example.cinema.domain.SeatStatus.AVAILABLE;
+import static com.example.cinema.domain.ShowCommandError.INVALID_PARTITION_SIZE;
+import static com.example.cinema.domain.ShowCommandError.INVALID_SEAT_RANGE;
+import static com.example.cinema.domain.ShowCommandError.INVALID_SHOW_ID;
 import static com.example.cinema.domain.ShowCommandError.TOO_MANY_SEATS;
 import static io.vavr.control.Either.left;
 import static io.vavr.control.Either.right;
 
 public class ShowCreator {
 
-  public static final BigDecimal INITIAL_PRICE = new BigDecimal("100");
+  public static final Money INITIAL_PRICE = Money.of(100);
+  public static final int MAX_SEATS = 100;
+  public static final int MAX_PARTITIONED_SEATS = 10_000;
 
   public static Either<ShowCommandError, ShowCreated> create(String showId, CreateShow createShow) {
     //more domain validation here
-    if (createShow.maxSeats() > 100) {
+    if (!isValidShowId(showId)) {
+      return left(INVALID_SHOW_ID);
+    } else if (createShow.maxSeats() > MAX_SEATS) {
       return left(TOO_MANY_SEATS);
     } else {
       var initialShow = new InitialShow(showId, createShow.title(), createSeats(INITIAL_PRICE, createShow.maxSeats()));
@@ -28,7 +36,44 @@ public class ShowCreator {
     }
   }
 
-  public static List<Seat> createSeats(BigDecimal seatPrice, int maxSeats) {
-    return IntStream.range(0, maxSeats).mapToObj(seatNum -> new Seat(seatNum, AVAILABLE, seatPrice)).toList();
+  public static Either<ShowCommandError, ShowPartitions> createPartitioned(String showId, String title, int maxSeats, int partitionSize) {
+    if (!isValidShowId(showId)) {
+      return left(INVALID_SHOW_ID);
+    } else if (maxSeats <= 0) {
+      return left(INVALID_SEAT_RANGE);
+    } else if (maxSeats > MAX_PARTITIONED_SEATS) {
+      return left(TOO_MANY_SEATS);
+    } else if (partitionSize <= 0 || partitionSize > MAX_SEATS) {
+      return left(INVALID_PARTITION_SIZE);
+    } else {
+      return right(new ShowPartitions(showId, title, maxSeats, partitionSize));
+    }
+  }
+
+  public static Either<ShowCommandError, ShowCreated> createPartition(String partitionId, CreateShowPartition createShowPartition) {
+    if (!ShowPartitions.isPartitionId(partitionId)) {
+      return left(INVALID_SHOW_ID);
+    } else if (createShowPartition.firstSeatNumber() < 0 || createShowPartition.seatCount() <= 0) {
+      return left(INVALID_SEAT_RANGE);
+    } else if (createShowPartition.seatCount() > MAX_SEATS) {
+      return left(TOO_MANY_SEATS);
+    } else {
+      var seats = createSeats(INITIAL_PRICE, createShowPartition.firstSeatNumber(), createShowPartition.seatCount());
+      var initialShow = new InitialShow(partitionId, createShowPartition.title(), seats);
+      return right(new ShowCreated(partitionId, initialShow));
+    }
+  }
+
+  //reserved for partition ids
+  private static boolean isValidShowId(String showId) {
+    return !showId.contains(ShowPartitions.PARTITION_SEPARATOR);
+  }
+
+  public static List<Seat> createSeats(Money seatPrice, int maxSeats) {
+    return createSeats(seatPrice, 0, maxSeats);
+  }
+
+  public static List<Seat> createSeats(Money seatPrice, int firstSeatNumber, int seatCount) {
+    return IntStream.range(firstSeatNumber, firstSeatNumber + seatCount).mapToObj(seatNum -> new Seat(seatNum, AVAILABLE, seatPrice)).toList();
   }
 }
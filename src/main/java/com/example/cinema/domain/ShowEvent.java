@@ -1,8 +1,12 @@
 package com.example.cinema.domain;
 
+import com.example.common.Money;
+import com.example.common.SagaContext;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
 import kalix.javasdk.annotations.TypeName;
 
-import java.math.BigDecimal;
+import java.util.List;
 
 public sealed interface ShowEvent {
   String showId();
@@ -12,11 +16,16 @@ public sealed interface ShowEvent {
   }
 
   @TypeName("seat-reserved")
-  record SeatReserved(String showId, String walletId, String reservationId, int seatNumber, BigDecimal price) implements ShowEvent {
+  record SeatReserved(String showId, String walletId, String reservationId, int seatNumber, Money price) implements ShowEvent {
   }
 
   @TypeName("seat-reservation-paid")
-  record SeatReservationPaid(String showId, String reservationId, int seatNumber) implements ShowEvent {
+  record SeatReservationPaid(String showId, String reservationId, int seatNumber,
+                             @JsonSetter(nulls = Nulls.AS_EMPTY) SagaContext sagaContext) implements ShowEvent {
+
+    public SeatReservationPaid(String showId, String reservationId, int seatNumber) {
+      this(showId, reservationId, seatNumber, SagaContext.EMPTY);
+    }
   }
 
   @TypeName("seat-reservation-cancelled")
@@ -24,6 +33,37 @@ public sealed interface ShowEvent {
   }
 
   @TypeName("cancelled-reservation-confirmed")
-  record CancelledReservationConfirmed(String showId, String reservationId, int seatNumber) implements ShowEvent {
+  record CancelledReservationConfirmed(String showId, String reservationId, int seatNumber,
+                                       @JsonSetter(nulls = Nulls.AS_EMPTY) SagaContext sagaContext) implements ShowEvent {
+
+    public CancelledReservationConfirmed(String showId, String reservationId, int seatNumber) {
+      this(showId, reservationId, seatNumber, SagaContext.EMPTY);
+    }
+  }
+
+  @TypeName("seats-reserved")
+  record SeatsReserved(String showId, String walletId, String reservationId, List<Integer> seatNumbers, Money price) implements ShowEvent {
+  }
+
+  @TypeName("seats-reservation-paid")
+  record SeatsReservationPaid(String showId, String reservationId, List<Integer> seatNumbers,
+                              @JsonSetter(nulls = Nulls.AS_EMPTY) SagaContext sagaContext) implements ShowEvent {
+
+    public SeatsReservationPaid(String showId, String reservationId, List<Integer> seatNumbers) {
+      this(showId, reservationId, seatNumbers, SagaContext.EMPTY);
+    }
+  }
+
+  @TypeName("seats-reservation-cancelled")
+  record SeatsReservationCancelled(String showId, String reservationId, List<Integer> seatNumbers) implements ShowEvent {
+  }
+
+  @TypeName("cancelled-seats-reservation-confirmed")
+  record CancelledSeatsReservationConfirmed(String showId, String reservationId, List<Integer> seatNumbers,
+                                            @JsonSetter(nulls = Nulls.AS_EMPTY) SagaContext sagaContext) implements ShowEvent {
+
+    public CancelledSeatsReservationConfirmed(String showId, String reservationId, List<Integer> seatNumbers) {
+      this(showId, reservationId, seatNumbers, SagaContext.EMPTY);
+    }
   }
 }
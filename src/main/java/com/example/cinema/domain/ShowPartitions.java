@@ -0,0 +1,61 @@
+package com.example.cinema.domain;
+
+import com.example.cinema.domain.ShowCommand.CreateShowPartition;
+import io.vavr.control.Option;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Layout of a show split into seat-range partitions, each partition is a separate show entity with its own id.
+ * Seat numbers stay global, partition {@code n} owns seats {@code [n * partitionSize, (n + 1) * partitionSize)}.
+ * Partition ids are {@code showId~n}, show ids with {@link #PARTITION_SEPARATOR} are rejected, so a partition id can't
+ * be the id of another show.
+ */
+public record ShowPartitions(String showId, String title, int maxSeats, int partitionSize) {
+
+  public static final String PARTITION_SEPARATOR = "~";
+
+  /**
+   * @return true for ids in the {@code showId~n} form, the only ids a partition can be created with
+   */
+  public static boolean isPartitionId(String id) {
+    int separator = id.indexOf(PARTITION_SEPARATOR);
+    return separator > 0
+      && separator < id.length() - 1
+      && id.substring(separator + 1).chars().allMatch(c -> c >= '0' && c <= '9');
+  }
+
+  /**
+   * @return show id of a partition id, any other id unchanged
+   */
+  public static String parentShowId(String id) {
+    return isPartitionId(id) ? id.substring(0, id.indexOf(PARTITION_SEPARATOR)) : id;
+  }
+
+  public int partitionCount() {
+    return (maxSeats + partitionSize - 1) / partitionSize;
+  }
+
+  public Option<String> partitionIdFor(int seatNumber) {
+    if (seatNumber < 0 || seatNumber >= maxSeats) {
+      return Option.none();
+    } else {
+      return Option.some(partitionId(seatNumber / partitionSize));
+    }
+  }
+
+  public String partitionId(int partition) {
+    return showId + PARTITION_SEPARATOR + partition;
+  }
+
+  public List<String> partitionIds() {
+    return IntStream.range(0, partitionCount()).mapToObj(this::partitionId).toList();
+  }
+
+  public CreateShowPartition createPartition(int partition) {
+    int firstSeatNumber = partition * partitionSize;
+    int seatCount = Math.min(partitionSize, maxSeats - firstSeatNumber);
+    return new CreateShowPartition(title, firstSeatNumber, seatCount);
+  }
+}
@@ -0,0 +1,131 @@
+package com.example.cinema.domain;
+
+import com.example.cinema.domain.ShowEvent.CancelledReservationConfirmed;
+import com.example.cinema.domain.ShowEvent.CancelledSeatsReservationConfirmed;
+import com.example.cinema.domain.ShowEvent.SeatReservationCancelled;
+import com.example.cinema.domain.ShowEvent.SeatReservationPaid;
+import com.example.cinema.domain.ShowEvent.SeatReserved;
+import com.example.cinema.domain.ShowEvent.SeatsReservationCancelled;
+import com.example.cinema.domain.ShowEvent.SeatsReservationPaid;
+import com.example.cinema.domain.ShowEvent.SeatsReserved;
+import com.example.cinema.domain.ShowEvent.ShowCreated;
+import io.vavr.collection.HashMap;
+import io.vavr.control.Option;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.cinema.domain.ReservationStatus.CANCELLED;
+import static com.example.cinema.domain.ReservationStatus.CONFIRMED;
+import static com.example.cinema.domain.SeatStatus.AVAILABLE;
+import static com.example.cinema.domain.SeatStatus.PAID;
+import static com.example.cinema.domain.SeatStatus.RESERVED;
+
+/**
+ * Mutable counterpart of {@link Show} for applying a long sequence of events. The result is the same as folding the
+ * events with {@link Show#apply(ShowEvent)}, but the state is copied only twice, when the replay starts and in
+ * {@link #freeze()}, instead of once per event.
+ */
+final class ShowReplay {
+
+  private final Show show;
+  private final long[] statuses;
+  private final List<Integer> changedSeats = new ArrayList<>();
+  private final Map<String, Integer> pendingReservations;
+  private final Map<String, FinishedReservation> finishedReservations;
+  private final Map<String, SeatsReservation> seatsReservations;
+  private final Map<Integer, String> lastFinishedReservations;
+  private SupersededReservations supersededReservations;
+
+  ShowReplay(Show show) {
+    this.show = show;
+    this.statuses = show.seats().statuses().clone();
+    this.pendingReservations = new java.util.HashMap<>(show.pendingReservations().toJavaMap());
+    this.finishedReservations = new java.util.HashMap<>(show.finishedReservations().toJavaMap());
+    this.seatsReservations = new java.util.HashMap<>(show.seatsReservations().toJavaMap());
+    this.lastFinishedReservations = new java.util.HashMap<>(show.lastFinishedReservations().toJavaMap());
+    this.supersededReservations = show.supersededReservations();
+  }
+
+  ShowReplay apply(ShowEvent event) {
+    switch (event) {
+      case ShowCreated ignored -> throw new IllegalStateException("Show is already created, use Show.create instead.");
+      case SeatReserved seatReserved -> {
+        setStatus(seatReserved.seatNumber(), RESERVED);
+        pendingReservations.put(seatReserved.reservationId(), seatReserved.seatNumber());
+      }
+      case SeatReservationPaid paid -> {
+        setStatus(paid.seatNumber(), PAID);
+        finish(new FinishedReservation(paid.reservationId(), paid.seatNumber(), CONFIRMED));
+      }
+      case SeatReservationCancelled cancelled -> {
+        setStatus(cancelled.seatNumber(), AVAILABLE);
+        finish(new FinishedReservation(cancelled.reservationId(), cancelled.seatNumber(), CANCELLED));
+      }
+      case SeatsReserved seatsReserved -> {
+        setStatus(seatsReserved.seatNumbers(), RESERVED);
+        seatsReservations.put(seatsReserved.reservationId(), SeatsReservation.pending(seatsReserved.reservationId(), seatsReserved.seatNumbers()));
+      }
+      case SeatsReservationPaid paid -> {
+        setStatus(paid.seatNumbers(), PAID);
+        finish(new SeatsReservation(paid.reservationId(), paid.seatNumbers(), Option.some(CONFIRMED)));
+      }
+      case SeatsReservationCancelled cancelled -> {
+        setStatus(cancelled.seatNumbers(), AVAILABLE);
+        finish(new SeatsReservation(cancelled.reservationId(), cancelled.seatNumbers(), Option.some(CANCELLED)));
+      }
+      case CancelledReservationConfirmed __ -> {
+      }
+      case CancelledSeatsReservationConfirmed __ -> {
+      }
+    }
+    return this;
+  }
+
+  Show freeze() {
+    return new Show(show.id(), show.title(), show.seats().withStatuses(statuses.clone(), changedSeats),
+      HashMap.ofAll(pendingReservations),
+      HashMap.ofAll(finishedReservations),
+      HashMap.ofAll(seatsReservations),
+      HashMap.ofAll(lastFinishedReservations),
+      supersededReservations);
+  }
+
+  private void setStatus(int seatNumber, SeatStatus status) {
+    show.seats().setStatus(statuses, seatNumber, status);
+    changedSeats.add(seatNumber);
+  }
+
+  private void setStatus(List<Integer> seatNumbers, SeatStatus status) {
+    for (int seatNumber : seatNumbers) {
+      setStatus(seatNumber, status);
+    }
+  }
+
+  private void finish(FinishedReservation finishedReservation) {
+    supersede(finishedReservation.reservationId(), List.of(finishedReservation.seatNumber()));
+    pendingReservations.remove(finishedReservation.reservationId());
+    finishedReservations.put(finishedReservation.reservationId(), finishedReservation);
+  }
+
+  private void finish(SeatsReservation seatsReservation) {
+    supersede(seatsReservation.reservationId(), seatsReservation.seatNumbers());
+    seatsReservations.put(seatsReservation.reservationId(), seatsReservation);
+  }
+
+  private void supersede(String reservationId, List<Integer> seatNumbers) {
+    for (int seatNumber : seatNumbers) {
+      String previousReservationId = lastFinishedReservations.put(seatNumber, reservationId);
+      if (previousReservationId != null) {
+        SeatsReservation previousSeatsReservation = seatsReservations.remove(previousReservationId);
+        List<Integer> previousSeats = previousSeatsReservation != null ? previousSeatsReservation.seatNumbers() : List.of(seatNumber);
+        for (int previousSeat : previousSeats) {
+          lastFinishedReservations.remove(previousSeat, previousReservationId);
+        }
+        supersededReservations = supersededReservations.add(previousReservationId, previousSeats);
+        finishedReservations.remove(previousReservationId);
+      }
+    }
+  }
+}
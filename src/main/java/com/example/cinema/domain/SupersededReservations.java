@@ -0,0 +1,43 @@
+package com.example.cinema.domain;
+
+import io.vavr.collection.LinkedHashMap;
+import io.vavr.control.Option;
+
+import java.util.List;
+
+/**
+ * Seat numbers of the last {@link #CAPACITY} cancelled reservations dropped from {@link Show} state because their seats
+ * were finished again by a later reservation, in the order of dropping. Retried commands of such a reservation are still
+ * recognized by the show, older ones are only in the archive, see {@link ShowCommand.ConfirmArchivedReservationPayment}.
+ * <p>
+ * Kept in snapshots, shows recovered from snapshots written before superseded reservations were tracked start with
+ * {@link #EMPTY}.
+ */
+public record SupersededReservations(LinkedHashMap<String, List<Integer>> seatNumbers) {
+
+  public static final int CAPACITY = 1000;
+  public static final SupersededReservations EMPTY = new SupersededReservations();
+
+  public SupersededReservations() {
+    this(LinkedHashMap.empty());
+  }
+
+  public boolean contains(String reservationId) {
+    return seatNumbers.containsKey(reservationId);
+  }
+
+  public Option<List<Integer>> get(String reservationId) {
+    return seatNumbers.get(reservationId);
+  }
+
+  /**
+   * An already superseded reservation keeps its seats and position, it doesn't take another slot.
+   */
+  public SupersededReservations add(String reservationId, List<Integer> reservedSeats) {
+    if (contains(reservationId)) {
+      return this;
+    }
+    var updated = seatNumbers.put(reservationId, reservedSeats);
+    return new SupersededReservations(updated.size() > CAPACITY ? updated.tail() : updated);
+  }
+}
@@ -0,0 +1,85 @@
+package com.example.cinema.domain;
+
+import com.example.cinema.domain.WaitlistEvent.Enqueued;
+import com.example.cinema.domain.WaitlistEvent.Removed;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
+import io.vavr.control.Option;
+
+/**
+ * Clients waiting for a seat of a show, in the order of joining. A seat freed by a cancelled reservation is reserved for
+ * the {@link #head()}, which then leaves the waitlist.
+ * <p>
+ * Entries are kept under consecutive indexes from {@code headIndex} (inclusive) to {@code tailIndex} (exclusive), so
+ * joining, leaving and reading the head or a position don't depend on the length of the waitlist. An entry leaving from
+ * the middle leaves a gap, skipped when it reaches the head and until then still counted in the positions behind it.
+ * {@code indexes} is derived from {@code entries} and not persisted.
+ *
+ * @param entries reservation id of each entry is unique
+ */
+public record Waitlist(String showId, long headIndex, long tailIndex, Map<Long, Entry> entries,
+                       @JsonIgnore Map<String, Long> indexes) {
+
+  public record Entry(String reservationId, String walletId) {
+  }
+
+  @JsonCreator
+  public Waitlist(@JsonProperty("showId") String showId, @JsonProperty("headIndex") long headIndex,
+                  @JsonProperty("tailIndex") long tailIndex, @JsonProperty("entries") Map<Long, Entry> entries) {
+    this(showId, headIndex, tailIndex, entries, entries.toMap(indexed -> indexed._2.reservationId(), indexed -> indexed._1));
+  }
+
+  public static Waitlist empty(String showId) {
+    return new Waitlist(showId, 0, 0, HashMap.empty(), HashMap.empty());
+  }
+
+  public boolean contains(String reservationId) {
+    return indexes.containsKey(reservationId);
+  }
+
+  /**
+   * @return position starting from 1, might include entries that already left from the middle of the waitlist
+   */
+  public Option<Integer> position(String reservationId) {
+    return indexes.get(reservationId).map(index -> (int) (index - headIndex) + 1);
+  }
+
+  public Option<Entry> head() {
+    return entries.get(headIndex);
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public Waitlist apply(WaitlistEvent event) {
+    return switch (event) {
+      case Enqueued enqueued -> enqueue(enqueued.entry());
+      case Removed removed -> remove(removed.reservationId());
+    };
+  }
+
+  public Waitlist enqueue(Entry entry) {
+    if (contains(entry.reservationId())) {
+      return this;
+    }
+    return new Waitlist(showId, headIndex, tailIndex + 1, entries.put(tailIndex, entry), indexes.put(entry.reservationId(), tailIndex));
+  }
+
+  public Waitlist remove(String reservationId) {
+    return indexes.get(reservationId).fold(
+      () -> this,
+      index -> {
+        var updatedEntries = entries.remove(index);
+        long updatedHead = headIndex;
+        //skipping gaps left by entries removed from the middle
+        while (updatedHead < tailIndex && !updatedEntries.containsKey(updatedHead)) {
+          updatedHead++;
+        }
+        return new Waitlist(showId, updatedHead, tailIndex, updatedEntries, indexes.remove(reservationId));
+      });
+  }
+}
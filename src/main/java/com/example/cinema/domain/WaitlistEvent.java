@@ -0,0 +1,15 @@
+package com.example.cinema.domain;
+
+import kalix.javasdk.annotations.TypeName;
+
+public sealed interface WaitlistEvent {
+  String showId();
+
+  @TypeName("waitlist-entry-enqueued")
+  record Enqueued(String showId, Waitlist.Entry entry) implements WaitlistEvent {
+  }
+
+  @TypeName("waitlist-entry-removed")
+  record Removed(String showId, String reservationId) implements WaitlistEvent {
+  }
+}
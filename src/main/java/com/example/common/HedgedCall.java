@@ -0,0 +1,131 @@
+package com.example.common;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Two equivalent calls, the secondary is started only if the primary hasn't answered within the hedge delay (or has
+ * failed), the first successful answer wins. The delay is a percentile of the observed primary latencies, within the
+ * given bounds, or the default delay until there are enough samples. The slow call isn't interrupted, but its answer
+ * is ignored and a secondary that is no longer needed is not started.
+ */
+public class HedgedCall {
+
+  public record Stats(long calls, long hedged, long primaryWins, long secondaryWins, Duration hedgeDelay) {
+  }
+
+  private final LatencyWindow primaryLatencies;
+  private final Duration defaultDelay;
+  private final Duration minDelay;
+  private final Duration maxDelay;
+  private final double percentile;
+  private final int minSamples;
+  private final AtomicLong calls = new AtomicLong();
+  private final AtomicLong hedged = new AtomicLong();
+  private final AtomicLong primaryWins = new AtomicLong();
+  private final AtomicLong secondaryWins = new AtomicLong();
+
+  public HedgedCall(Duration defaultDelay, Duration minDelay, Duration maxDelay, double percentile, int minSamples, int windowSize) {
+    this.primaryLatencies = new LatencyWindow(windowSize);
+    this.defaultDelay = defaultDelay;
+    this.minDelay = minDelay;
+    this.maxDelay = maxDelay;
+    this.percentile = percentile;
+    this.minSamples = minSamples;
+  }
+
+  public <T> CompletionStage<T> call(Supplier<CompletionStage<T>> primary, Supplier<CompletionStage<T>> secondary) {
+    calls.incrementAndGet();
+    var hedge = new Hedge<>(secondary);
+    long startNanos = System.nanoTime();
+    start(primary).whenComplete((result, error) -> {
+      if (error == null) {
+        primaryLatencies.record(Duration.ofNanos(System.nanoTime() - startNanos));
+        if (hedge.result.complete(result)) {
+          primaryWins.incrementAndGet();
+        }
+      } else {
+        hedge.primaryFailed(error);
+      }
+    });
+    CompletableFuture.delayedExecutor(hedgeDelay().toNanos(), TimeUnit.NANOSECONDS).execute(hedge::startSecondary);
+    return hedge.result;
+  }
+
+  public Duration hedgeDelay() {
+    if (primaryLatencies.count() < minSamples) {
+      return defaultDelay;
+    }
+    Duration observed = primaryLatencies.percentile(percentile).orElse(defaultDelay);
+    if (observed.compareTo(minDelay) < 0) {
+      return minDelay;
+    } else if (observed.compareTo(maxDelay) > 0) {
+      return maxDelay;
+    } else {
+      return observed;
+    }
+  }
+
+  public Stats stats() {
+    return new Stats(calls.get(), hedged.get(), primaryWins.get(), secondaryWins.get(), hedgeDelay());
+  }
+
+  private static <T> CompletionStage<T> start(Supplier<CompletionStage<T>> call) {
+    return CompletableFuture.supplyAsync(call, Runnable::run).thenCompose(stage -> stage);
+  }
+
+  private final class Hedge<T> {
+
+    private final Supplier<CompletionStage<T>> secondary;
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    private boolean secondaryStarted;
+    private Throwable primaryError;
+    private Throwable secondaryError;
+
+    private Hedge(Supplier<CompletionStage<T>> secondary) {
+      this.secondary = secondary;
+    }
+
+    void startSecondary() {
+      synchronized (this) {
+        if (result.isDone() || secondaryStarted) {
+          return;
+        }
+        secondaryStarted = true;
+      }
+      hedged.incrementAndGet();
+      start(secondary).whenComplete((value, error) -> {
+        if (error == null) {
+          if (result.complete(value)) {
+            secondaryWins.incrementAndGet();
+          }
+        } else {
+          secondaryFailed(error);
+        }
+      });
+    }
+
+    void primaryFailed(Throwable error) {
+      synchronized (this) {
+        primaryError = error;
+        if (secondaryError != null) {
+          result.completeExceptionally(error);
+          return;
+        }
+      }
+      startSecondary();
+    }
+
+    private synchronized void secondaryFailed(Throwable error) {
+      secondaryError = error;
+      //the primary might still answer
+      if (primaryError != null) {
+        result.completeExceptionally(primaryError);
+      }
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package com.example.common;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Latencies of the last {@code size} calls. A percentile is calculated from a sorted copy and reused until another
+ * {@code size / 16} latencies are recorded, so reading it on every call doesn't sort the window every time.
+ */
+public class LatencyWindow {
+
+  private final long[] samplesNanos;
+  private final int recalculateEvery;
+  private int next;
+  private int count;
+  private long recorded;
+  private double cachedPercentile;
+  private long cachedAt;
+  private Duration cached;
+
+  public LatencyWindow(int size) {
+    this.samplesNanos = new long[size];
+    this.recalculateEvery = Math.max(1, size / 16);
+  }
+
+  public synchronized void record(Duration latency) {
+    samplesNanos[next] = latency.toNanos();
+    next = (next + 1) % samplesNanos.length;
+    count = Math.min(count + 1, samplesNanos.length);
+    recorded++;
+  }
+
+  public synchronized int count() {
+    return count;
+  }
+
+  /**
+   * @param percentile from 0 to 100
+   */
+  public Optional<Duration> percentile(double percentile) {
+    long[] sorted;
+    long sortedAt;
+    synchronized (this) {
+      if (count == 0) {
+        return Optional.empty();
+      } else if (cached != null && cachedPercentile == percentile && recorded - cachedAt < recalculateEvery) {
+        return Optional.of(cached);
+      }
+      sorted = Arrays.copyOf(samplesNanos, count);
+      sortedAt = recorded;
+    }
+    Arrays.sort(sorted);
+    int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+    Duration result = Duration.ofNanos(sorted[Math.max(0, Math.min(index, sorted.length - 1))]);
+    synchronized (this) {
+      if (cached == null || sortedAt >= cachedAt) {
+        cached = result;
+        cachedPercentile = percentile;
+        cachedAt = sortedAt;
+      }
+    }
+    return Optional.of(result);
+  }
+}
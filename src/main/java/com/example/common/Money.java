@@ -0,0 +1,116 @@
+package com.example.common;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amount of money with a fixed scale of {@link #SCALE} decimal places, kept as a {@code long} of minor units, so
+ * arithmetic and comparisons don't allocate intermediate numbers.
+ * <p>
+ * Stored as {@code {"minorUnits": 10050, "currency": "USD"}}. Events, snapshots and requests written before the money
+ * type kept amounts as plain decimals ({@code 100.5} or {@code "100.5"}), these are upcasted in {@link #fromJson(JsonNode)}
+ * to the {@link #DEFAULT_CURRENCY}. HTTP responses that returned plain decimals before keep that format with
+ * {@link DecimalSerializer}.
+ */
+public record Money(long minorUnits, String currency) implements Comparable<Money> {
+
+  public static final int SCALE = 2;
+  public static final String DEFAULT_CURRENCY = "USD";
+  public static final Money ZERO = new Money(0, DEFAULT_CURRENCY);
+
+  private static final long MINOR_UNITS_PER_UNIT = 100;
+
+  public static Money of(long units) {
+    return new Money(Math.multiplyExact(units, MINOR_UNITS_PER_UNIT), DEFAULT_CURRENCY);
+  }
+
+  /**
+   * @throws ArithmeticException if the amount has more than {@link #SCALE} decimal places or doesn't fit into a long
+   */
+  public static Money of(BigDecimal amount) {
+    return new Money(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact(), DEFAULT_CURRENCY);
+  }
+
+  @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+  static Money fromJson(JsonNode json) {
+    if (json.isNumber() || json.isTextual()) {
+      return of(new BigDecimal(json.asText()));
+    } else {
+      return new Money(json.required("minorUnits").asLong(), json.required("currency").asText());
+    }
+  }
+
+  public Money plus(Money other) {
+    requireSameCurrency(other);
+    return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+  }
+
+  public Money minus(Money other) {
+    requireSameCurrency(other);
+    return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+  }
+
+  public boolean isLessThan(Money other) {
+    requireSameCurrency(other);
+    return minorUnits < other.minorUnits;
+  }
+
+  @JsonIgnore
+  public boolean isPositive() {
+    return minorUnits > 0;
+  }
+
+  public BigDecimal toBigDecimal() {
+    return BigDecimal.valueOf(minorUnits, SCALE);
+  }
+
+  @Override
+  public int compareTo(Money other) {
+    requireSameCurrency(other);
+    return Long.compare(minorUnits, other.minorUnits);
+  }
+
+  @Override
+  public String toString() {
+    return toBigDecimal().toPlainString() + " " + currency;
+  }
+
+  private void requireSameCurrency(Money other) {
+    if (!currency.equals(other.currency)) {
+      throw new IllegalArgumentException("Currency mismatch %s and %s".formatted(currency, other.currency));
+    }
+  }
+
+  /**
+   * Writes amounts in the {@link #DEFAULT_CURRENCY} as plain decimals ({@code 100.5}), other currencies can't be
+   * written as a decimal and keep the {@code minorUnits} and {@code currency} form. Only for responses, not for types
+   * that are persisted or indexed by views.
+   */
+  public static final class DecimalSerializer extends StdSerializer<Money> {
+
+    public DecimalSerializer() {
+      super(Money.class);
+    }
+
+    @Override
+    public void serialize(Money money, JsonGenerator generator, SerializerProvider provider) throws IOException {
+      if (money.currency.equals(DEFAULT_CURRENCY)) {
+        BigDecimal amount = money.toBigDecimal().stripTrailingZeros();
+        generator.writeNumber(amount.scale() < 0 ? amount.setScale(0) : amount);
+      } else {
+        generator.writeStartObject();
+        generator.writeNumberField("minorUnits", money.minorUnits);
+        generator.writeStringField("currency", money.currency);
+        generator.writeEndObject();
+      }
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package com.example.common;
+
+/**
+ * Token bucket limiting retries to a fraction of first attempts. Every first attempt adds {@code retryRatio} tokens
+ * (up to {@code maxTokens}), every retry takes one token. When many calls fail at once, retries can't multiply the load
+ * on the failing component.
+ */
+public class RetryBudget {
+
+  private final double retryRatio;
+  private final double maxTokens;
+  private double tokens;
+
+  public RetryBudget(double retryRatio, int maxTokens) {
+    this.retryRatio = retryRatio;
+    this.maxTokens = maxTokens;
+    this.tokens = maxTokens;
+  }
+
+  public synchronized void onFirstAttempt() {
+    tokens = Math.min(maxTokens, tokens + retryRatio);
+  }
+
+  public synchronized boolean tryAcquireRetry() {
+    if (tokens >= 1) {
+      tokens -= 1;
+      return true;
+    } else {
+      return false;
+    }
+  }
+}
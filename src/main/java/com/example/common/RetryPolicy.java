@@ -0,0 +1,24 @@
+package com.example.common;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with decorrelated jitter, each delay is random between {@code minBackoff} and three times the
+ * previous delay, capped at {@code maxBackoff}. Callers failing at the same moment don't retry in lockstep.
+ *
+ * @param attempts number of retries after the first call
+ */
+public record RetryPolicy(int attempts, Duration minBackoff, Duration maxBackoff) {
+
+  public Duration firstDelay() {
+    return nextDelay(minBackoff);
+  }
+
+  public Duration nextDelay(Duration previousDelay) {
+    long min = minBackoff.toMillis();
+    long upper = Math.max(min, Math.multiplyExact(previousDelay.toMillis(), 3));
+    long next = ThreadLocalRandom.current().nextLong(min, upper + 1);
+    return Duration.ofMillis(Math.min(maxBackoff.toMillis(), next));
+  }
+}
@@ -0,0 +1,26 @@
+package com.example.common;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+
+/**
+ * Data of a reservation Saga carried through commands and events, so the choreography steps don't have to look it up
+ * in a read model.
+ * <p>
+ * Fields of this type are annotated with {@code @JsonSetter(nulls = Nulls.AS_EMPTY)}, commands and events written
+ * before the context was introduced are read with the {@link #EMPTY} context, created by the no-args constructor.
+ */
+public record SagaContext(String showId, String walletId, List<Integer> seatNumbers, Money price) {
+
+  public static final SagaContext EMPTY = new SagaContext();
+
+  public SagaContext() {
+    this("", "", List.of(), Money.ZERO);
+  }
+
+  @JsonIgnore
+  public boolean isEmpty() {
+    return showId.isEmpty();
+  }
+}
@@ -3,15 +3,22 @@ package com.example.wallet.application;
 import com.example.cinema.application.Response;
 import com.example.cinema.application.Response.Failure;
 import com.example.cinema.application.Response.Success;
+import com.example.common.Money;
 import com.example.wallet.domain.Wallet;
 import com.example.wallet.domain.WalletCommand;
+import com.example.wallet.domain.WalletCommand.AuthorizeCharge;
+import com.example.wallet.domain.WalletCommand.CaptureCharge;
 import com.example.wallet.domain.WalletCommand.ChargeWallet;
 import com.example.wallet.domain.WalletCommand.DepositFunds;
 import com.example.wallet.domain.WalletCommand.Refund;
+import com.example.wallet.domain.WalletCommand.VoidCharge;
 import com.example.wallet.domain.WalletCommandError;
 import com.example.wallet.domain.WalletEvent;
 import com.example.wallet.domain.WalletEvent.FundsDeposited;
+import com.example.wallet.domain.WalletEvent.WalletChargeAuthorized;
+import com.example.wallet.domain.WalletEvent.WalletChargeCaptured;
 import com.example.wallet.domain.WalletEvent.WalletChargeRejected;
+import com.example.wallet.domain.WalletEvent.WalletChargeVoided;
 import com.example.wallet.domain.WalletEvent.WalletCharged;
 import com.example.wallet.domain.WalletEvent.WalletCreated;
 import com.example.wallet.domain.WalletEvent.WalletRefunded;
@@ -29,7 +36,6 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 
-import java.math.BigDecimal;
 import java.util.function.Function;
 
 import static com.example.wallet.domain.WalletCommandError.EXPENSE_NOT_FOUND;
@@ -52,7 +58,7 @@ public class WalletEntity extends EventSourcedEntity<Wallet, WalletEvent> {
   @PostMapping("/create/{initialBalance}")
   public Effect<Response> create(@PathVariable int initialBalance) {
     String id = commandContext().entityId();
-    WalletCommand.CreateWallet createWallet = new WalletCommand.CreateWallet(id, BigDecimal.valueOf(initialBalance));
+    WalletCommand.CreateWallet createWallet = new WalletCommand.CreateWallet(id, Money.of(initialBalance));
     return currentState().process(createWallet).fold(
       error -> errorEffect(error, createWallet),
       event -> persistEffect(event, "wallet created", createWallet)
@@ -61,7 +67,7 @@ public class WalletEntity extends EventSourcedEntity<Wallet, WalletEvent> {
 
   @PatchMapping("/charge")
   public Effect<Response> charge(@RequestBody ChargeWallet chargeWallet) {
-    if (chargeWallet.expenseId().equals("42") && commandContext().metadata().get("skip-failure-simulation").isEmpty()) {
+    if (simulateFailure(chargeWallet.expenseId())) {
       logger.info("charging failed");
       return effects().error("Unexpected error for expenseId=42", INVALID_ARGUMENT);
     } else {
@@ -78,6 +84,45 @@ public class WalletEntity extends EventSourcedEntity<Wallet, WalletEvent> {
     }
   }
 
+  @PatchMapping("/authorize")
+  public Effect<Response> authorize(@RequestBody AuthorizeCharge authorizeCharge) {
+    if (simulateFailure(authorizeCharge.expenseId())) {
+      logger.info("charge authorization failed");
+      return effects().error("Unexpected error for expenseId=42", INVALID_ARGUMENT);
+    } else {
+      return currentState().process(authorizeCharge).fold(
+        error -> errorEffect(error, authorizeCharge),
+        event -> persistEffect(event, e -> {
+          if (e instanceof WalletChargeRejected) {
+            return Failure.of("wallet charge rejected");
+          } else {
+            return Success.of("wallet charge authorized");
+          }
+        }, authorizeCharge)
+      );
+    }
+  }
+
+  @PatchMapping("/capture")
+  public Effect<Response> capture(@RequestBody CaptureCharge captureCharge) {
+    return currentState().process(captureCharge).fold(
+      error -> errorEffect(error, captureCharge),
+      event -> persistEffect(event, "wallet charge captured", captureCharge)
+    );
+  }
+
+  @PatchMapping("/void")
+  public Effect<Response> voidCharge(@RequestBody VoidCharge voidCharge) {
+    return currentState().process(voidCharge).fold(
+      error -> errorEffect(error, voidCharge),
+      event -> persistEffect(event, "wallet charge voided", voidCharge)
+    );
+  }
+
+  private boolean simulateFailure(String expenseId) {
+    return expenseId.equals("42") && commandContext().metadata().get("skip-failure-simulation").isEmpty();
+  }
+
   @PatchMapping("/refund")
   public Effect<Response> refund(@RequestBody Refund refund) {
     return currentState().process(refund).fold(
@@ -152,6 +197,21 @@ public class WalletEntity extends EventSourcedEntity<Wallet, WalletEvent> {
     return currentState().apply(fundsDeposited);
   }
 
+  @EventHandler
+  public Wallet onEvent(WalletChargeAuthorized walletChargeAuthorized) {
+    return currentState().apply(walletChargeAuthorized);
+  }
+
+  @EventHandler
+  public Wallet onEvent(WalletChargeCaptured walletChargeCaptured) {
+    return currentState().apply(walletChargeCaptured);
+  }
+
+  @EventHandler
+  public Wallet onEvent(WalletChargeVoided walletChargeVoided) {
+    return currentState().apply(walletChargeVoided);
+  }
+
   @EventHandler
   public Wallet onEvent(WalletChargeRejected walletCharged) {
     return currentState().apply(walletCharged);
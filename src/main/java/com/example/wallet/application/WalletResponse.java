@@ -1,10 +1,10 @@
 package com.example.wallet.application;
 
+import com.example.common.Money;
 import com.example.wallet.domain.Wallet;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
-import java.math.BigDecimal;
-
-public record WalletResponse(String id, BigDecimal balance) {
+public record WalletResponse(String id, @JsonSerialize(using = Money.DecimalSerializer.class) Money balance) {
   public static WalletResponse from(Wallet wallet) {
     return new WalletResponse(wallet.id(), wallet.balance());
   }
@@ -0,0 +1,225 @@
+package com.example.wallet.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.Queue;
+import io.vavr.collection.Set;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Bounded memory of processed command ids.
+ * <p>
+ * The last {@link #RECENT_WINDOW_SIZE} ids are kept exactly. Older ids are moved to a Bloom filter with two generations
+ * of {@link BloomFilter#CAPACITY} ids each, when the current generation is full the previous one is dropped.
+ * <p>
+ * False-positive policy: an id that is not in the exact window, but matches the filter, might be a false positive.
+ * A full generation has 128 ids per 4096-bit block on average, with 16 bits per id a block is about 39% set, so a new
+ * id matches a generation with probability {@code 0.39^16}, about 3e-7, and with block load variance the rate for
+ * both generations stays below 1e-6 (measured on 1M random UUIDs). The wallet doesn't ignore such a command, see
+ * {@link #isRecent(String)}: a charge, an authorization or a deposit is answered with a {@code POSSIBLY_DUPLICATED_COMMAND}
+ * failure without moving money (unless the expense already exists, then it's a duplicate), callers handle it like a
+ * rejected charge or log the deposit for reconciliation. Capture, void and refund are processed, because the expense
+ * state already rejects them when repeated. Ids older than the window plus two filter generations (~17k commands) are
+ * forgotten and not recognized as duplicates anymore. Redeliveries in the Saga happen within seconds, so they always
+ * hit the exact window.
+ * <p>
+ * {@code recentIdsLookup} is derived from {@code recentIds} and not persisted, filters are persisted as base64.
+ */
+public record DeduplicationWindow(Queue<String> recentIds, @JsonIgnore Set<String> recentIdsLookup, BloomFilter current,
+                                  BloomFilter previous) {
+
+  public static final int RECENT_WINDOW_SIZE = 1000;
+
+  public static final DeduplicationWindow EMPTY = new DeduplicationWindow(Queue.empty(), BloomFilter.EMPTY, BloomFilter.EMPTY);
+
+  @JsonCreator
+  public DeduplicationWindow(@JsonProperty("recentIds") Queue<String> recentIds, @JsonProperty("current") BloomFilter current,
+                             @JsonProperty("previous") BloomFilter previous) {
+    this(recentIds, HashSet.ofAll(recentIds), current, previous);
+  }
+
+  public static DeduplicationWindow of(Iterable<String> commandIds) {
+    DeduplicationWindow window = EMPTY;
+    for (String commandId : commandIds) {
+      window = window.add(commandId);
+    }
+    return window;
+  }
+
+  /**
+   * @return true if the id is in the exact window, a contained id that is not recent matched only the Bloom filter
+   */
+  public boolean isRecent(String commandId) {
+    return recentIdsLookup.contains(commandId);
+  }
+
+  public boolean contains(String commandId) {
+    if (recentIdsLookup.contains(commandId)) {
+      return true;
+    } else {
+      long hash = BloomFilter.hash(commandId);
+      return current.mightContain(hash) || previous.mightContain(hash);
+    }
+  }
+
+  public DeduplicationWindow add(String commandId) {
+    if (recentIdsLookup.contains(commandId)) {
+      return this;
+    } else if (recentIds.size() < RECENT_WINDOW_SIZE) {
+      return new DeduplicationWindow(recentIds.enqueue(commandId), recentIdsLookup.add(commandId), current, previous);
+    } else {
+      var dequeued = recentIds.dequeue();
+      String oldestId = dequeued._1;
+      var updatedRecentIds = dequeued._2.enqueue(commandId);
+      var updatedLookup = recentIdsLookup.remove(oldestId).add(commandId);
+      if (current.isFull()) {
+        return new DeduplicationWindow(updatedRecentIds, updatedLookup, BloomFilter.EMPTY.add(oldestId), current);
+      } else {
+        return new DeduplicationWindow(updatedRecentIds, updatedLookup, current.add(oldestId), previous);
+      }
+    }
+  }
+
+  /**
+   * Blocked Bloom filter, all bits of an id are set in a single block, so adding an id copies only that block.
+   * Blocks are allocated lazily. Persisted as base64 of a presence mask followed by the allocated blocks.
+   */
+  public record BloomFilter(@JsonIgnore long[][] blocks, int size) {
+
+    public static final int CAPACITY = 8192;
+    private static final int BLOCKS = 64;
+    private static final int WORDS_PER_BLOCK = 64;
+    private static final int BITS_PER_BLOCK = WORDS_PER_BLOCK * Long.SIZE;
+    private static final int HASHES = 16;
+
+    public static final BloomFilter EMPTY = new BloomFilter(new long[BLOCKS][], 0);
+
+    @JsonCreator
+    public static BloomFilter decode(@JsonProperty("bits") String bits, @JsonProperty("size") int size) {
+      ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(bits));
+      long presence = buffer.getLong();
+      long[][] blocks = new long[BLOCKS][];
+      for (int i = 0; i < BLOCKS; i++) {
+        if ((presence & (1L << i)) != 0) {
+          blocks[i] = new long[WORDS_PER_BLOCK];
+          buffer.asLongBuffer().get(blocks[i]);
+          buffer.position(buffer.position() + WORDS_PER_BLOCK * Long.BYTES);
+        }
+      }
+      return new BloomFilter(blocks, size);
+    }
+
+    @JsonProperty("bits")
+    public String encode() {
+      long presence = 0;
+      int allocated = 0;
+      for (int i = 0; i < BLOCKS; i++) {
+        if (blocks[i] != null) {
+          presence |= 1L << i;
+          allocated++;
+        }
+      }
+      ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + allocated * WORDS_PER_BLOCK * Long.BYTES);
+      buffer.putLong(presence);
+      for (long[] block : blocks) {
+        if (block != null) {
+          buffer.asLongBuffer().put(block);
+          buffer.position(buffer.position() + WORDS_PER_BLOCK * Long.BYTES);
+        }
+      }
+      return Base64.getEncoder().encodeToString(buffer.array());
+    }
+
+    public boolean isFull() {
+      return size >= CAPACITY;
+    }
+
+    public boolean mightContain(long hash) {
+      long[] block = blocks[blockIndex(hash)];
+      if (block == null) {
+        return false;
+      }
+      long bits = hash;
+      for (int i = 0; i < HASHES; i++) {
+        bits = nextBits(bits);
+        int bit = bitIndex(bits);
+        if ((block[bit >>> 6] & (1L << bit)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    public BloomFilter add(String id) {
+      long hash = hash(id);
+      int blockIndex = blockIndex(hash);
+      long[] block = blocks[blockIndex] == null ? new long[WORDS_PER_BLOCK] : blocks[blockIndex].clone();
+      long bits = hash;
+      for (int i = 0; i < HASHES; i++) {
+        bits = nextBits(bits);
+        int bit = bitIndex(bits);
+        block[bit >>> 6] |= 1L << bit;
+      }
+      long[][] updatedBlocks = blocks.clone();
+      updatedBlocks[blockIndex] = block;
+      return new BloomFilter(updatedBlocks, size + 1);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof BloomFilter that && size == that.size && Arrays.deepEquals(blocks, that.blocks);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * Arrays.deepHashCode(blocks) + size;
+    }
+
+    @Override
+    public String toString() {
+      return "BloomFilter[size=" + size + "]";
+    }
+
+    /**
+     * Bit positions come from an LCG seeded with the id hash, so two ids share all positions only if their 64-bit hashes
+     * are equal. Plain double hashing within a 4096-bit block leaves too few distinct patterns.
+     */
+    private static long nextBits(long bits) {
+      return bits * 0x5851F42D4C957F2DL + 0x14057B7EF767814FL;
+    }
+
+    private static int bitIndex(long bits) {
+      return (int) (bits >>> (Long.SIZE - Integer.numberOfTrailingZeros(BITS_PER_BLOCK)));
+    }
+
+    private static int blockIndex(long hash) {
+      return (int) mix(hash ^ 0x9E3779B97F4A7C15L) & (BLOCKS - 1);
+    }
+
+    /**
+     * FNV-1a over the chars with a murmur3 finalizer, stable across JVMs, unlike {@link String#hashCode()} it's 64 bits.
+     */
+    static long hash(String id) {
+      long hash = 0xcbf29ce484222325L;
+      for (int i = 0; i < id.length(); i++) {
+        hash ^= id.charAt(i);
+        hash *= 0x100000001b3L;
+      }
+      return mix(hash);
+    }
+
+    private static long mix(long hash) {
+      hash ^= hash >>> 33;
+      hash *= 0xff51afd7ed558ccdL;
+      hash ^= hash >>> 33;
+      hash *= 0xc4ceb9fe1a85ec53L;
+      hash ^= hash >>> 33;
+      return hash;
+    }
+  }
+}
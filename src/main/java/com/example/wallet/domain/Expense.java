@@ -1,6 +1,6 @@
 package com.example.wallet.domain;
 
-import java.math.BigDecimal;
+import com.example.common.Money;
 
-public record Expense(String expenseId, BigDecimal amount) {
+public record Expense(String expenseId, Money amount) {
 }
@@ -1,61 +1,101 @@
 package com.example.wallet.domain;
 
+import com.example.common.Money;
+import com.example.wallet.domain.WalletCommand.AuthorizeCharge;
+import com.example.wallet.domain.WalletCommand.CaptureCharge;
 import com.example.wallet.domain.WalletCommand.ChargeWallet;
 import com.example.wallet.domain.WalletCommand.CreateWallet;
 import com.example.wallet.domain.WalletCommand.DepositFunds;
 import com.example.wallet.domain.WalletCommand.Refund;
+import com.example.wallet.domain.WalletCommand.VoidCharge;
 import com.example.wallet.domain.WalletEvent.FundsDeposited;
+import com.example.wallet.domain.WalletEvent.WalletChargeAuthorized;
+import com.example.wallet.domain.WalletEvent.WalletChargeCaptured;
 import com.example.wallet.domain.WalletEvent.WalletChargeRejected;
+import com.example.wallet.domain.WalletEvent.WalletChargeVoided;
 import com.example.wallet.domain.WalletEvent.WalletCharged;
 import com.example.wallet.domain.WalletEvent.WalletCreated;
 import com.example.wallet.domain.WalletEvent.WalletRefunded;
 import io.vavr.collection.HashMap;
-import io.vavr.collection.HashSet;
 import io.vavr.collection.Map;
-import io.vavr.collection.Set;
 import io.vavr.control.Either;
+import io.vavr.control.Option;
+import kalix.javasdk.annotations.Migration;
 
-import java.math.BigDecimal;
 import java.util.function.Supplier;
 
+import static com.example.wallet.domain.WalletCommandError.AUTHORIZATION_NOT_FOUND;
 import static com.example.wallet.domain.WalletCommandError.DEPOSIT_LE_ZERO;
 import static com.example.wallet.domain.WalletCommandError.DUPLICATED_COMMAND;
 import static com.example.wallet.domain.WalletCommandError.EXPENSE_NOT_FOUND;
+import static com.example.wallet.domain.WalletCommandError.POSSIBLY_DUPLICATED_COMMAND;
 import static com.example.wallet.domain.WalletCommandError.WALLET_ALREADY_EXISTS;
 import static com.example.wallet.domain.WalletCommandError.WALLET_NOT_FOUND;
 import static io.vavr.control.Either.left;
 import static io.vavr.control.Either.right;
 
-public record Wallet(String id, BigDecimal balance, Map<String, Expense> expenses, Set<String> commandIds) {
+/**
+ * @param balance available funds, authorized amounts are already subtracted
+ * @param holds   authorized, not yet captured or voided charges
+ */
+@Migration(WalletMigration.class)
+public record Wallet(String id, Money balance, Map<String, Expense> expenses, Map<String, Expense> holds,
+                     DeduplicationWindow commandIds) {
 
-  public Wallet(String id, BigDecimal balance) {
-    this(id, balance, HashMap.empty(), HashSet.empty());
+  public Wallet(String id, Money balance) {
+    this(id, balance, HashMap.empty(), HashMap.empty(), DeduplicationWindow.EMPTY);
   }
 
   public static final String EMPTY_WALLET_ID = "";
-  public static Wallet EMPTY_WALLET = new Wallet(EMPTY_WALLET_ID, BigDecimal.ZERO, HashMap.empty(), HashSet.empty());
+  public static Wallet EMPTY_WALLET = new Wallet(EMPTY_WALLET_ID, Money.ZERO, HashMap.empty(), HashMap.empty(), DeduplicationWindow.EMPTY);
 
   public Either<WalletCommandError, WalletEvent> process(WalletCommand command) {
-    if (isDuplicate(command)) {
-      return Either.left(DUPLICATED_COMMAND);
+    Option<WalletCommandError> duplicate = checkDuplicate(command);
+    if (duplicate.isDefined()) {
+      return Either.left(duplicate.get());
     } else {
       return switch (command) {
         case CreateWallet create -> handleCreate(create);
         case ChargeWallet charge -> ifExists(() -> handleCharge(charge));
         case Refund refund -> ifExists(() -> handleRefund(refund));
+        case AuthorizeCharge authorize -> ifExists(() -> handleAuthorize(authorize));
+        case CaptureCharge capture -> ifExists(() -> handleCapture(capture));
+        case VoidCharge voidCharge -> ifExists(() -> handleVoid(voidCharge));
         case DepositFunds depositFunds -> ifExists(() -> handleDeposit(depositFunds));
       };
     }
   }
 
-  private boolean isDuplicate(WalletCommand command) {
-    if (command instanceof WalletCommand.RequiresDeduplicationCommand c) {
-      return commandIds.contains(c.commandId());
+  /**
+   * An id from the exact window is a duplicate. An id matched only by the Bloom filter might be a false positive:
+   * <ul>
+   *   <li>capture, void and refund are processed, the expense state rejects them if they were already applied,</li>
+   *   <li>a charge or an authorization is a duplicate if its expense or hold exists, otherwise it's rejected with
+   *   {@link WalletCommandError#POSSIBLY_DUPLICATED_COMMAND} and nothing is charged,</li>
+   *   <li>a deposit is rejected with {@link WalletCommandError#POSSIBLY_DUPLICATED_COMMAND}, nothing is deposited.</li>
+   * </ul>
+   */
+  private Option<WalletCommandError> checkDuplicate(WalletCommand command) {
+    if (!(command instanceof WalletCommand.RequiresDeduplicationCommand c) || !commandIds.contains(c.commandId())) {
+      return Option.none();
+    } else if (commandIds.isRecent(c.commandId())) {
+      return Option.some(DUPLICATED_COMMAND);
     } else {
-      return false;
+      return switch (c) {
+        case ChargeWallet charge -> Option.some(isKnownExpense(charge.expenseId()) ? DUPLICATED_COMMAND : POSSIBLY_DUPLICATED_COMMAND);
+        case AuthorizeCharge authorize -> Option.some(isKnownExpense(authorize.expenseId()) ? DUPLICATED_COMMAND : POSSIBLY_DUPLICATED_COMMAND);
+        case DepositFunds __ -> Option.some(POSSIBLY_DUPLICATED_COMMAND);
+        case Refund __ -> Option.none();
+        case CaptureCharge __ -> Option.none();
+        case VoidCharge __ -> Option.none();
+      };
     }
   }
 
+  private boolean isKnownExpense(String expenseId) {
+    return expenses.containsKey(expenseId) || holds.containsKey(expenseId);
+  }
+
   private Either<WalletCommandError, WalletEvent> ifExists(Supplier<Either<WalletCommandError, WalletEvent>> processingResultSupplier) {
     if (isEmpty()) {
       return left(WALLET_NOT_FOUND);
@@ -73,7 +113,7 @@ public record Wallet(String id, BigDecimal balance, Map<String, Expense> expense
   }
 
   private Either<WalletCommandError, WalletEvent> handleDeposit(DepositFunds depositFunds) {
-    if (depositFunds.amount().compareTo(BigDecimal.ZERO) <= 0) {
+    if (!depositFunds.amount().isPositive()) {
       return left(DEPOSIT_LE_ZERO);
     } else {
       return right(new FundsDeposited(id, depositFunds.amount(), depositFunds.commandId()));
@@ -81,10 +121,10 @@ public record Wallet(String id, BigDecimal balance, Map<String, Expense> expense
   }
 
   private Either<WalletCommandError, WalletEvent> handleCharge(ChargeWallet charge) {
-    if (balance.compareTo(charge.amount()) < 0) {
-      return right(new WalletChargeRejected(id, charge.expenseId(), charge.commandId()));
+    if (balance.isLessThan(charge.amount())) {
+      return right(new WalletChargeRejected(id, charge.expenseId(), charge.commandId(), charge.sagaContext()));
     } else {
-      return right(new WalletCharged(id, charge.amount(), charge.expenseId(), charge.commandId()));
+      return right(new WalletCharged(id, charge.amount(), charge.expenseId(), charge.commandId(), charge.sagaContext()));
     }
   }
 
@@ -95,16 +135,49 @@ public record Wallet(String id, BigDecimal balance, Map<String, Expense> expense
     );
   }
 
+  private Either<WalletCommandError, WalletEvent> handleAuthorize(AuthorizeCharge authorize) {
+    if (balance.isLessThan(authorize.amount())) {
+      return right(new WalletChargeRejected(id, authorize.expenseId(), authorize.commandId(), authorize.sagaContext()));
+    } else {
+      return right(new WalletChargeAuthorized(id, authorize.amount(), authorize.expenseId(), authorize.commandId(), authorize.sagaContext()));
+    }
+  }
+
+  private Either<WalletCommandError, WalletEvent> handleCapture(CaptureCharge capture) {
+    return holds.get(capture.expenseId()).fold(
+      //already captured with a different command id, or charged without authorization
+      () -> left(expenses.containsKey(capture.expenseId()) ? DUPLICATED_COMMAND : AUTHORIZATION_NOT_FOUND),
+      hold -> right(new WalletChargeCaptured(id, hold.amount(), hold.expenseId(), capture.commandId()))
+    );
+  }
+
+  private Either<WalletCommandError, WalletEvent> handleVoid(VoidCharge voidCharge) {
+    return holds.get(voidCharge.expenseId()).fold(
+      () -> left(AUTHORIZATION_NOT_FOUND),
+      hold -> right(new WalletChargeVoided(id, hold.amount(), hold.expenseId(), voidCharge.commandId()))
+    );
+  }
+
   public Wallet apply(WalletEvent event) {
     return switch (event) {
-      case WalletCreated walletCreated -> new Wallet(walletCreated.walletId(), walletCreated.initialAmount(), expenses, commandIds);
+      case WalletCreated walletCreated -> new Wallet(walletCreated.walletId(), walletCreated.initialAmount(), expenses, holds, commandIds);
       case WalletCharged charged -> {
         Expense expense = new Expense(charged.expenseId(), charged.amount());
-        yield new Wallet(id, balance.subtract(charged.amount()), expenses.put(expense.expenseId(), expense), commandIds.add(charged.commandId()));
+        yield new Wallet(id, balance.minus(charged.amount()), expenses.put(expense.expenseId(), expense), holds, commandIds.add(charged.commandId()));
       }
       case WalletRefunded refunded ->
-        new Wallet(id, balance.add(refunded.amount()), expenses.remove(refunded.expenseId()), commandIds.add(refunded.commandId()));
-      case FundsDeposited deposited -> new Wallet(id, balance.add(deposited.amount()), expenses, commandIds.add(deposited.commandId()));
+        new Wallet(id, balance.plus(refunded.amount()), expenses.remove(refunded.expenseId()), holds, commandIds.add(refunded.commandId()));
+      case FundsDeposited deposited -> new Wallet(id, balance.plus(deposited.amount()), expenses, holds, commandIds.add(deposited.commandId()));
+      case WalletChargeAuthorized authorized -> {
+        Expense hold = new Expense(authorized.expenseId(), authorized.amount());
+        yield new Wallet(id, balance.minus(authorized.amount()), expenses, holds.put(hold.expenseId(), hold), commandIds.add(authorized.commandId()));
+      }
+      case WalletChargeCaptured captured -> {
+        Expense expense = new Expense(captured.expenseId(), captured.amount());
+        yield new Wallet(id, balance, expenses.put(expense.expenseId(), expense), holds.remove(captured.expenseId()), commandIds.add(captured.commandId()));
+      }
+      case WalletChargeVoided voided ->
+        new Wallet(id, balance.plus(voided.amount()), expenses, holds.remove(voided.expenseId()), commandIds.add(voided.commandId()));
       case WalletChargeRejected __ -> this;
     };
   }
@@ -1,6 +1,9 @@
 package com.example.wallet.domain;
 
-import java.math.BigDecimal;
+import com.example.common.Money;
+import com.example.common.SagaContext;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
 
 public sealed interface WalletCommand {
 
@@ -8,15 +11,39 @@ public sealed interface WalletCommand {
     String commandId();
   }
 
-  record CreateWallet(String walletId, BigDecimal initialAmount) implements WalletCommand {
+  record CreateWallet(String walletId, Money initialAmount) implements WalletCommand {
   }
 
-  record ChargeWallet(BigDecimal amount, String expenseId, String commandId) implements RequiresDeduplicationCommand {
+  record ChargeWallet(Money amount, String expenseId, String commandId,
+                      @JsonSetter(nulls = Nulls.AS_EMPTY) SagaContext sagaContext) implements RequiresDeduplicationCommand {
+
+    public ChargeWallet(Money amount, String expenseId, String commandId) {
+      this(amount, expenseId, commandId, SagaContext.EMPTY);
+    }
   }
 
   record Refund(String expenseId, String commandId) implements RequiresDeduplicationCommand {
   }
 
-  record DepositFunds(BigDecimal amount, String commandId) implements RequiresDeduplicationCommand {
+  /**
+   * Holds the amount on the wallet, funds are taken with {@link CaptureCharge} or released with {@link VoidCharge}.
+   *
+   * @param sagaContext not used by the wallet, passed to the resulting event
+   */
+  record AuthorizeCharge(Money amount, String expenseId, String commandId,
+                         @JsonSetter(nulls = Nulls.AS_EMPTY) SagaContext sagaContext) implements RequiresDeduplicationCommand {
+
+    public AuthorizeCharge(Money amount, String expenseId, String commandId) {
+      this(amount, expenseId, commandId, SagaContext.EMPTY);
+    }
+  }
+
+  record CaptureCharge(String expenseId, String commandId) implements RequiresDeduplicationCommand {
+  }
+
+  record VoidCharge(String expenseId, String commandId) implements RequiresDeduplicationCommand {
+  }
+
+  record DepositFunds(Money amount, String commandId) implements RequiresDeduplicationCommand {
   }
 }
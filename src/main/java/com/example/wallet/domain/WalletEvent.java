@@ -1,28 +1,57 @@
 package com.example.wallet.domain;
 
+import com.example.common.Money;
+import com.example.common.SagaContext;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
 import kalix.javasdk.annotations.TypeName;
 
-import java.math.BigDecimal;
-
 public sealed interface WalletEvent {
 
   @TypeName("wallet-created")
-  record WalletCreated(String walletId, BigDecimal initialAmount) implements WalletEvent {
+  record WalletCreated(String walletId, Money initialAmount) implements WalletEvent {
   }
 
   @TypeName("wallet-charged")
-  record WalletCharged(String walletId, BigDecimal amount, String expenseId, String commandId) implements WalletEvent {
+  record WalletCharged(String walletId, Money amount, String expenseId, String commandId,
+                       @JsonSetter(nulls = Nulls.AS_EMPTY) SagaContext sagaContext) implements WalletEvent {
+
+    public WalletCharged(String walletId, Money amount, String expenseId, String commandId) {
+      this(walletId, amount, expenseId, commandId, SagaContext.EMPTY);
+    }
   }
 
   @TypeName("wallet-refunded")
-  record WalletRefunded(String walletId, BigDecimal amount, String expenseId, String commandId) implements WalletEvent {
+  record WalletRefunded(String walletId, Money amount, String expenseId, String commandId) implements WalletEvent {
   }
 
   @TypeName("funds-deposited")
-  record FundsDeposited(String walletId, BigDecimal amount, String commandId) implements WalletEvent {
+  record FundsDeposited(String walletId, Money amount, String commandId) implements WalletEvent {
+  }
+
+  @TypeName("wallet-charge-authorized")
+  record WalletChargeAuthorized(String walletId, Money amount, String expenseId, String commandId,
+                                @JsonSetter(nulls = Nulls.AS_EMPTY) SagaContext sagaContext) implements WalletEvent {
+
+    public WalletChargeAuthorized(String walletId, Money amount, String expenseId, String commandId) {
+      this(walletId, amount, expenseId, commandId, SagaContext.EMPTY);
+    }
+  }
+
+  @TypeName("wallet-charge-captured")
+  record WalletChargeCaptured(String walletId, Money amount, String expenseId, String commandId) implements WalletEvent {
+  }
+
+  @TypeName("wallet-charge-voided")
+  record WalletChargeVoided(String walletId, Money amount, String expenseId, String commandId) implements WalletEvent {
   }
 
   @TypeName("wallet-charge-rejected")
-  record WalletChargeRejected(String walletId, String expenseId, String commandId) implements WalletEvent {
+  record WalletChargeRejected(String walletId, String expenseId, String commandId,
+                              @JsonSetter(nulls = Nulls.AS_EMPTY) SagaContext sagaContext) implements WalletEvent {
+
+    public WalletChargeRejected(String walletId, String expenseId, String commandId) {
+      this(walletId, expenseId, commandId, SagaContext.EMPTY);
+    }
   }
 }
@@ -0,0 +1,46 @@
+package com.example.wallet.domain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import kalix.javasdk.JsonMigration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Snapshots taken before charges could be authorized don't have {@link Wallet#holds()}. Snapshots taken before the
+ * {@link DeduplicationWindow} keep all command ids in an array, they are moved to a window, the set had no order, so
+ * ids that end up in the Bloom filter instead of the exact window are arbitrary.
+ */
+public class WalletMigration extends JsonMigration {
+
+  @Override
+  public int currentVersion() {
+    return 2;
+  }
+
+  @Override
+  public JsonNode transform(int fromVersion, JsonNode json) {
+    if (fromVersion < 1 && json instanceof ObjectNode wallet && !wallet.has("holds")) {
+      wallet.putObject("holds");
+    }
+    if (fromVersion < 2 && json instanceof ObjectNode wallet && wallet.get("commandIds") instanceof ArrayNode commandIds) {
+      List<String> ids = new ArrayList<>();
+      commandIds.forEach(id -> ids.add(id.asText()));
+      DeduplicationWindow window = DeduplicationWindow.of(ids);
+      ObjectNode windowNode = wallet.putObject("commandIds");
+      ArrayNode recentIds = windowNode.putArray("recentIds");
+      window.recentIds().forEach(recentIds::add);
+      putFilter(windowNode, "current", window.current());
+      putFilter(windowNode, "previous", window.previous());
+    }
+    return json;
+  }
+
+  private static void putFilter(ObjectNode window, String field, DeduplicationWindow.BloomFilter filter) {
+    window.putObject(field)
+      .put("bits", filter.encode())
+      .put("size", filter.size());
+  }
+}
@@ -0,0 +1,91 @@
+package com.example.cinema.application;
+
+import com.example.cinema.domain.ShowCommand.ReserveSeat;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.cinema.domain.DomainGenerators.randomReservationId;
+import static com.example.cinema.domain.DomainGenerators.randomShowId;
+import static com.example.cinema.domain.DomainGenerators.randomWalletId;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReservationBatcherTest {
+
+  private final List<List<ReserveSeat>> submittedBatches = new CopyOnWriteArrayList<>();
+
+  @Test
+  public void shouldSubmitFullBatchWithoutWaiting() throws Exception {
+    //given
+    var batcher = new ReservationBatcher(Duration.ofMinutes(1), 2);
+    var showId = randomShowId();
+
+    //when
+    var first = batcher.submit(showId, reserveSeat(1), this::replyWithSeatNumbers).toCompletableFuture();
+    var second = batcher.submit(showId, reserveSeat(2), this::replyWithSeatNumbers).toCompletableFuture();
+
+    //then
+    assertThat(first.get(1, TimeUnit.SECONDS)).isEqualTo(Response.Success.of("1"));
+    assertThat(second.get(1, TimeUnit.SECONDS)).isEqualTo(Response.Success.of("2"));
+    assertThat(submittedBatches).hasSize(1);
+  }
+
+  @Test
+  public void shouldSubmitBatchAfterWindow() throws Exception {
+    //given
+    var batcher = new ReservationBatcher(Duration.ofMillis(20), 100);
+    var showId = randomShowId();
+    var otherShowId = randomShowId();
+
+    //when
+    var first = batcher.submit(showId, reserveSeat(1), this::replyWithSeatNumbers).toCompletableFuture();
+    var second = batcher.submit(showId, reserveSeat(2), this::replyWithSeatNumbers).toCompletableFuture();
+    var otherShow = batcher.submit(otherShowId, reserveSeat(3), this::replyWithSeatNumbers).toCompletableFuture();
+
+    //then
+    assertThat(first.get(1, TimeUnit.SECONDS)).isEqualTo(Response.Success.of("1"));
+    assertThat(second.get(1, TimeUnit.SECONDS)).isEqualTo(Response.Success.of("2"));
+    assertThat(otherShow.get(1, TimeUnit.SECONDS)).isEqualTo(Response.Success.of("3"));
+    assertThat(submittedBatches).hasSize(2);
+  }
+
+  @Test
+  public void shouldFailAllPendingReservationsIfBatchCantBeSubmittedOrAnswered() {
+    //given
+    var batcher = new ReservationBatcher(Duration.ofMinutes(1), 2);
+    var showId = randomShowId();
+    var otherShowId = randomShowId();
+
+    //when
+    var first = batcher.submit(showId, reserveSeat(1), this::failToSubmit).toCompletableFuture();
+    var second = batcher.submit(showId, reserveSeat(2), this::failToSubmit).toCompletableFuture();
+    var third = batcher.submit(otherShowId, reserveSeat(3), this::replyWithTooFewResponses).toCompletableFuture();
+    var fourth = batcher.submit(otherShowId, reserveSeat(4), this::replyWithTooFewResponses).toCompletableFuture();
+
+    //then
+    assertThat(List.of(first, second, third, fourth)).allMatch(CompletableFuture::isCompletedExceptionally);
+  }
+
+  private CompletableFuture<List<Response>> failToSubmit(List<ReserveSeat> batch) {
+    throw new IllegalArgumentException("can't build the call");
+  }
+
+  private CompletableFuture<List<Response>> replyWithTooFewResponses(List<ReserveSeat> batch) {
+    return CompletableFuture.completedFuture(List.of(Response.Success.of("1")));
+  }
+
+  private CompletableFuture<List<Response>> replyWithSeatNumbers(List<ReserveSeat> batch) {
+    submittedBatches.add(batch);
+    return CompletableFuture.completedFuture(batch.stream()
+      .map(reserveSeat -> (Response) Response.Success.of(String.valueOf(reserveSeat.seatNumber())))
+      .toList());
+  }
+
+  private ReserveSeat reserveSeat(int seatNumber) {
+    return new ReserveSeat(randomWalletId(), randomReservationId(), seatNumber);
+  }
+}
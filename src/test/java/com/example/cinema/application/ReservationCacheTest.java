@@ -0,0 +1,65 @@
+package com.example.cinema.application;
+
+import com.example.cinema.domain.Reservation;
+import com.example.common.Money;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.cinema.domain.DomainGenerators.randomReservationId;
+import static com.example.cinema.domain.DomainGenerators.randomShowId;
+import static com.example.cinema.domain.DomainGenerators.randomWalletId;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReservationCacheTest {
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @Test
+  public void shouldServeWarmedReservationWithoutLoading() throws Exception {
+    //given
+    var cache = new ReservationCache(100, Duration.ofMinutes(1));
+    var reservation = randomReservation();
+    cache.put(reservation);
+
+    //when
+    var result = cache.get(reservation.reservationId(), () -> load(reservation)).toCompletableFuture().get(1, TimeUnit.SECONDS);
+
+    //then
+    assertThat(result).isEqualTo(reservation);
+    assertThat(loads).hasValue(0);
+    assertThat(cache.stats().hitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldLoadOnceAfterMissAndAfterInvalidation() throws Exception {
+    //given
+    var cache = new ReservationCache(100, Duration.ofMinutes(1));
+    var reservation = randomReservation();
+    String reservationId = reservation.reservationId();
+
+    //when
+    cache.get(reservationId, () -> load(reservation)).toCompletableFuture().get(1, TimeUnit.SECONDS);
+    cache.get(reservationId, () -> load(reservation)).toCompletableFuture().get(1, TimeUnit.SECONDS);
+    cache.invalidate(reservationId);
+    cache.get(reservationId, () -> load(reservation)).toCompletableFuture().get(1, TimeUnit.SECONDS);
+
+    //then
+    assertThat(loads).hasValue(2);
+    var stats = cache.stats();
+    assertThat(stats.missCount()).isEqualTo(2);
+    assertThat(stats.hitCount()).isEqualTo(1);
+  }
+
+  private CompletableFuture<Reservation> load(Reservation reservation) {
+    loads.incrementAndGet();
+    return CompletableFuture.completedFuture(reservation);
+  }
+
+  private Reservation randomReservation() {
+    return new Reservation(randomReservationId(), randomShowId(), randomWalletId(), Money.of(100));
+  }
+}
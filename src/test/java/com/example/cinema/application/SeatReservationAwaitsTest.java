@@ -0,0 +1,70 @@
+package com.example.cinema.application;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.cinema.domain.DomainGenerators.randomReservationId;
+import static com.example.cinema.domain.SeatReservationStatus.COMPLETED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testcontainers.shaded.org.awaitility.Awaitility.await;
+
+class SeatReservationAwaitsTest {
+
+  private final String reservationId = randomReservationId();
+  private final AtomicInteger reads = new AtomicInteger();
+
+  @Test
+  public void shouldReplyAllClientsWithTerminalStatusFromSharedReads() throws Exception {
+    //given
+    var awaits = new SeatReservationAwaits(Duration.ofSeconds(5), Duration.ofMillis(10), Duration.ofMillis(10));
+
+    //when
+    var first = awaits.await(reservationId, () -> readStatus(3)).toCompletableFuture();
+    var second = awaits.await(reservationId, () -> readStatus(3)).toCompletableFuture();
+
+    //then
+    assertThat(first.get(1, TimeUnit.SECONDS)).isEqualTo("SEAT_RESERVATION_REFUNDED");
+    assertThat(second.get(1, TimeUnit.SECONDS)).isEqualTo("SEAT_RESERVATION_REFUNDED");
+    assertThat(reads).hasValue(3);
+    await().atMost(1, TimeUnit.SECONDS).untilAsserted(() -> assertThat(awaits.stats().reservations()).isZero());
+  }
+
+  @Test
+  public void shouldReadRightAwayWhenReservationEndsOnNodeOrReplyLastStatusAfterTimeout() throws Exception {
+    //given
+    var awaits = new SeatReservationAwaits(Duration.ofMillis(500), Duration.ofMillis(10), Duration.ofHours(1));
+    var otherReservationId = randomReservationId();
+    var persisted = new AtomicBoolean();
+    var notified = awaits.await(reservationId, () -> persisted.get()
+      ? CompletableFuture.completedFuture(COMPLETED.name())
+      : readStatus(Integer.MAX_VALUE)).toCompletableFuture();
+    var timedOut = awaits.await(otherReservationId, () -> readStatus(Integer.MAX_VALUE)).toCompletableFuture();
+    await().atMost(1, TimeUnit.SECONDS).until(() -> reads.get() >= 8);
+
+    //when
+    awaits.ended(reservationId);
+    persisted.set(true);
+    awaits.ended(reservationId);
+
+    //then
+    assertThat(notified.get(100, TimeUnit.MILLISECONDS)).isEqualTo("COMPLETED");
+    assertThat(timedOut.get(1, TimeUnit.SECONDS)).isEqualTo("WALLET_CHARGE_AUTHORIZED");
+    await().atMost(1, TimeUnit.SECONDS).untilAsserted(() -> assertThat(awaits.stats().timedOut()).isEqualTo(1));
+  }
+
+  //not terminal statuses until the given read
+  private CompletionStage<String> readStatus(int terminalRead) {
+    int read = reads.incrementAndGet();
+    if (read >= terminalRead) {
+      return CompletableFuture.completedFuture("SEAT_RESERVATION_REFUNDED");
+    } else {
+      return CompletableFuture.completedFuture(read == 1 ? "SEAT_RESERVED" : "WALLET_CHARGE_AUTHORIZED");
+    }
+  }
+}
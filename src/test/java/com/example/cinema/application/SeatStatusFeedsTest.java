@@ -0,0 +1,109 @@
+package com.example.cinema.application;
+
+import com.example.cinema.application.SeatStatusFeeds.SeatStatusUpdate;
+import com.example.cinema.domain.SeatStatus;
+import com.example.common.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.cinema.domain.DomainGenerators.randomShowId;
+import static com.example.cinema.domain.SeatStatus.AVAILABLE;
+import static com.example.cinema.domain.SeatStatus.PAID;
+import static com.example.cinema.domain.SeatStatus.RESERVED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testcontainers.shaded.org.awaitility.Awaitility.await;
+
+class SeatStatusFeedsTest {
+
+  private final String showId = randomShowId();
+  private final AtomicInteger reads = new AtomicInteger();
+  private final Money price = Money.of(100);
+
+  @Test
+  public void shouldReadChangesOnceForAllClientsOfShow() throws Exception {
+    //given
+    var feeds = new SeatStatusFeeds(Duration.ofHours(1), 10);
+
+    var bothWatching = new CompletableFuture<Void>();
+
+    //when
+    var first = feeds.watch(showId, since -> bothWatching.thenCompose(__ -> readChanges(since))).take(1).collectList().toFuture();
+    var second = feeds.watch(showId, since -> bothWatching.thenCompose(__ -> readChanges(since))).take(1).collectList().toFuture();
+    bothWatching.complete(null);
+
+    //then
+    var snapshot = new SeatStatusUpdate(showId, 0, true, List.of(seat(0, AVAILABLE), seat(1, AVAILABLE), seat(2, AVAILABLE)));
+    assertThat(first.get(1, TimeUnit.SECONDS)).containsExactly(snapshot);
+    assertThat(second.get(1, TimeUnit.SECONDS)).containsExactly(snapshot);
+    assertThat(reads).hasValue(1);
+    await().atMost(1, TimeUnit.SECONDS).untilAsserted(() -> assertThat(feeds.stats().shows()).isZero());
+  }
+
+  @Test
+  public void shouldSendChangesOfTickAndCurrentSeatsToNewClient() throws Exception {
+    //given
+    var feeds = new SeatStatusFeeds(Duration.ofMillis(10), 10);
+    var firstUpdates = new CopyOnWriteArrayList<SeatStatusUpdate>();
+    var first = feeds.watch(showId, this::readChanges).subscribe(firstUpdates::add);
+    await().atMost(1, TimeUnit.SECONDS).until(() -> firstUpdates.size() == 2);
+
+    //when
+    var second = feeds.watch(showId, this::readChanges).take(1).collectList().toFuture();
+
+    //then
+    assertThat(firstUpdates.get(1)).isEqualTo(new SeatStatusUpdate(showId, 2, false, List.of(seat(1, RESERVED), seat(2, PAID))));
+    assertThat(second.get(1, TimeUnit.SECONDS)).containsExactly(
+      new SeatStatusUpdate(showId, 2, true, List.of(seat(0, AVAILABLE), seat(1, RESERVED), seat(2, PAID))));
+    assertThat(feeds.stats().clients()).isEqualTo(1);
+    first.dispose();
+    assertThat(firstUpdates).hasSize(2);
+  }
+
+  @Test
+  public void shouldEndStreamIfShowDoesNotExistAndBackOffOnOtherFailures() throws Exception {
+    //given
+    var feeds = new SeatStatusFeeds(Duration.ofMillis(10), 10);
+    var notFound = WebClientResponseException.create(404, "Not Found", null, null, null);
+
+    //when
+    var missingShow = feeds.watch(showId, since -> CompletableFuture.failedFuture(notFound)).collectList().toFuture();
+    var failingShow = feeds.watch(randomShowId(), since -> {
+      reads.incrementAndGet();
+      return CompletableFuture.failedFuture(new IllegalStateException("show unavailable"));
+    }).subscribe();
+    Thread.sleep(200);
+    failingShow.dispose();
+
+    //then
+    assertThat(missingShow).failsWithin(1, TimeUnit.SECONDS)
+      .withThrowableOfType(ExecutionException.class)
+      .withCauseInstanceOf(WebClientResponseException.NotFound.class);
+    //reads after 1, 2, 4 and 8 skipped ticks of 10ms
+    assertThat(reads.get()).isBetween(3, 6);
+  }
+
+  //all seats first, then two changes, then nothing
+  private CompletionStage<SeatChangesResponse> readChanges(long since) {
+    reads.incrementAndGet();
+    if (since < 0) {
+      return CompletableFuture.completedFuture(new SeatChangesResponse(showId, 0, true, List.of(seat(0, AVAILABLE), seat(1, AVAILABLE), seat(2, AVAILABLE))));
+    } else if (since == 0) {
+      return CompletableFuture.completedFuture(new SeatChangesResponse(showId, 2, false, List.of(seat(1, RESERVED), seat(2, PAID))));
+    } else {
+      return CompletableFuture.completedFuture(new SeatChangesResponse(showId, 2, false, List.of()));
+    }
+  }
+
+  private SeatResponse seat(int number, SeatStatus status) {
+    return new SeatResponse(number, status, price);
+  }
+}
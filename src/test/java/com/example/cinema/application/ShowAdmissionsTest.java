@@ -0,0 +1,65 @@
+package com.example.cinema.application;
+
+import com.example.cinema.application.ShowAdmissions.Admission;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.cinema.domain.DomainGenerators.randomShowId;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShowAdmissionsTest {
+
+  private final String showId = randomShowId();
+  private final AtomicInteger reads = new AtomicInteger();
+
+  @Test
+  public void shouldAdmitAvailableSeatsWithOverbookingAndRejectTheRest() throws Exception {
+    //given
+    var admissions = new ShowAdmissions(1.5, Duration.ofHours(1));
+
+    //when
+    List<Admission> result = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      result.add(admissions.admit(showId, () -> readAvailable(2)).toCompletableFuture().get(1, TimeUnit.SECONDS));
+    }
+
+    //then
+    assertThat(result.subList(0, 3)).containsOnly(Admission.ADMITTED);
+    assertThat(result.subList(3, 5)).allSatisfy(admission -> assertThat(admission)
+      .isInstanceOfSatisfying(Admission.Rejected.class, rejected -> assertThat(rejected.retryAfter())
+        .isPositive()
+        .isLessThanOrEqualTo(Duration.ofHours(1))));
+    assertThat(reads).hasValue(1);
+    assertThat(admissions.stats()).isEqualTo(new ShowAdmissions.Stats(1, 3, 2, 0, 1));
+  }
+
+  @Test
+  public void shouldResetFromAvailableSeatsAfterRefreshInterval() throws Exception {
+    //given
+    var admissions = new ShowAdmissions(1, Duration.ofMillis(50));
+    admissions.admit(showId, () -> readAvailable(1)).toCompletableFuture().get(1, TimeUnit.SECONDS);
+    Thread.sleep(100);
+
+    //when
+    Admission soldOut = admissions.admit(showId, () -> readAvailable(0)).toCompletableFuture().get(1, TimeUnit.SECONDS);
+    Thread.sleep(100);
+    Admission notRead = admissions.admit(showId, () -> CompletableFuture.failedFuture(new IllegalStateException("show unavailable"))).toCompletableFuture().get(1, TimeUnit.SECONDS);
+
+    //then
+    assertThat(soldOut).isEqualTo(Admission.SOLD_OUT);
+    assertThat(notRead).isEqualTo(Admission.ADMITTED);
+    assertThat(admissions.stats().reads()).isEqualTo(3);
+  }
+
+  private CompletionStage<Integer> readAvailable(int available) {
+    reads.incrementAndGet();
+    return CompletableFuture.completedFuture(available);
+  }
+}
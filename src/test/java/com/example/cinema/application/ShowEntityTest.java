@@ -2,15 +2,21 @@ package com.example.cinema.application;
 
 import com.example.cinema.domain.Show;
 import com.example.cinema.domain.ShowCommand;
+import com.example.cinema.domain.ShowCreator;
 import com.example.cinema.domain.ShowEvent;
+import com.example.cinema.domain.ShowPartitions;
 import kalix.javasdk.testkit.EventSourcedResult;
 import kalix.javasdk.testkit.EventSourcedTestKit;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static com.example.cinema.domain.DomainGenerators.randomReservationId;
 import static com.example.cinema.domain.DomainGenerators.randomShowId;
 import static com.example.cinema.domain.DomainGenerators.randomWalletId;
+import static com.example.cinema.domain.SeatStatus.AVAILABLE;
 import static com.example.cinema.domain.SeatStatus.PAID;
+import static com.example.cinema.domain.SeatStatus.RESERVED;
 import static org.assertj.core.api.Assertions.assertThat;
 
 class ShowEntityTest {
@@ -35,4 +41,133 @@ class ShowEntityTest {
     assertThat(confirmedSeat.number()).isEqualTo(seatNumber);
     assertThat(confirmedSeat.status()).isEqualTo(PAID);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldAcknowledgeRetriedPartitionCreationOnlyForSamePartition() {
+    //given
+    EventSourcedTestKit<Show, ShowEvent, ShowEntity> testKit = EventSourcedTestKit.of("show1" + ShowPartitions.PARTITION_SEPARATOR + 2, ShowEntity::new);
+    var createPartition = new ShowCommand.CreateShowPartition("title", 100, 50);
+    testKit.call(s -> s.createPartition(createPartition));
+
+    //when
+    EventSourcedResult<Response> retried = testKit.call(s -> s.createPartition(createPartition));
+    EventSourcedResult<Response> otherPartition = testKit.call(s -> s.createPartition(new ShowCommand.CreateShowPartition("title", 150, 50)));
+
+    //then
+    assertThat(retried.getReply()).isEqualTo(Response.Success.of("ok"));
+    assertThat(otherPartition.getReply()).isEqualTo(Response.Failure.of("SHOW_ALREADY_EXISTS"));
+    assertThat(otherPartition.getAllEvents()).isEmpty();
+  }
+
+  @Test
+  public void shouldRejectPartitionCreationWithShowId() {
+    //given
+    EventSourcedTestKit<Show, ShowEvent, ShowEntity> testKit = EventSourcedTestKit.of("show1", ShowEntity::new);
+
+    //when
+    EventSourcedResult<Response> result = testKit.call(s -> s.createPartition(new ShowCommand.CreateShowPartition("title", 0, 50)));
+
+    //then
+    assertThat(result.getReply()).isEqualTo(Response.Failure.of("INVALID_SHOW_ID"));
+    assertThat(result.getAllEvents()).isEmpty();
+  }
+
+  @Test
+  public void shouldReserveBatchWithResponsePerCommand() {
+    //given
+    EventSourcedTestKit<Show, ShowEvent, ShowEntity> testKit = EventSourcedTestKit.of(ShowEntity::new);
+    testKit.call(s -> s.create(new ShowCommand.CreateShow("title", 100)));
+    var first = new ShowCommand.ReserveSeat(randomWalletId(), randomReservationId(), 1);
+    var sameSeat = new ShowCommand.ReserveSeat(randomWalletId(), randomReservationId(), 1);
+    var otherSeat = new ShowCommand.ReserveSeat(randomWalletId(), randomReservationId(), 2);
+
+    //when
+    EventSourcedResult<ShowEntity.BatchResponse> result = testKit.call(s -> s.reserveBatch(new ShowEntity.ReserveSeatBatch(List.of(first, sameSeat, otherSeat))));
+
+    //then
+    assertThat(result.getReply().responses()).containsExactly(
+      Response.Success.of("reserved"),
+      Response.Failure.of("SEAT_NOT_AVAILABLE"),
+      Response.Success.of("reserved"));
+    assertThat(result.getAllEvents()).hasSize(2);
+    assertThat(testKit.getState().seats().get(1).get().status()).isEqualTo(RESERVED);
+    assertThat(testKit.getState().seats().get(2).get().status()).isEqualTo(RESERVED);
+  }
+
+  @Test
+  public void shouldExpireHoldOnceAndReportLateConfirmation() {
+    //given
+    var reservationId = randomReservationId();
+    EventSourcedTestKit<Show, ShowEvent, ShowEntity> testKit = EventSourcedTestKit.of(ShowEntity::new);
+    testKit.call(s -> s.create(new ShowCommand.CreateShow("title", 100)));
+    testKit.call(s -> s.reserve(new ShowCommand.ReserveSeat(randomWalletId(), reservationId, 1)));
+
+    //when
+    EventSourcedResult<Response> expired = testKit.call(s -> s.cancelReservation(reservationId));
+    EventSourcedResult<Response> expiredAgain = testKit.call(s -> s.cancelReservation(reservationId));
+    EventSourcedResult<Response> lateConfirmation = testKit.call(s -> s.confirmPayment(reservationId));
+
+    //then
+    assertThat(expired.getReply()).isEqualTo(Response.Success.of(ShowEntity.RESERVATION_CANCELLED));
+    assertThat(expiredAgain.getReply()).isEqualTo(Response.Success.of("ok"));
+    assertThat(expiredAgain.getAllEvents()).isEmpty();
+    assertThat(lateConfirmation.getReply()).isEqualTo(Response.Success.of(ShowEntity.CANCELLED_RESERVATION_CONFIRMED));
+    assertThat(testKit.getState().seats().get(1).get().status()).isEqualTo(AVAILABLE);
+  }
+
+  @Test
+  public void shouldReplyWithBestAvailableSeats() {
+    //given
+    EventSourcedTestKit<Show, ShowEvent, ShowEntity> testKit = EventSourcedTestKit.of(ShowEntity::new);
+    testKit.call(s -> s.create(new ShowCommand.CreateShow("title", 100)));
+    var reserveBestAvailable = new ShowCommand.ReserveBestAvailable(randomWalletId(), randomReservationId(), 2, null, true);
+
+    //when
+    EventSourcedResult<ShowEntity.BestAvailableResponse> result = testKit.call(s -> s.reserveBestAvailable(reserveBestAvailable));
+    EventSourcedResult<ShowEntity.BestAvailableResponse> retried = testKit.call(s -> s.reserveBestAvailable(reserveBestAvailable));
+
+    //then
+    assertThat(result.getReply()).isEqualTo(new ShowEntity.BestAvailableResponse(Response.Success.of("reserved"), List.of(0, 1)));
+    assertThat(retried.getReply()).isEqualTo(new ShowEntity.BestAvailableResponse(Response.Success.of("ok"), List.of(0, 1)));
+    assertThat(retried.getAllEvents()).isEmpty();
+  }
+
+  @Test
+  public void shouldReplyWithAvailability() {
+    //given
+    EventSourcedTestKit<Show, ShowEvent, ShowEntity> testKit = EventSourcedTestKit.of(ShowEntity::new);
+    testKit.call(s -> s.create(new ShowCommand.CreateShow("title", 100)));
+    var reservationId = randomReservationId();
+    testKit.call(s -> s.reserveSeats(new ShowCommand.ReserveSeats(randomWalletId(), reservationId, List.of(1, 2))));
+    testKit.call(s -> s.reserve(new ShowCommand.ReserveSeat(randomWalletId(), randomReservationId(), 3)));
+    testKit.call(s -> s.confirmPayment(reservationId));
+
+    //when
+    EventSourcedResult<AvailabilityResponse> result = testKit.call(ShowEntity::getAvailability);
+
+    //then
+    assertThat(result.getReply()).isEqualTo(new AvailabilityResponse(testKit.getState().id(), 97, 1, 2,
+      List.of(new AvailabilityResponse.PriceAvailability(ShowCreator.INITIAL_PRICE, 97, 1, 2))));
+  }
+
+  @Test
+  public void shouldReplyWithSeatChangesSinceRevision() {
+    //given
+    EventSourcedTestKit<Show, ShowEvent, ShowEntity> testKit = EventSourcedTestKit.of(ShowEntity::new);
+    testKit.call(s -> s.create(new ShowCommand.CreateShow("title", 100)));
+    long revision = testKit.call(s -> s.getSeatChanges(-1)).getReply().revision();
+    testKit.call(s -> s.reserveSeats(new ShowCommand.ReserveSeats(randomWalletId(), randomReservationId(), List.of(4, 2))));
+
+    //when
+    SeatChangesResponse all = testKit.call(s -> s.getSeatChanges(-1)).getReply();
+    SeatChangesResponse changes = testKit.call(s -> s.getSeatChanges(revision)).getReply();
+
+    //then
+    assertThat(all.snapshot()).isTrue();
+    assertThat(all.seats()).hasSize(100);
+    assertThat(changes.snapshot()).isFalse();
+    assertThat(changes.revision()).isEqualTo(revision + 2);
+    assertThat(changes.seats()).extracting(SeatResponse::number).containsExactly(2, 4);
+    assertThat(changes.seats()).extracting(SeatResponse::status).containsOnly(RESERVED);
+  }
+}
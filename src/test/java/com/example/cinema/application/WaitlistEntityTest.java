@@ -0,0 +1,38 @@
+package com.example.cinema.application;
+
+import com.example.cinema.domain.Waitlist;
+import com.example.cinema.domain.WaitlistEvent;
+import io.vavr.control.Option;
+import kalix.javasdk.testkit.EventSourcedResult;
+import kalix.javasdk.testkit.EventSourcedTestKit;
+import org.junit.jupiter.api.Test;
+
+import static com.example.cinema.domain.DomainGenerators.randomReservationId;
+import static com.example.cinema.domain.DomainGenerators.randomShowId;
+import static com.example.cinema.domain.DomainGenerators.randomWalletId;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WaitlistEntityTest {
+
+  @Test
+  public void shouldPersistOnlyChangedEntries() {
+    //given
+    var showId = randomShowId();
+    var first = new WaitlistEntity.Enqueue(randomWalletId(), randomReservationId());
+    var second = new WaitlistEntity.Enqueue(randomWalletId(), randomReservationId());
+    EventSourcedTestKit<Waitlist, WaitlistEvent, WaitlistEntity> testKit = EventSourcedTestKit.of(showId, WaitlistEntity::new);
+    testKit.call(w -> w.enqueue(first));
+    testKit.call(w -> w.enqueue(second));
+
+    //when
+    EventSourcedResult<Response> duplicated = testKit.call(w -> w.enqueue(first));
+    EventSourcedResult<Response> removed = testKit.call(w -> w.remove(first.reservationId()));
+
+    //then
+    assertThat(duplicated.getAllEvents()).isEmpty();
+    assertThat(removed.getAllEvents()).containsExactly(new WaitlistEvent.Removed(showId, first.reservationId()));
+    var head = testKit.call(WaitlistEntity::getHead).getReply();
+    assertThat(head.entry()).isEqualTo(Option.of(new Waitlist.Entry(second.reservationId(), second.walletId())));
+    assertThat(head.size()).isEqualTo(1);
+  }
+}
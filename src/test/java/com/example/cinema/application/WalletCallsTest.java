@@ -0,0 +1,91 @@
+package com.example.cinema.application;
+
+import akka.actor.ActorSystem;
+import akka.pattern.CircuitBreakerOpenException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WalletCallsTest {
+
+  private static final ActorSystem actorSystem = ActorSystem.create("WalletCallsTest");
+
+  private final AtomicInteger calls = new AtomicInteger();
+
+  @AfterAll
+  public static void shutdown() {
+    actorSystem.terminate();
+  }
+
+  @Test
+  public void shouldRetryUntilSuccess() throws Exception {
+    //given
+    var walletCalls = walletCalls(3, 10);
+
+    //when
+    var result = walletCalls.call(actorSystem, () -> calls.get() < 2 ? failure() : CompletableFuture.completedFuture("ok"))
+      .toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+    //then
+    assertThat(result).isEqualTo("ok");
+    assertThat(calls).hasValue(2);
+    assertThat(walletCalls.stats().state()).isEqualTo("CLOSED");
+  }
+
+  @Test
+  public void shouldNotRetryNorCountRejectedCommand() {
+    //given
+    var walletCalls = walletCalls(3, 1);
+    var badRequest = WebClientResponseException.create(400, "Bad Request", null, null, null);
+
+    //when
+    var result = walletCalls.call(actorSystem, () -> {
+      calls.incrementAndGet();
+      return CompletableFuture.failedFuture(badRequest);
+    }).toCompletableFuture();
+
+    //then
+    assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).hasCause(badRequest);
+    assertThat(calls).hasValue(1);
+    assertThat(walletCalls.stats().state()).isEqualTo("CLOSED");
+  }
+
+  @Test
+  public void shouldFailFastWhenBreakerIsOpen() throws Exception {
+    //given
+    var walletCalls = walletCalls(0, 2);
+    for (int i = 0; i < 2; i++) {
+      walletCalls.call(actorSystem, () -> failure()).exceptionally(__ -> null).toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    //when
+    var result = walletCalls.call(actorSystem, () -> CompletableFuture.completedFuture("ok")).toCompletableFuture();
+
+    //then
+    assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+      .isInstanceOf(ExecutionException.class)
+      .satisfies(exception -> assertThat(WalletCalls.isBreakerOpen(exception.getCause())).isTrue())
+      .hasCauseInstanceOf(CircuitBreakerOpenException.class);
+    assertThat(walletCalls.stats()).isEqualTo(new WalletCalls.Stats("OPEN", 1, 0, 0, 1));
+  }
+
+  private WalletCalls walletCalls(int attempts, int maxFailures) {
+    return new WalletCalls(attempts, Duration.ofMillis(1), Duration.ofMillis(10),
+      maxFailures, Duration.ofSeconds(1), Duration.ofMinutes(1), Duration.ofMinutes(1));
+  }
+
+  private CompletionStage<String> failure() {
+    calls.incrementAndGet();
+    return CompletableFuture.failedFuture(new IllegalStateException("wallet unavailable"));
+  }
+}
@@ -0,0 +1,84 @@
+package com.example.cinema.application;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.cinema.domain.DomainGenerators.randomReservationId;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorkflowStepPolicyTest {
+
+  private final AtomicInteger calls = new AtomicInteger();
+
+  @Test
+  public void shouldFailRetryWithoutCallWhenBudgetIsExhausted() throws Exception {
+    //given
+    var stepPolicy = stepPolicy(0.5, 1, 1);
+    var workflowId = randomReservationId();
+    stepPolicy.call(workflowId, "step", this::failure).exceptionally(__ -> null).toCompletableFuture().get(1, TimeUnit.SECONDS);
+    stepPolicy.call(workflowId, "step", this::failure).exceptionally(__ -> null).toCompletableFuture().get(1, TimeUnit.SECONDS);
+
+    //when
+    var result = stepPolicy.call(workflowId, "step", this::failure).toCompletableFuture();
+
+    //then
+    assertThatThrownBy(() -> result.get(1, TimeUnit.SECONDS)).hasMessageContaining("Retry budget exhausted");
+    assertThat(calls).hasValue(2);
+  }
+
+  @Test
+  public void shouldRefillBudgetWithFirstAttempts() throws Exception {
+    //given
+    var stepPolicy = stepPolicy(0.5, 1, 1);
+    var workflowId = randomReservationId();
+    stepPolicy.call(workflowId, "step", this::failure).exceptionally(__ -> null).toCompletableFuture().get(1, TimeUnit.SECONDS);
+    stepPolicy.call(workflowId, "step", this::failure).exceptionally(__ -> null).toCompletableFuture().get(1, TimeUnit.SECONDS);
+    stepPolicy.call(randomReservationId(), "step", this::success).toCompletableFuture().get(1, TimeUnit.SECONDS);
+    stepPolicy.call(randomReservationId(), "step", this::success).toCompletableFuture().get(1, TimeUnit.SECONDS);
+
+    //when
+    var result = stepPolicy.call(workflowId, "step", this::success).toCompletableFuture().get(1, TimeUnit.SECONDS);
+
+    //then
+    assertThat(result).isEqualTo("ok");
+  }
+
+  @Test
+  public void shouldUseDefaultTimeoutUntilEnoughSamples() throws Exception {
+    //given
+    var stepPolicy = stepPolicy(0.1, 10, 3);
+
+    //when
+    var beforeSamples = stepPolicy.timeout("step");
+    for (int i = 0; i < 3; i++) {
+      stepPolicy.call(randomReservationId(), "step", this::success).toCompletableFuture().get(1, TimeUnit.SECONDS);
+    }
+    var afterSamples = stepPolicy.timeout("step");
+
+    //then
+    assertThat(beforeSamples).isEqualTo(Duration.ofSeconds(3));
+    assertThat(afterSamples).isEqualTo(Duration.ofMillis(500));
+    assertThat(stepPolicy.timeout("other-step")).isEqualTo(Duration.ofSeconds(3));
+  }
+
+  private WorkflowStepPolicy stepPolicy(double retryRatio, int maxTokens, int minSamples) {
+    return new WorkflowStepPolicy(retryRatio, maxTokens, Duration.ofSeconds(3), Duration.ofMillis(500),
+      Duration.ofSeconds(10), 99, 2, minSamples);
+  }
+
+  private CompletionStage<String> failure() {
+    calls.incrementAndGet();
+    return CompletableFuture.failedFuture(new IllegalStateException("show unavailable"));
+  }
+
+  private CompletionStage<String> success() {
+    calls.incrementAndGet();
+    return CompletableFuture.completedFuture("ok");
+  }
+}
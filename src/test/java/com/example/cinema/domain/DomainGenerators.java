@@ -1,6 +1,7 @@
 package com.example.cinema.domain;
 
-import java.math.BigDecimal;
+import com.example.common.Money;
+
 import java.util.Random;
 import java.util.UUID;
 
@@ -23,8 +24,8 @@ public class DomainGenerators {
     return UUID.randomUUID().toString();
   }
 
-  public static BigDecimal randomPrice() {
-    return BigDecimal.valueOf(random.nextInt(200) + 50);
+  public static Money randomPrice() {
+    return Money.of(random.nextInt(200) + 50);
   }
 
   public static String randomTitle() {
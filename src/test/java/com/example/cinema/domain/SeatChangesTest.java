@@ -0,0 +1,67 @@
+package com.example.cinema.domain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kalix.javasdk.JsonSupport;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeatChangesTest {
+
+  @Test
+  public void shouldReturnSeatsChangedSinceRevision() {
+    //given
+    var changes = SeatChanges.EMPTY.append(List.of(5)).append(List.of(3, 4)).append(List.of(5));
+
+    //when
+    var sinceStart = changes.since(0).get();
+    var sinceSecondChange = changes.since(2).get();
+
+    //then
+    assertThat(changes.revision()).isEqualTo(4);
+    assertThat(sinceStart).containsExactly(3, 4, 5);
+    assertThat(sinceSecondChange).containsExactly(4, 5);
+    assertThat(changes.since(4).get()).isEmpty();
+    assertThat(changes.since(5).isEmpty()).isTrue();
+    assertThat(changes.since(-1).isEmpty()).isTrue();
+  }
+
+  @Test
+  public void shouldKeepOnlyLastChanges() {
+    //given
+    var changes = SeatChanges.EMPTY
+      .append(IntStream.range(0, SeatChanges.CAPACITY).boxed().toList())
+      .append(List.of(1000, 1001));
+
+    //when
+    var tooOld = changes.since(1);
+    var kept = changes.since(2);
+
+    //then
+    assertThat(changes.seatNumbers()).hasSize(SeatChanges.CAPACITY);
+    assertThat(tooOld.isEmpty()).isTrue();
+    assertThat(kept.get()).hasSize(SeatChanges.CAPACITY).contains(1000, 1001).doesNotContain(0, 1);
+  }
+
+  @Test
+  public void shouldShareUnchangedChunksAndPersistFlatArray() throws Exception {
+    //given
+    var changes = SeatChanges.EMPTY.append(IntStream.range(0, SeatChanges.CAPACITY).boxed().toList());
+    ObjectMapper objectMapper = JsonSupport.getObjectMapper();
+
+    //when
+    var appended = changes.append(List.of(1000));
+    JsonNode json = objectMapper.valueToTree(appended);
+
+    //then
+    assertThat(appended.chunks()[0]).isNotSameAs(changes.chunks()[0]);
+    assertThat(appended.chunks()[1]).isSameAs(changes.chunks()[1]);
+    assertThat(json.get("seatNumbers")).hasSize(SeatChanges.CAPACITY);
+    assertThat(json.has("chunks")).isFalse();
+    assertThat(objectMapper.treeToValue(json, SeatChanges.class)).isEqualTo(appended);
+  }
+}
@@ -0,0 +1,137 @@
+package com.example.cinema.domain;
+
+import com.example.common.Money;
+import io.vavr.control.Option;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.example.cinema.domain.SeatStatus.AVAILABLE;
+import static com.example.cinema.domain.SeatStatus.PAID;
+import static com.example.cinema.domain.SeatStatus.RESERVED;
+import static com.example.cinema.domain.ShowCreator.createSeats;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeatInventoryTest {
+
+  @Test
+  public void shouldKeepSeatsWithStatusAndPrice() {
+    //given
+    var seats = createSeats(Money.of(100), 70);
+
+    //when
+    var inventory = SeatInventory.of(seats);
+
+    //then
+    assertThat(inventory.size()).isEqualTo(70);
+    assertThat(inventory.toList()).isEqualTo(seats);
+    assertThat(inventory.get(70).isEmpty()).isTrue();
+    assertThat(inventory.get(-1).isEmpty()).isTrue();
+  }
+
+  @Test
+  public void shouldChangeStatusWithoutTouchingOtherSeats() {
+    //given
+    var inventory = SeatInventory.of(createSeats(Money.of(100), 70));
+
+    //when
+    var updated = inventory.reserve(31).pay(32).reserve(33).release(33);
+
+    //then
+    assertThat(updated.get(30).get().status()).isEqualTo(AVAILABLE);
+    assertThat(updated.get(31).get().status()).isEqualTo(RESERVED);
+    assertThat(updated.get(32).get().status()).isEqualTo(PAID);
+    assertThat(updated.get(33).get().status()).isEqualTo(AVAILABLE);
+    assertThat(inventory.get(31).get().status()).isEqualTo(AVAILABLE);
+  }
+
+  @Test
+  public void shouldKeepPriceTiers() {
+    //given
+    var cheapSeat = new Seat(0, AVAILABLE, Money.of(50));
+    var regularSeat = new Seat(1, AVAILABLE, Money.of(100));
+    var vipSeat = new Seat(2, PAID, Money.of(250));
+
+    //when
+    var inventory = SeatInventory.of(List.of(cheapSeat, regularSeat, vipSeat));
+
+    //then
+    assertThat(inventory.prices()).hasSize(3);
+    assertThat(inventory.get(0).get()).isEqualTo(cheapSeat);
+    assertThat(inventory.get(2).get()).isEqualTo(vipSeat);
+  }
+
+  @Test
+  public void shouldPutSeatOutsideOfCurrentRange() {
+    //given
+    var inventory = SeatInventory.of(createSeats(Money.of(100), 10));
+    var seat = new Seat(15, RESERVED, Money.of(123));
+
+    //when
+    var updated = inventory.put(seat);
+
+    //then
+    assertThat(updated.size()).isEqualTo(11);
+    assertThat(updated.get(15).get()).isEqualTo(seat);
+    assertThat(updated.get(12).isEmpty()).isTrue();
+  }
+
+  @Test
+  public void shouldPickLowestAvailableSeatsOfPrice() {
+    //given
+    var seats = new ArrayList<>(createSeats(Money.of(50), 10));
+    seats.addAll(createSeats(Money.of(100), 10, 20));
+    var inventory = SeatInventory.of(seats).reserveAll(List.of(0, 1, 3)).pay(10);
+
+    //when
+    var anyPrice = inventory.bestAvailable(3, Option.none(), false);
+    var regularPrice = inventory.bestAvailable(2, Option.some(Money.of(100)), false);
+
+    //then
+    assertThat(anyPrice).containsExactly(2, 4, 5);
+    assertThat(regularPrice).containsExactly(11, 12);
+    assertThat(inventory.bestAvailable(1, Option.some(Money.of(75)), false)).isEmpty();
+    assertThat(inventory.bestAvailable(8, Option.some(Money.of(50)), false)).isEmpty();
+    assertThat(inventory.release(3).bestAvailable(3, Option.none(), false)).containsExactly(2, 3, 4);
+  }
+
+  @Test
+  public void shouldPickContiguousSeatsInOneRow() {
+    //given
+    var inventory = SeatInventory.of(createSeats(Money.of(100), 100)).reserveAll(List.of(2, 5, 11));
+    var partition = SeatInventory.of(createSeats(Money.of(100), 15, 20));
+    var almostSoldOut = SeatInventory.of(createSeats(Money.of(100), 100)).reserveAll(IntStream.rangeClosed(0, 60).boxed().toList());
+
+    //when
+    var group = inventory.bestAvailable(4, Option.none(), true);
+    var biggerGroup = inventory.bestAvailable(5, Option.none(), true);
+
+    //then
+    assertThat(group).containsExactly(6, 7, 8, 9);
+    assertThat(biggerGroup).containsExactly(12, 13, 14, 15, 16);
+    assertThat(inventory.release(5).bestAvailable(5, Option.none(), true)).containsExactly(3, 4, 5, 6, 7);
+    assertThat(partition.bestAvailable(5, Option.none(), true)).containsExactly(15, 16, 17, 18, 19);
+    assertThat(partition.bestAvailable(6, Option.none(), true)).containsExactly(20, 21, 22, 23, 24, 25);
+    assertThat(almostSoldOut.bestAvailable(9, Option.none(), true)).containsExactly(61, 62, 63, 64, 65, 66, 67, 68, 69);
+    assertThat(almostSoldOut.bestAvailable(FreeSeatIndex.ROW_SIZE + 1, Option.none(), true)).isEmpty();
+  }
+
+  @Test
+  public void shouldCountSeatsPerStatusAndPrice() {
+    //given
+    var seats = new ArrayList<>(createSeats(Money.of(50), 10));
+    seats.addAll(createSeats(Money.of(100), 10, 20));
+
+    //when
+    var counts = SeatInventory.of(seats).reserveAll(List.of(0, 1, 10)).pay(1).release(10).pay(11).counts();
+
+    //then
+    assertThat(counts.count(AVAILABLE)).isEqualTo(27);
+    assertThat(counts.count(0, RESERVED)).isEqualTo(1);
+    assertThat(counts.count(0, PAID)).isEqualTo(1);
+    assertThat(counts.count(1, AVAILABLE)).isEqualTo(19);
+    assertThat(counts.count(1, PAID)).isEqualTo(1);
+  }
+}
@@ -2,9 +2,13 @@ package com.example.cinema.domain;
 
 
 import com.example.cinema.domain.ShowCommand.CancelSeatReservation;
+import com.example.cinema.domain.ShowCommand.ConfirmReservationPayment;
 import com.example.cinema.domain.ShowCommand.CreateShow;
 import com.example.cinema.domain.ShowCommand.ReserveSeat;
 
+import java.util.List;
+import java.util.Random;
+
 import static com.example.cinema.domain.DomainGenerators.randomReservationId;
 import static com.example.cinema.domain.DomainGenerators.randomSeatNumber;
 import static com.example.cinema.domain.DomainGenerators.randomTitle;
@@ -20,7 +24,27 @@ public class ShowCommandGenerators {
     return new ReserveSeat(randomWalletId(), randomReservationId(), randomSeatNumber());
   }
 
+  public static ReserveSeat randomReserveSeat(Random random, int maxSeats) {
+    return new ReserveSeat(randomWalletId(), randomReservationId(), random.nextInt(maxSeats));
+  }
+
   public static CancelSeatReservation randomCancelSeatReservation() {
     return new CancelSeatReservation(randomReservationId());
   }
+
+  /**
+   * On-sale traffic: new reservations, confirmations and cancellations of pending ones, redeliveries and late commands.
+   *
+   * @param pendingReservationIds reservations to confirm, cancel or redeliver, not empty
+   */
+  public static ShowCommand randomOnSaleCommand(Random random, int maxSeats, List<String> pendingReservationIds) {
+    String pendingId = pendingReservationIds.get(random.nextInt(pendingReservationIds.size()));
+    return switch (random.nextInt(10)) {
+      case 0, 1, 2, 3, 4 -> randomReserveSeat(random, maxSeats);
+      case 5, 6 -> new ConfirmReservationPayment(pendingId);
+      case 7 -> new CancelSeatReservation(pendingId);
+      case 8 -> new ReserveSeat(randomWalletId(), pendingId, random.nextInt(maxSeats));
+      default -> new ConfirmReservationPayment(randomReservationId());
+    };
+  }
 }
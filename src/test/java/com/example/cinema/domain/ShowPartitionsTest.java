@@ -0,0 +1,77 @@
+package com.example.cinema.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static com.example.cinema.domain.DomainGenerators.randomShowId;
+import static com.example.cinema.domain.ShowCommandError.INVALID_PARTITION_SIZE;
+import static com.example.cinema.domain.ShowCommandError.INVALID_SEAT_RANGE;
+import static com.example.cinema.domain.ShowCommandError.INVALID_SHOW_ID;
+import static com.example.cinema.domain.ShowCommandError.TOO_MANY_SEATS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShowPartitionsTest {
+
+  @Test
+  public void shouldSplitSeatsIntoPartitions() {
+    //given
+    var showPartitions = ShowCreator.createPartitioned(randomShowId(), "title", 250, 100).get();
+
+    //when
+    var lastPartition = showPartitions.createPartition(2);
+
+    //then
+    assertThat(showPartitions.partitionCount()).isEqualTo(3);
+    assertThat(showPartitions.partitionIds()).hasSize(3);
+    assertThat(lastPartition.firstSeatNumber()).isEqualTo(200);
+    assertThat(lastPartition.seatCount()).isEqualTo(50);
+  }
+
+  @Test
+  public void shouldRouteBySeatNumber() {
+    //given
+    var showPartitions = ShowCreator.createPartitioned(randomShowId(), "title", 250, 100).get();
+
+    //when //then
+    assertThat(showPartitions.partitionIdFor(0).get()).isEqualTo(showPartitions.partitionId(0));
+    assertThat(showPartitions.partitionIdFor(99).get()).isEqualTo(showPartitions.partitionId(0));
+    assertThat(showPartitions.partitionIdFor(100).get()).isEqualTo(showPartitions.partitionId(1));
+    assertThat(showPartitions.partitionIdFor(249).get()).isEqualTo(showPartitions.partitionId(2));
+    assertThat(showPartitions.partitionIdFor(250).isEmpty()).isTrue();
+    assertThat(showPartitions.partitionIdFor(-1).isEmpty()).isTrue();
+  }
+
+  @Test
+  public void shouldResolveParentShowIdOfPartition() {
+    //given
+    var showId = randomShowId();
+    var showPartitions = ShowCreator.createPartitioned(showId, "title", 250, 100).get();
+
+    //when //then
+    assertThat(ShowPartitions.parentShowId(showPartitions.partitionId(2))).isEqualTo(showId);
+    assertThat(ShowPartitions.parentShowId(showId)).isEqualTo(showId);
+  }
+
+  @Test
+  public void shouldRejectInvalidLayoutOrShowId() {
+    assertThat(ShowCreator.createPartitioned(randomShowId(), "title", 20_000, 100).getLeft()).isEqualTo(TOO_MANY_SEATS);
+    assertThat(ShowCreator.createPartitioned(randomShowId(), "title", 1000, 500).getLeft()).isEqualTo(INVALID_PARTITION_SIZE);
+    assertThat(ShowCreator.createPartitioned(randomShowId(), "title", 1000, 0).getLeft()).isEqualTo(INVALID_PARTITION_SIZE);
+    var partitionId = ShowCreator.createPartitioned(randomShowId(), "title", 1000, 100).get().partitionId(1);
+    assertThat(ShowCreator.createPartitioned(partitionId, "title", 1000, 100).getLeft()).isEqualTo(INVALID_SHOW_ID);
+    assertThat(ShowCreator.create(partitionId, new ShowCommand.CreateShow("title", 100)).getLeft()).isEqualTo(INVALID_SHOW_ID);
+    assertThat(ShowCreator.createPartitioned(randomShowId(), "title", 0, 100).getLeft()).isEqualTo(INVALID_SEAT_RANGE);
+  }
+
+  @Test
+  public void shouldCreatePartitionOnlyWithPartitionIdAndValidSeatRange() {
+    //given
+    var partitionId = ShowCreator.createPartitioned(randomShowId(), "title", 1000, 100).get().partitionId(1);
+
+    //when //then
+    assertThat(ShowCreator.createPartition(randomShowId(), new ShowCommand.CreateShowPartition("title", 100, 100)).getLeft()).isEqualTo(INVALID_SHOW_ID);
+    assertThat(ShowCreator.createPartition(randomShowId() + "~", new ShowCommand.CreateShowPartition("title", 100, 100)).getLeft()).isEqualTo(INVALID_SHOW_ID);
+    assertThat(ShowCreator.createPartition(partitionId, new ShowCommand.CreateShowPartition("title", -1, 100)).getLeft()).isEqualTo(INVALID_SEAT_RANGE);
+    assertThat(ShowCreator.createPartition(partitionId, new ShowCommand.CreateShowPartition("title", 100, 0)).getLeft()).isEqualTo(INVALID_SEAT_RANGE);
+    assertThat(ShowCreator.createPartition(partitionId, new ShowCommand.CreateShowPartition("title", 100, 100)).isRight()).isTrue();
+  }
+}
@@ -2,19 +2,33 @@ package com.example.cinema.domain;
 
 import com.example.cinema.domain.ShowCommand.CancelSeatReservation;
 import com.example.cinema.domain.ShowCommand.ConfirmReservationPayment;
+import com.example.cinema.domain.ShowCommand.ReserveBestAvailable;
+import com.example.cinema.domain.ShowCommand.ReserveSeats;
 import com.example.cinema.domain.ShowEvent.CancelledReservationConfirmed;
 import com.example.cinema.domain.ShowEvent.SeatReservationCancelled;
 import com.example.cinema.domain.ShowEvent.SeatReservationPaid;
 import com.example.cinema.domain.ShowEvent.SeatReserved;
+import com.example.cinema.domain.ShowEvent.SeatsReservationCancelled;
+import com.example.cinema.domain.ShowEvent.SeatsReservationPaid;
+import com.example.cinema.domain.ShowEvent.SeatsReserved;
+import com.example.common.Money;
+import com.example.common.SagaContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.vavr.Tuple2;
+import io.vavr.control.Option;
+import io.vavr.jackson.datatype.VavrModule;
+import kalix.javasdk.JsonSupport;
 import org.junit.jupiter.api.Test;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static com.example.cinema.domain.DomainGenerators.randomReservationId;
 import static com.example.cinema.domain.DomainGenerators.randomShow;
 import static com.example.cinema.domain.DomainGenerators.randomShowId;
+import static com.example.cinema.domain.DomainGenerators.randomTitle;
 import static com.example.cinema.domain.DomainGenerators.randomWalletId;
 import static com.example.cinema.domain.SeatStatus.AVAILABLE;
 import static com.example.cinema.domain.SeatStatus.PAID;
@@ -22,11 +36,13 @@ import static com.example.cinema.domain.SeatStatus.RESERVED;
 import static com.example.cinema.domain.ShowBuilder.showBuilder;
 import static com.example.cinema.domain.ShowCommandError.CANCELLING_CONFIRMED_RESERVATION;
 import static com.example.cinema.domain.ShowCommandError.DUPLICATED_COMMAND;
+import static com.example.cinema.domain.ShowCommandError.INVALID_SEAT_SELECTION;
 import static com.example.cinema.domain.ShowCommandError.RESERVATION_NOT_FOUND;
 import static com.example.cinema.domain.ShowCommandError.SEAT_NOT_AVAILABLE;
 import static com.example.cinema.domain.ShowCommandError.SEAT_NOT_FOUND;
 import static com.example.cinema.domain.ShowCommandError.SHOW_ALREADY_EXISTS;
 import static com.example.cinema.domain.ShowCommandGenerators.randomCreateShow;
+import static com.example.cinema.domain.ShowCommandGenerators.randomOnSaleCommand;
 import static com.example.cinema.domain.ShowCommandGenerators.randomReserveSeat;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -45,7 +61,26 @@ class ShowTest {
     //then
     assertThat(show.id()).isEqualTo(showId);
     assertThat(show.title()).isEqualTo(createShow.title());
-    assertThat(show.seats()).hasSize(createShow.maxSeats());
+    assertThat(show.seats().size()).isEqualTo(createShow.maxSeats());
+  }
+
+  @Test
+  public void shouldCreateShowPartitionWithGlobalSeatNumbers() {
+    //given
+    String partitionId = randomShowId() + ShowPartitions.PARTITION_SEPARATOR + 4;
+    var createShowPartition = new ShowCommand.CreateShowPartition(randomTitle(), 200, 50);
+
+    //when
+    var showCreated = ShowCreator.createPartition(partitionId, createShowPartition).get();
+    var show = Show.create(showCreated);
+
+    //then
+    assertThat(show.id()).isEqualTo(partitionId);
+    assertThat(show.seats().size()).isEqualTo(50);
+    assertThat(show.getSeat(199).isEmpty()).isTrue();
+    assertThat(show.getSeat(200).get().number()).isEqualTo(200);
+    assertThat(show.getSeat(249).get().number()).isEqualTo(249);
+    assertThat(show.getSeat(250).isEmpty()).isTrue();
   }
 
   @Test
@@ -149,7 +184,7 @@ class ShowTest {
   @Test
   public void shouldCancelSeatReservation() {
     //given
-    var reservedSeat = new Seat(2, SeatStatus.RESERVED, new BigDecimal("123"));
+    var reservedSeat = new Seat(2, SeatStatus.RESERVED, Money.of(123));
     var reservationId = randomReservationId();
     var show = showBuilder().withRandomSeats().withSeatReservation(reservedSeat, reservationId).build();
     var cancelSeatReservation = new CancelSeatReservation(reservationId);
@@ -167,7 +202,7 @@ class ShowTest {
   @Test
   public void shouldRejectCancellationDuplicate() {
     //given
-    var reservedSeat = new Seat(2, SeatStatus.RESERVED, new BigDecimal("123"));
+    var reservedSeat = new Seat(2, SeatStatus.RESERVED, Money.of(123));
     var reservationId = randomReservationId();
     var show = showBuilder().withRandomSeats().withSeatReservation(reservedSeat, reservationId).build();
     var cancelSeatReservation = new CancelSeatReservation(reservationId);
@@ -189,7 +224,7 @@ class ShowTest {
   @Test
   public void shouldConfirmAfterCancellation() {
     //given
-    var reservedSeat = new Seat(2, SeatStatus.RESERVED, new BigDecimal("123"));
+    var reservedSeat = new Seat(2, SeatStatus.RESERVED, Money.of(123));
     var reservationId = randomReservationId();
     var show = showBuilder().withRandomSeats().withSeatReservation(reservedSeat, reservationId).build();
     var cancelSeatReservation = new CancelSeatReservation(reservationId);
@@ -204,10 +239,29 @@ class ShowTest {
     assertThat(result).isEqualTo(new CancelledReservationConfirmed(show.id(), reservationId, reservedSeat.number()));
   }
 
+  @Test
+  public void shouldPassSagaContextToConfirmationEvents() {
+    //given
+    var reservedSeat = new Seat(2, SeatStatus.RESERVED, Money.of(123));
+    var reservationId = randomReservationId();
+    var show = showBuilder().withRandomSeats().withSeatReservation(reservedSeat, reservationId).build();
+    var sagaContext = new SagaContext(show.id(), "w1", List.of(reservedSeat.number()), reservedSeat.price());
+    var confirmReservationPayment = new ConfirmReservationPayment(reservationId, sagaContext);
+    var cancelledShow = show.apply(show.process(new CancelSeatReservation(reservationId)).get());
+
+    //when
+    var paid = show.process(confirmReservationPayment).get();
+    var cancelledConfirmed = cancelledShow.process(confirmReservationPayment).get();
+
+    //then
+    assertThat(paid).isEqualTo(new SeatReservationPaid(show.id(), reservationId, reservedSeat.number(), sagaContext));
+    assertThat(cancelledConfirmed).isEqualTo(new CancelledReservationConfirmed(show.id(), reservationId, reservedSeat.number(), sagaContext));
+  }
+
   @Test
   public void shouldConfirmSeatReservation() {
     //given
-    var reservedSeat = new Seat(2, SeatStatus.RESERVED, new BigDecimal("123"));
+    var reservedSeat = new Seat(2, SeatStatus.RESERVED, Money.of(123));
     var reservationId = randomReservationId();
     var show = showBuilder().withRandomSeats().withSeatReservation(reservedSeat, reservationId).build();
     var confirmReservationPayment = new ConfirmReservationPayment(reservationId);
@@ -225,7 +279,7 @@ class ShowTest {
   @Test
   public void shouldRejectConfirmationDuplicate() {
     //given
-    var reservedSeat = new Seat(2, SeatStatus.RESERVED, new BigDecimal("123"));
+    var reservedSeat = new Seat(2, SeatStatus.RESERVED, Money.of(123));
     var reservationId = randomReservationId();
     var show = showBuilder().withRandomSeats().withSeatReservation(reservedSeat, reservationId).build();
     var confirmReservationPayment = new ConfirmReservationPayment(reservationId);
@@ -247,7 +301,7 @@ class ShowTest {
   @Test
   public void shouldRejectCancellationAfterConfirmation() {
     //given
-    var reservedSeat = new Seat(2, SeatStatus.RESERVED, new BigDecimal("123"));
+    var reservedSeat = new Seat(2, SeatStatus.RESERVED, Money.of(123));
     var reservationId = randomReservationId();
     var show = showBuilder().withRandomSeats().withSeatReservation(reservedSeat, reservationId).build();
     var confirmReservationPayment = new ConfirmReservationPayment(reservationId);
@@ -275,6 +329,374 @@ class ShowTest {
     assertThat(result).isEqualTo(RESERVATION_NOT_FOUND);
   }
 
+  @Test
+  public void shouldKeepOnlyLastFinishedReservationPerSeat() {
+    //given
+    var reservedSeat = new Seat(2, SeatStatus.RESERVED, Money.of(123));
+    var cancelledReservationId = randomReservationId();
+    var show = showBuilder().withRandomSeats().withSeatReservation(reservedSeat, cancelledReservationId).build();
+    var cancelled = show.apply(show.process(new CancelSeatReservation(cancelledReservationId)).get());
+    var reserveSeat = new ShowCommand.ReserveSeat(randomWalletId(), randomReservationId(), reservedSeat.number());
+    var reserved = cancelled.apply(cancelled.process(reserveSeat).get());
+
+    //when
+    var paid = reserved.apply(reserved.process(new ConfirmReservationPayment(reserveSeat.reservationId())).get());
+
+    //then
+    assertThat(paid.finishedReservations().keySet().toJavaSet()).containsExactly(reserveSeat.reservationId());
+    assertThat(paid.lastFinishedReservations().get(reservedSeat.number()).get()).isEqualTo(reserveSeat.reservationId());
+    assertThat(paid.supersededReservations().get(cancelledReservationId)).isEqualTo(Option.of(List.of(reservedSeat.number())));
+    assertThat(paid.process(new ConfirmReservationPayment(cancelledReservationId)).get())
+      .isEqualTo(new CancelledReservationConfirmed(show.id(), cancelledReservationId, reservedSeat.number()));
+  }
+
+  @Test
+  public void shouldRecognizeRetriedCommandsOfSupersededReservation() {
+    //given
+    var show = randomShow();
+    var first = new ShowCommand.ReserveSeat(randomWalletId(), randomReservationId(), 0);
+    var second = new ShowCommand.ReserveSeat(randomWalletId(), randomReservationId(), 0);
+    var updated = show;
+    for (var reserveSeat : List.of(first, second)) {
+      updated = updated.apply(updated.process(reserveSeat).get());
+      updated = updated.apply(updated.process(new CancelSeatReservation(reserveSeat.reservationId())).get());
+    }
+
+    //when
+    var reserveAgain = updated.process(first);
+    var cancelAgain = updated.process(new CancelSeatReservation(first.reservationId()));
+    var confirm = updated.process(new ConfirmReservationPayment(first.reservationId()));
+
+    //then
+    assertThat(updated.finishedReservations().containsKey(first.reservationId())).isFalse();
+    assertThat(reserveAgain.getLeft()).isEqualTo(DUPLICATED_COMMAND);
+    assertThat(cancelAgain.getLeft()).isEqualTo(DUPLICATED_COMMAND);
+    assertThat(confirm.get()).isEqualTo(new CancelledReservationConfirmed(show.id(), first.reservationId(), 0));
+  }
+
+  @Test
+  public void shouldSupersedeGroupReservationOnceWithAllSeats() {
+    //given
+    var show = randomShow();
+    var group = new ReserveSeats(randomWalletId(), randomReservationId(), List.of(3, 4));
+    var onFirstSeat = new ShowCommand.ReserveSeat(randomWalletId(), randomReservationId(), 3);
+    var onSecondSeat = new ShowCommand.ReserveSeat(randomWalletId(), randomReservationId(), 4);
+    var cancelled = show.apply(show.process(group).get());
+    cancelled = cancelled.apply(cancelled.process(new CancelSeatReservation(group.reservationId())).get());
+
+    //when
+    var supersededBySeat = cancelled.apply(cancelled.process(onFirstSeat).get());
+    supersededBySeat = supersededBySeat.apply(supersededBySeat.process(new CancelSeatReservation(onFirstSeat.reservationId())).get());
+    var otherSeatFinished = supersededBySeat.apply(supersededBySeat.process(onSecondSeat).get());
+    otherSeatFinished = otherSeatFinished.apply(otherSeatFinished.process(new CancelSeatReservation(onSecondSeat.reservationId())).get());
+
+    //then
+    assertThat(supersededBySeat.supersededReservations().get(group.reservationId())).isEqualTo(Option.of(List.of(3, 4)));
+    assertThat(supersededBySeat.lastFinishedReservations().get(4).isEmpty()).isTrue();
+    assertThat(otherSeatFinished.supersededReservations()).isEqualTo(supersededBySeat.supersededReservations());
+    assertThat(otherSeatFinished.lastFinishedReservations().get(4)).isEqualTo(Option.of(onSecondSeat.reservationId()));
+  }
+
+  @Test
+  public void shouldConfirmArchivedCancelledReservation() {
+    //given
+    var show = randomShow();
+    var reservationId = randomReservationId();
+    var confirmArchived = new ShowCommand.ConfirmArchivedReservationPayment(reservationId, List.of(2));
+
+    //when
+    var result = show.process(confirmArchived).get();
+
+    //then
+    assertThat(result).isEqualTo(new CancelledReservationConfirmed(show.id(), reservationId, 2));
+  }
+
+  @Test
+  public void shouldRejectArchivedConfirmationDuplicate() {
+    //given
+    var reservedSeat = new Seat(2, SeatStatus.RESERVED, Money.of(123));
+    var reservationId = randomReservationId();
+    var show = showBuilder().withRandomSeats().withSeatReservation(reservedSeat, reservationId).build();
+    var updatedShow = show.apply(show.process(new ConfirmReservationPayment(reservationId)).get());
+
+    //when
+    var result = updatedShow.process(new ShowCommand.ConfirmArchivedReservationPayment(reservationId, List.of(reservedSeat.number()))).getLeft();
+
+    //then
+    assertThat(result).isEqualTo(DUPLICATED_COMMAND);
+  }
+
+  @Test
+  public void shouldReserveSeatsWithSummedPrice() {
+    //given
+    var show = randomShow();
+    var reserveSeats = new ReserveSeats(randomWalletId(), randomReservationId(), List.of(3, 4, 5));
+    var price = show.getSeat(3).get().price().plus(show.getSeat(4).get().price()).plus(show.getSeat(5).get().price());
+
+    //when
+    var event = show.process(reserveSeats).get();
+    var updatedShow = show.apply(event);
+
+    //then
+    assertThat(event).isEqualTo(new SeatsReserved(show.id(), reserveSeats.walletId(), reserveSeats.reservationId(), List.of(3, 4, 5), price));
+    assertThat(updatedShow.getSeat(3).get().status()).isEqualTo(RESERVED);
+    assertThat(updatedShow.getSeat(5).get().status()).isEqualTo(RESERVED);
+    assertThat(updatedShow.process(reserveSeats).getLeft()).isEqualTo(DUPLICATED_COMMAND);
+  }
+
+  @Test
+  public void shouldNotReserveSeatsIfAnyIsNotAvailable() {
+    //given
+    var reservedSeat = new Seat(2, SeatStatus.RESERVED, Money.of(123));
+    var show = showBuilder().withRandomSeats().withSeatReservation(reservedSeat, randomReservationId()).build();
+
+    //when
+    var notAvailable = show.process(new ReserveSeats(randomWalletId(), randomReservationId(), List.of(1, 2, 3))).getLeft();
+    var notFound = show.process(new ReserveSeats(randomWalletId(), randomReservationId(), List.of(3, ShowBuilder.MAX_SEATS + 1))).getLeft();
+    var duplicatedSeat = show.process(new ReserveSeats(randomWalletId(), randomReservationId(), List.of(3, 3))).getLeft();
+
+    //then
+    assertThat(notAvailable).isEqualTo(SEAT_NOT_AVAILABLE);
+    assertThat(notFound).isEqualTo(SEAT_NOT_FOUND);
+    assertThat(duplicatedSeat).isEqualTo(INVALID_SEAT_SELECTION);
+  }
+
+  @Test
+  public void shouldConfirmSeatsReservationWithSingleEvent() {
+    //given
+    var show = randomShow();
+    var reserveSeats = new ReserveSeats(randomWalletId(), randomReservationId(), List.of(3, 4));
+    var reservedShow = show.apply(show.process(reserveSeats).get());
+    var confirmReservationPayment = new ConfirmReservationPayment(reserveSeats.reservationId());
+
+    //when
+    var event = reservedShow.process(confirmReservationPayment).get();
+    var updatedShow = reservedShow.apply(event);
+
+    //then
+    assertThat(event).isEqualTo(new SeatsReservationPaid(show.id(), reserveSeats.reservationId(), List.of(3, 4)));
+    assertThat(updatedShow.getSeat(3).get().status()).isEqualTo(PAID);
+    assertThat(updatedShow.getSeat(4).get().status()).isEqualTo(PAID);
+    assertThat(updatedShow.process(confirmReservationPayment).getLeft()).isEqualTo(DUPLICATED_COMMAND);
+    assertThat(updatedShow.process(new CancelSeatReservation(reserveSeats.reservationId())).getLeft()).isEqualTo(CANCELLING_CONFIRMED_RESERVATION);
+  }
+
+  @Test
+  public void shouldCancelSeatsReservationWithSingleEvent() {
+    //given
+    var show = randomShow();
+    var reserveSeats = new ReserveSeats(randomWalletId(), randomReservationId(), List.of(3, 4));
+    var reservedShow = show.apply(show.process(reserveSeats).get());
+    var cancelSeatReservation = new CancelSeatReservation(reserveSeats.reservationId());
+
+    //when
+    var event = reservedShow.process(cancelSeatReservation).get();
+    var updatedShow = reservedShow.apply(event);
+
+    //then
+    assertThat(event).isEqualTo(new SeatsReservationCancelled(show.id(), reserveSeats.reservationId(), List.of(3, 4)));
+    assertThat(updatedShow.getSeat(3).get().status()).isEqualTo(AVAILABLE);
+    assertThat(updatedShow.getSeat(4).get().status()).isEqualTo(AVAILABLE);
+    assertThat(updatedShow.process(new ConfirmReservationPayment(reserveSeats.reservationId())).get())
+      .isEqualTo(new ShowEvent.CancelledSeatsReservationConfirmed(show.id(), reserveSeats.reservationId(), List.of(3, 4)));
+  }
+
+  @Test
+  public void shouldProcessBatchInOrder() {
+    //given
+    var show = randomShow();
+    var first = new ShowCommand.ReserveSeat(randomWalletId(), randomReservationId(), 7);
+    var sameSeat = new ShowCommand.ReserveSeat(randomWalletId(), randomReservationId(), 7);
+    var otherSeat = new ShowCommand.ReserveSeat(randomWalletId(), randomReservationId(), 8);
+
+    //when
+    var results = show.processBatch(List.of(first, sameSeat, otherSeat, first));
+
+    //then
+    assertThat(results.get(0).get()).isInstanceOf(SeatReserved.class);
+    assertThat(results.get(1).getLeft()).isEqualTo(SEAT_NOT_AVAILABLE);
+    assertThat(results.get(2).get()).isInstanceOf(SeatReserved.class);
+    assertThat(results.get(3).getLeft()).isEqualTo(DUPLICATED_COMMAND);
+  }
+
+  @Test
+  public void shouldReplayEventsLikeApplyingThemOneByOne() {
+    //given
+    var show = randomShow();
+    var events = randomHistory(show, 2000);
+
+    //when
+    var replayed = show.applyAll(events);
+
+    //then
+    assertThat(replayed).isEqualTo(apply(show, events));
+    assertThat(replayed.finishedReservations().size()).isLessThanOrEqualTo(ShowBuilder.MAX_SEATS);
+  }
+
+  @Test
+  public void shouldKeepSeatCountsUnderOnSaleCommandMix() {
+    //given
+    var random = new Random();
+    var show = randomShow();
+    List<String> pending = new ArrayList<>();
+    while (pending.size() < 20) {
+      var reserveSeat = randomReserveSeat(random, ShowBuilder.MAX_SEATS);
+      var reserved = show.process(reserveSeat);
+      if (reserved.isRight()) {
+        show = show.apply(reserved.get());
+        pending.add(reserveSeat.reservationId());
+      }
+    }
+
+    //when
+    List<ShowEvent> events = new ArrayList<>();
+    Show current = show;
+    for (int i = 0; i < 1000; i++) {
+      var result = current.process(randomOnSaleCommand(random, ShowBuilder.MAX_SEATS, pending));
+      if (result.isRight()) {
+        events.add(result.get());
+        current = current.apply(result.get());
+      }
+    }
+
+    //then
+    var seats = current.seats().toList();
+    assertThat(show.applyAll(events)).isEqualTo(current);
+    assertThat(current.seats().counts().count(AVAILABLE)).isEqualTo(seats.stream().filter(Seat::isAvailable).count());
+    assertThat(current.seats().counts().count(RESERVED)).isEqualTo(seats.stream().filter(seat -> seat.status() == RESERVED).count());
+    assertThat(current.seats().counts().count(PAID)).isEqualTo(seats.stream().filter(seat -> seat.status() == PAID).count());
+  }
+
+  @Test
+  public void shouldRecoverFromSnapshot() throws Exception {
+    //given
+    var show = randomShow();
+    var withHistory = show.applyAll(randomHistory(show, 500));
+    ObjectMapper objectMapper = JsonSupport.getObjectMapper().copy().registerModule(new VavrModule());
+
+    //when
+    var snapshot = objectMapper.writeValueAsBytes(withHistory);
+    var recovered = objectMapper.readValue(snapshot, Show.class);
+
+    //then
+    assertThat(recovered).isEqualTo(withHistory);
+  }
+
+  @Test
+  public void shouldReserveBestAvailableSeats() {
+    //given
+    var show = randomShow();
+    var reservedShow = show.apply(show.process(new ShowCommand.ReserveSeat(randomWalletId(), randomReservationId(), 1)).get());
+    var reserveGroup = new ReserveBestAvailable(randomWalletId(), randomReservationId(), 3, null, true);
+    var reserveSingle = new ReserveBestAvailable(randomWalletId(), randomReservationId(), 1, null, false);
+
+    //when
+    var groupReserved = reservedShow.process(reserveGroup).get();
+    var updatedShow = reservedShow.apply(groupReserved);
+    var singleReserved = updatedShow.process(reserveSingle).get();
+
+    //then
+    var price = show.getSeat(2).get().price();
+    assertThat(groupReserved).isEqualTo(new SeatsReserved(show.id(), reserveGroup.walletId(), reserveGroup.reservationId(), List.of(2, 3, 4), price.plus(price).plus(price)));
+    assertThat(singleReserved).isEqualTo(new SeatReserved(show.id(), reserveSingle.walletId(), reserveSingle.reservationId(), 0, price));
+    assertThat(updatedShow.reservedSeats(reserveGroup.reservationId())).containsExactly(2, 3, 4);
+    assertThat(updatedShow.process(reserveGroup).getLeft()).isEqualTo(DUPLICATED_COMMAND);
+  }
+
+  @Test
+  public void shouldNotReserveBestAvailableSeatsIfThereAreNotEnough() {
+    //given
+    var show = randomShow();
+
+    //when
+    var tooMany = show.process(new ReserveBestAvailable(randomWalletId(), randomReservationId(), ShowBuilder.MAX_SEATS + 1, null, false)).getLeft();
+    var otherPrice = show.process(new ReserveBestAvailable(randomWalletId(), randomReservationId(), 1, show.getSeat(0).get().price().plus(Money.of(1)), false)).getLeft();
+    var longerThanRow = show.process(new ReserveBestAvailable(randomWalletId(), randomReservationId(), FreeSeatIndex.ROW_SIZE + 1, null, true)).getLeft();
+    var noSeats = show.process(new ReserveBestAvailable(randomWalletId(), randomReservationId(), 0, null, false)).getLeft();
+
+    //then
+    assertThat(tooMany).isEqualTo(SEAT_NOT_AVAILABLE);
+    assertThat(otherPrice).isEqualTo(SEAT_NOT_AVAILABLE);
+    assertThat(longerThanRow).isEqualTo(INVALID_SEAT_SELECTION);
+    assertThat(noSeats).isEqualTo(INVALID_SEAT_SELECTION);
+  }
+
+  @Test
+  public void shouldKeepSeatIndexAndCountsInSyncWithSeats() {
+    //given
+    var show = randomShow();
+    var events = randomHistory(show, 500);
+
+    //when
+    var applied = apply(show, events);
+    var replayed = show.applyAll(events);
+
+    //then
+    var seats = applied.seats().toList();
+    var available = seats.stream().filter(Seat::isAvailable).map(Seat::number).toList();
+    for (Show updated : List.of(applied, replayed)) {
+      assertThat(updated.seats().counts().count(AVAILABLE)).isEqualTo(available.size());
+      assertThat(updated.seats().counts().count(RESERVED)).isEqualTo(seats.stream().filter(seat -> seat.status() == RESERVED).count());
+      assertThat(updated.seats().counts().count(PAID)).isEqualTo(seats.stream().filter(seat -> seat.status() == PAID).count());
+      assertThat(updated.seats().bestAvailable(available.size(), Option.none(), false)).isEqualTo(available);
+    }
+  }
+
+  @Test
+  public void shouldRecoverSnapshotWithoutSeatChanges() throws Exception {
+    //given
+    var show = randomShow();
+    var withHistory = show.applyAll(randomHistory(show, 50));
+    ObjectMapper objectMapper = JsonSupport.getObjectMapper().copy().registerModule(new VavrModule());
+    var snapshot = (ObjectNode) objectMapper.valueToTree(withHistory);
+    ((ObjectNode) snapshot.get("seats")).remove("changes");
+    snapshot.remove("supersededReservations");
+
+    //when
+    var recovered = objectMapper.treeToValue(snapshot, Show.class);
+
+    //then
+    assertThat(recovered.seats().changes()).isEqualTo(SeatChanges.EMPTY);
+    assertThat(recovered.supersededReservations()).isEqualTo(SupersededReservations.EMPTY);
+    assertThat(recovered.seats().toList()).isEqualTo(withHistory.seats().toList());
+  }
+
+  /**
+   * Reservations of single seats and groups, finished as paid or cancelled, some of them left pending.
+   */
+  private List<ShowEvent> randomHistory(Show show, int reservations) {
+    Random random = new Random();
+    List<ShowEvent> events = new ArrayList<>();
+    Show current = show;
+    for (int i = 0; i < reservations; i++) {
+      var reserveSeats = random.nextInt(5) == 0
+        ? new ReserveSeats(randomWalletId(), randomReservationId(), List.of(random.nextInt(ShowBuilder.MAX_SEATS), random.nextInt(ShowBuilder.MAX_SEATS)))
+        : null;
+      var result = reserveSeats != null
+        ? current.process(reserveSeats)
+        : current.process(new ShowCommand.ReserveSeat(randomWalletId(), randomReservationId(), random.nextInt(ShowBuilder.MAX_SEATS)));
+      if (result.isLeft()) {
+        continue;
+      }
+      ShowEvent reserved = result.get();
+      events.add(reserved);
+      current = current.apply(reserved);
+      String reservationId = switch (reserved) {
+        case SeatReserved seatReserved -> seatReserved.reservationId();
+        case SeatsReserved seatsReserved -> seatsReserved.reservationId();
+        default -> throw new IllegalStateException("unexpected " + reserved);
+      };
+      int next = random.nextInt(20);
+      if (next < 18) {
+        ShowCommand finish = next == 0 ? new ConfirmReservationPayment(reservationId) : new CancelSeatReservation(reservationId);
+        ShowEvent finished = current.process(finish).get();
+        events.add(finished);
+        current = current.apply(finished);
+      }
+    }
+    return events;
+  }
+
   private Show apply(Show show, List<ShowEvent> events) {
     return io.vavr.collection.List.ofAll(events).foldLeft(show, Show::apply);
   }
@@ -0,0 +1,66 @@
+package com.example.cinema.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vavr.control.Option;
+import io.vavr.jackson.datatype.VavrModule;
+import kalix.javasdk.JsonSupport;
+import org.junit.jupiter.api.Test;
+
+import static com.example.cinema.domain.DomainGenerators.randomReservationId;
+import static com.example.cinema.domain.DomainGenerators.randomShowId;
+import static com.example.cinema.domain.DomainGenerators.randomWalletId;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WaitlistTest {
+
+  @Test
+  public void shouldKeepOrderOfJoiningAndIgnoreSecondEnqueue() {
+    //given
+    var first = new Waitlist.Entry(randomReservationId(), randomWalletId());
+    var second = new Waitlist.Entry(randomReservationId(), randomWalletId());
+
+    //when
+    var waitlist = Waitlist.empty(randomShowId()).enqueue(first).enqueue(second).enqueue(first);
+
+    //then
+    assertThat(waitlist.size()).isEqualTo(2);
+    assertThat(waitlist.head()).isEqualTo(Option.of(first));
+    assertThat(waitlist.position(second.reservationId())).isEqualTo(Option.of(2));
+  }
+
+  @Test
+  public void shouldMoveNextEntryToHeadAfterRemoval() {
+    //given
+    var first = new Waitlist.Entry(randomReservationId(), randomWalletId());
+    var second = new Waitlist.Entry(randomReservationId(), randomWalletId());
+    var waitlist = Waitlist.empty(randomShowId()).enqueue(first).enqueue(second);
+
+    //when
+    var updated = waitlist.remove(first.reservationId());
+
+    //then
+    assertThat(updated.head()).isEqualTo(Option.of(second));
+    assertThat(updated.position(first.reservationId()).isEmpty()).isTrue();
+    assertThat(updated.remove(second.reservationId()).head().isEmpty()).isTrue();
+  }
+
+  @Test
+  public void shouldSkipEntriesRemovedFromTheMiddle() throws Exception {
+    //given
+    var first = new Waitlist.Entry(randomReservationId(), randomWalletId());
+    var second = new Waitlist.Entry(randomReservationId(), randomWalletId());
+    var third = new Waitlist.Entry(randomReservationId(), randomWalletId());
+    var waitlist = Waitlist.empty(randomShowId()).enqueue(first).enqueue(second).enqueue(third).remove(second.reservationId());
+    ObjectMapper objectMapper = JsonSupport.getObjectMapper().copy().registerModule(new VavrModule());
+
+    //when
+    var recovered = objectMapper.treeToValue(objectMapper.valueToTree(waitlist), Waitlist.class);
+    var updated = recovered.remove(first.reservationId());
+
+    //then
+    assertThat(recovered).isEqualTo(waitlist);
+    assertThat(updated.head()).isEqualTo(Option.of(third));
+    assertThat(updated.position(third.reservationId())).isEqualTo(Option.of(1));
+    assertThat(updated.size()).isEqualTo(1);
+  }
+}
@@ -0,0 +1,70 @@
+package com.example.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testcontainers.shaded.org.awaitility.Awaitility.await;
+
+class HedgedCallTest {
+
+  private final AtomicInteger secondaryCalls = new AtomicInteger();
+
+  @Test
+  public void shouldNotStartSecondaryWhenPrimaryAnswersWithinDelay() throws Exception {
+    //given
+    var hedgedCall = new HedgedCall(Duration.ofMillis(50), Duration.ofMillis(1), Duration.ofSeconds(1), 95, 100, 100);
+
+    //when
+    var result = hedgedCall.call(() -> CompletableFuture.completedFuture("primary"), this::secondary);
+
+    //then
+    assertThat(result.toCompletableFuture().get(1, TimeUnit.SECONDS)).isEqualTo("primary");
+    Thread.sleep(100);
+    assertThat(secondaryCalls).hasValue(0);
+    assertThat(hedgedCall.stats()).isEqualTo(new HedgedCall.Stats(1, 0, 1, 0, Duration.ofMillis(50)));
+  }
+
+  @Test
+  public void shouldTakeSecondaryWhenPrimaryIsSlowOrFails() throws Exception {
+    //given
+    var hedgedCall = new HedgedCall(Duration.ofMillis(10), Duration.ofMillis(1), Duration.ofSeconds(1), 95, 100, 100);
+
+    //when
+    var slowPrimary = hedgedCall.call(CompletableFuture::new, this::secondary);
+    var failedPrimary = hedgedCall.call(() -> CompletableFuture.failedFuture(new IllegalStateException("not activated")), this::secondary);
+
+    //then
+    assertThat(slowPrimary.toCompletableFuture().get(1, TimeUnit.SECONDS)).isEqualTo("secondary");
+    assertThat(failedPrimary.toCompletableFuture().get(1, TimeUnit.SECONDS)).isEqualTo("secondary");
+    assertThat(secondaryCalls).hasValue(2);
+    //wins are counted after the result is completed
+    await().atMost(1, TimeUnit.SECONDS).untilAsserted(() -> {
+      assertThat(hedgedCall.stats().hedged()).isEqualTo(2);
+      assertThat(hedgedCall.stats().secondaryWins()).isEqualTo(2);
+    });
+  }
+
+  @Test
+  public void shouldUsePercentileOfPrimaryLatenciesAsDelay() throws Exception {
+    //given
+    var hedgedCall = new HedgedCall(Duration.ofSeconds(1), Duration.ofMillis(20), Duration.ofSeconds(1), 95, 10, 100);
+
+    //when
+    for (int i = 0; i < 10; i++) {
+      hedgedCall.call(() -> CompletableFuture.completedFuture("primary"), this::secondary).toCompletableFuture().get(1, TimeUnit.SECONDS);
+    }
+
+    //then
+    assertThat(hedgedCall.hedgeDelay()).isEqualTo(Duration.ofMillis(20));
+  }
+
+  private CompletableFuture<String> secondary() {
+    secondaryCalls.incrementAndGet();
+    return CompletableFuture.completedFuture("secondary");
+  }
+}
@@ -0,0 +1,96 @@
+package com.example.common;
+
+import com.example.cinema.application.SeatResponse;
+import com.example.cinema.domain.Seat;
+import com.example.cinema.domain.SeatStatus;
+import com.example.wallet.application.WalletResponse;
+import com.example.wallet.domain.WalletEvent;
+import com.example.wallet.domain.WalletEvent.WalletCharged;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import kalix.javasdk.JsonSupport;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+  @Test
+  public void shouldCalculateInMinorUnits() {
+    //given
+    var balance = Money.of(new BigDecimal("100.50"));
+
+    //when
+    var updated = balance.minus(Money.of(new BigDecimal("0.75"))).plus(Money.of(10));
+
+    //then
+    assertThat(updated).isEqualTo(new Money(10975, Money.DEFAULT_CURRENCY));
+    assertThat(updated.toBigDecimal()).isEqualTo(new BigDecimal("109.75"));
+    assertThat(updated.isLessThan(balance)).isFalse();
+  }
+
+  @Test
+  public void shouldRejectDifferentCurrencyAndUnsupportedScale() {
+    //given
+    var usd = Money.of(10);
+    var eur = new Money(1000, "EUR");
+
+    //when //then
+    assertThatThrownBy(() -> usd.minus(eur)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> Money.of(new BigDecimal("0.001"))).isInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  public void shouldUpcastLegacyDecimalAmounts() throws JsonProcessingException {
+    //given
+    var objectMapper = JsonSupport.getObjectMapper();
+    var legacyEvent = """
+      {"type": "wallet-charged", "walletId": "w1", "amount": 100.5, "expenseId": "r1", "commandId": "c1"}""";
+    var legacyCommandAmount = "\"50\"";
+
+    //when
+    var walletCharged = objectMapper.readValue(legacyEvent, WalletCharged.class);
+    var commandAmount = objectMapper.readValue(legacyCommandAmount, Money.class);
+
+    //then
+    assertThat(walletCharged.amount()).isEqualTo(new Money(10050, Money.DEFAULT_CURRENCY));
+    assertThat(commandAmount).isEqualTo(Money.of(50));
+  }
+
+  @Test
+  public void shouldRoundTripJson() throws JsonProcessingException {
+    //given
+    var objectMapper = JsonSupport.getObjectMapper();
+    WalletEvent walletCharged = new WalletCharged("w1", new Money(123, "EUR"), "r1", "c1");
+
+    //when
+    var json = objectMapper.writeValueAsString(walletCharged);
+
+    //then
+    assertThat(json).contains("\"amount\":{\"minorUnits\":123,\"currency\":\"EUR\"}");
+    assertThat(objectMapper.readValue(json, WalletCharged.class)).isEqualTo(walletCharged);
+  }
+
+  @Test
+  public void shouldKeepDecimalAmountsInResponses() throws JsonProcessingException {
+    //given
+    var objectMapper = JsonSupport.getObjectMapper();
+    var wallet = new WalletResponse("w1", new Money(10050, Money.DEFAULT_CURRENCY));
+    var seat = new SeatResponse(1, SeatStatus.AVAILABLE, Money.of(100));
+    var persistedSeat = new Seat(1, SeatStatus.AVAILABLE, Money.of(100));
+
+    //when
+    var walletJson = objectMapper.writeValueAsString(wallet);
+    var seatJson = objectMapper.writeValueAsString(seat);
+    var persistedSeatJson = objectMapper.writeValueAsString(persistedSeat);
+
+    //then
+    assertThat(walletJson).isEqualTo("{\"id\":\"w1\",\"balance\":100.5}");
+    assertThat(seatJson).isEqualTo("{\"number\":1,\"status\":\"AVAILABLE\",\"price\":100}");
+    assertThat(objectMapper.readValue(walletJson, WalletResponse.class)).isEqualTo(wallet);
+    assertThat(objectMapper.readValue(seatJson, SeatResponse.class)).isEqualTo(seat);
+    assertThat(persistedSeatJson).contains("\"price\":{\"minorUnits\":10000,\"currency\":\"USD\"}");
+  }
+}
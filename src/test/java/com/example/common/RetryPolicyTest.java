@@ -0,0 +1,27 @@
+package com.example.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryPolicyTest {
+
+  @Test
+  public void shouldKeepDecorrelatedDelaysWithinBounds() {
+    //given
+    var retryPolicy = new RetryPolicy(10, Duration.ofMillis(100), Duration.ofSeconds(2));
+    var delay = retryPolicy.firstDelay();
+
+    for (int i = 0; i < 1000; i++) {
+      //when
+      var next = retryPolicy.nextDelay(delay);
+
+      //then
+      assertThat(next).isBetween(Duration.ofMillis(100), Duration.ofSeconds(2));
+      assertThat(next).isLessThanOrEqualTo(delay.multipliedBy(3).plusMillis(1));
+      delay = next;
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.example.common;
+
+import com.example.cinema.domain.ShowEvent.CancelledReservationConfirmed;
+import com.example.wallet.domain.WalletEvent.WalletChargeAuthorized;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import kalix.javasdk.JsonSupport;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SagaContextTest {
+
+  @Test
+  public void shouldReadEventsWithoutSagaContextAsEmpty() throws JsonProcessingException {
+    //given
+    var objectMapper = JsonSupport.getObjectMapper();
+    var legacyAuthorized = """
+      {"walletId": "w1", "amount": 100, "expenseId": "r1", "commandId": "c1"}""";
+    var nullContextConfirmed = """
+      {"showId": "s1", "reservationId": "r1", "seatNumber": 3, "sagaContext": null}""";
+
+    //when
+    var authorized = objectMapper.readValue(legacyAuthorized, WalletChargeAuthorized.class);
+    var confirmed = objectMapper.readValue(nullContextConfirmed, CancelledReservationConfirmed.class);
+
+    //then
+    assertThat(authorized.sagaContext().isEmpty()).isTrue();
+    assertThat(confirmed.sagaContext()).isEqualTo(SagaContext.EMPTY);
+  }
+
+  @Test
+  public void shouldRoundTripJson() throws JsonProcessingException {
+    //given
+    var objectMapper = JsonSupport.getObjectMapper();
+    var authorized = new WalletChargeAuthorized("w1", Money.of(100), "r1", "c1",
+      new SagaContext("s1", "w1", List.of(3, 4), Money.of(100)));
+
+    //when
+    var json = objectMapper.writeValueAsString(authorized);
+
+    //then
+    assertThat(json).doesNotContain("empty");
+    assertThat(objectMapper.readValue(json, WalletChargeAuthorized.class)).isEqualTo(authorized);
+  }
+}
@@ -1,24 +1,24 @@
 package com.example.wallet.application;
 
 import com.example.cinema.application.Response;
+import com.example.common.Money;
 import com.example.wallet.domain.Wallet;
 import com.example.wallet.domain.WalletCommand;
 import com.example.wallet.domain.WalletEvent;
+import com.example.wallet.domain.WalletEvent.WalletChargeVoided;
 import com.example.wallet.domain.WalletEvent.WalletCharged;
 import com.example.wallet.domain.WalletEvent.WalletCreated;
 import kalix.javasdk.testkit.EventSourcedResult;
 import kalix.javasdk.testkit.EventSourcedTestKit;
 import org.junit.jupiter.api.Test;
 
-import java.math.BigDecimal;
-
 import static com.example.cinema.domain.DomainGenerators.randomWalletId;
 import static com.example.wallet.domain.DomainGenerators.randomCommandId;
+import static com.example.wallet.domain.WalletCommandError.AUTHORIZATION_NOT_FOUND;
 import static org.assertj.core.api.Assertions.assertThat;
 
 class WalletEntityTest {
 
-
   @Test
   public void shouldCreateWallet() {
     //given
@@ -31,9 +31,9 @@ class WalletEntityTest {
 
     //then
     assertThat(result.isReply()).isTrue();
-    assertThat(result.getNextEventOfType(WalletCreated.class).initialAmount()).isEqualTo(BigDecimal.valueOf(initialAmount));
+    assertThat(result.getNextEventOfType(WalletCreated.class).initialAmount()).isEqualTo(Money.of(initialAmount));
     assertThat(testKit.getState().id()).isEqualTo("stubEntityId");
-    assertThat(testKit.getState().balance()).isEqualTo(BigDecimal.valueOf(initialAmount));
+    assertThat(testKit.getState().balance()).isEqualTo(Money.of(initialAmount));
   }
 
   @Test
@@ -43,7 +43,7 @@ class WalletEntityTest {
     var initialAmount = 100;
     EventSourcedTestKit<Wallet, WalletEvent, WalletEntity> testKit = EventSourcedTestKit.of(walletId, WalletEntity::new);
     testKit.call(wallet -> wallet.create(initialAmount));
-    var chargeWallet = new WalletCommand.ChargeWallet(new BigDecimal(10), "r1", randomCommandId());
+    var chargeWallet = new WalletCommand.ChargeWallet(Money.of(10), "r1", randomCommandId());
 
     //when
     EventSourcedResult<Response> result = testKit.call(wallet -> wallet.charge(chargeWallet));
@@ -51,7 +51,7 @@ class WalletEntityTest {
     //then
     assertThat(result.isReply()).isTrue();
     assertThat(result.getNextEventOfType(WalletCharged.class)).isEqualTo(new WalletCharged("stubEntityId", chargeWallet.amount(), chargeWallet.expenseId(), chargeWallet.commandId()));
-    assertThat(testKit.getState().balance()).isEqualTo(new BigDecimal(90));
+    assertThat(testKit.getState().balance()).isEqualTo(Money.of(90));
   }
 
   @Test
@@ -61,7 +61,7 @@ class WalletEntityTest {
     var initialAmount = 100;
     EventSourcedTestKit<Wallet, WalletEvent, WalletEntity> testKit = EventSourcedTestKit.of(walletId, WalletEntity::new);
     testKit.call(wallet -> wallet.create(initialAmount));
-    var chargeWallet = new WalletCommand.ChargeWallet(new BigDecimal(10), "r1", randomCommandId());
+    var chargeWallet = new WalletCommand.ChargeWallet(Money.of(10), "r1", randomCommandId());
     testKit.call(wallet -> wallet.charge(chargeWallet));
 
     //when
@@ -70,7 +70,7 @@ class WalletEntityTest {
     //then
     assertThat(result.isReply()).isTrue();
     assertThat(result.didEmitEvents()).isFalse();
-    assertThat(testKit.getState().balance()).isEqualTo(new BigDecimal(90));
+    assertThat(testKit.getState().balance()).isEqualTo(Money.of(90));
   }
 
   @Test
@@ -80,7 +80,7 @@ class WalletEntityTest {
     var initialAmount = 100;
     EventSourcedTestKit<Wallet, WalletEvent, WalletEntity> testKit = EventSourcedTestKit.of(walletId, WalletEntity::new);
     testKit.call(wallet -> wallet.create(initialAmount));
-    var chargeWallet = new WalletCommand.ChargeWallet(new BigDecimal(10), "r1", randomCommandId());
+    var chargeWallet = new WalletCommand.ChargeWallet(Money.of(10), "r1", randomCommandId());
     testKit.call(wallet -> wallet.charge(chargeWallet));
 
     //when
@@ -89,6 +89,42 @@ class WalletEntityTest {
     //then
     assertThat(result.isReply()).isTrue();
     assertThat(result.didEmitEvents()).isFalse();
-    assertThat(testKit.getState().balance()).isEqualTo(new BigDecimal(90));
+    assertThat(testKit.getState().balance()).isEqualTo(Money.of(90));
+  }
+
+  @Test
+  public void shouldVoidAuthorizedCharge() {
+    //given
+    var walletId = randomWalletId();
+    var initialAmount = 100;
+    EventSourcedTestKit<Wallet, WalletEvent, WalletEntity> testKit = EventSourcedTestKit.of(walletId, WalletEntity::new);
+    testKit.call(wallet -> wallet.create(initialAmount));
+    var authorizeCharge = new WalletCommand.AuthorizeCharge(Money.of(10), "r1", randomCommandId());
+    testKit.call(wallet -> wallet.authorize(authorizeCharge));
+    var voidCharge = new WalletCommand.VoidCharge("r1", randomCommandId());
+
+    //when
+    EventSourcedResult<Response> result = testKit.call(wallet -> wallet.voidCharge(voidCharge));
+
+    //then
+    assertThat(result.getReply()).isEqualTo(Response.Success.of("wallet charge voided"));
+    assertThat(result.getNextEventOfType(WalletChargeVoided.class).amount()).isEqualTo(Money.of(10));
+    assertThat(testKit.getState().balance()).isEqualTo(Money.of(100));
+  }
+
+  @Test
+  public void shouldReplyWithFailureWhenNothingToVoid() {
+    //given
+    var walletId = randomWalletId();
+    EventSourcedTestKit<Wallet, WalletEvent, WalletEntity> testKit = EventSourcedTestKit.of(walletId, WalletEntity::new);
+    testKit.call(wallet -> wallet.create(100));
+    var voidCharge = new WalletCommand.VoidCharge("r1", randomCommandId());
+
+    //when
+    EventSourcedResult<Response> result = testKit.call(wallet -> wallet.voidCharge(voidCharge));
+
+    //then
+    assertThat(result.getReply()).isEqualTo(Response.Failure.of(AUTHORIZATION_NOT_FOUND.name()));
+    assertThat(result.didEmitEvents()).isFalse();
   }
-}
\ No newline at end of file
+}
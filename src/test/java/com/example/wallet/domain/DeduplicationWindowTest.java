@@ -0,0 +1,87 @@
+package com.example.wallet.domain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vavr.jackson.datatype.VavrModule;
+import kalix.javasdk.JsonSupport;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.example.wallet.domain.DeduplicationWindow.BloomFilter.CAPACITY;
+import static com.example.wallet.domain.DeduplicationWindow.RECENT_WINDOW_SIZE;
+import static com.example.wallet.domain.DomainGenerators.randomCommandId;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeduplicationWindowTest {
+
+  @Test
+  public void shouldKeepRecentIdsInBoundedWindow() {
+    //given
+    List<String> commandIds = randomCommandIds(RECENT_WINDOW_SIZE + 10);
+
+    //when
+    var window = addAll(DeduplicationWindow.EMPTY, commandIds);
+
+    //then
+    assertThat(window.recentIds().size()).isEqualTo(RECENT_WINDOW_SIZE);
+    assertThat(window.current().size()).isEqualTo(10);
+    assertThat(commandIds).allMatch(window::contains);
+  }
+
+  @Test
+  public void shouldForgetIdsOlderThanTwoFilterGenerations() {
+    //given
+    String oldestId = randomCommandId();
+    var window = DeduplicationWindow.EMPTY.add(oldestId);
+
+    //when
+    window = addAll(window, randomCommandIds(RECENT_WINDOW_SIZE + 2 * CAPACITY));
+
+    //then
+    assertThat(window.contains(oldestId)).isFalse();
+    assertThat(window.previous().size()).isEqualTo(CAPACITY);
+  }
+
+  @Test
+  public void shouldRarelyRejectNewIds() {
+    //given
+    var window = addAll(DeduplicationWindow.EMPTY, randomCommandIds(RECENT_WINDOW_SIZE + 2 * CAPACITY - 1));
+
+    //when
+    long falsePositives = randomCommandIds(100_000).stream().filter(window::contains).count();
+
+    //then
+    assertThat(falsePositives).isLessThanOrEqualTo(2);
+  }
+
+  @Test
+  public void shouldPersistFiltersCompactlyWithoutLookup() throws Exception {
+    //given
+    var window = addAll(DeduplicationWindow.EMPTY, randomCommandIds(RECENT_WINDOW_SIZE + CAPACITY + 10));
+    ObjectMapper objectMapper = JsonSupport.getObjectMapper().copy().registerModule(new VavrModule());
+
+    //when
+    JsonNode json = objectMapper.valueToTree(window);
+    var recovered = objectMapper.treeToValue(json, DeduplicationWindow.class);
+
+    //then
+    assertThat(json.has("recentIdsLookup")).isFalse();
+    assertThat(json.get("current").get("bits").isTextual()).isTrue();
+    assertThat(json.get("current").has("blocks")).isFalse();
+    assertThat(recovered).isEqualTo(window);
+    assertThat(window.recentIds()).allMatch(recovered::isRecent);
+  }
+
+  private DeduplicationWindow addAll(DeduplicationWindow window, List<String> commandIds) {
+    for (String commandId : commandIds) {
+      window = window.add(commandId);
+    }
+    return window;
+  }
+
+  private List<String> randomCommandIds(int count) {
+    return IntStream.range(0, count).mapToObj(__ -> randomCommandId()).toList();
+  }
+}
@@ -1,14 +1,27 @@
 package com.example.wallet.domain;
 
+import com.example.common.Money;
+import com.example.common.SagaContext;
+import com.example.wallet.domain.WalletCommand.AuthorizeCharge;
+import com.example.wallet.domain.WalletCommand.CaptureCharge;
 import com.example.wallet.domain.WalletCommand.ChargeWallet;
 import com.example.wallet.domain.WalletCommand.CreateWallet;
 import com.example.wallet.domain.WalletCommand.DepositFunds;
+import com.example.wallet.domain.WalletCommand.VoidCharge;
+import com.example.wallet.domain.WalletEvent.WalletChargeAuthorized;
+import com.example.wallet.domain.WalletEvent.WalletChargeRejected;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.vavr.collection.HashMap;
+import io.vavr.jackson.datatype.VavrModule;
+import kalix.javasdk.JsonSupport;
 import org.junit.jupiter.api.Test;
 
-import java.math.BigDecimal;
+import java.util.List;
 
 import static com.example.wallet.domain.DomainGenerators.randomCommandId;
+import static com.example.wallet.domain.WalletCommandError.AUTHORIZATION_NOT_FOUND;
 import static com.example.wallet.domain.WalletCommandError.DUPLICATED_COMMAND;
+import static com.example.wallet.domain.WalletCommandError.POSSIBLY_DUPLICATED_COMMAND;
 import static org.assertj.core.api.Assertions.assertThat;
 
 class WalletTest {
@@ -17,7 +30,7 @@ class WalletTest {
   public void shouldCreateWallet() {
     //given
     var wallet = Wallet.EMPTY_WALLET;
-    var createWallet = new CreateWallet("1", BigDecimal.TEN);
+    var createWallet = new CreateWallet("1", Money.of(10));
 
     //when
     var event = wallet.process(createWallet).get();
@@ -31,8 +44,8 @@ class WalletTest {
   @Test
   public void shouldRejectCommandIfWalletExists() {
     //given
-    var wallet = new Wallet("1", BigDecimal.TEN);
-    var createWallet = new CreateWallet("1", BigDecimal.TEN);
+    var wallet = new Wallet("1", Money.of(10));
+    var createWallet = new CreateWallet("1", Money.of(10));
 
     //when
     var error = wallet.process(createWallet).getLeft();
@@ -44,22 +57,22 @@ class WalletTest {
   @Test
   public void shouldDepositFunds() {
     //given
-    var wallet = new Wallet("1", BigDecimal.TEN);
-    var depositFunds = new DepositFunds(BigDecimal.TEN, randomCommandId());
+    var wallet = new Wallet("1", Money.of(10));
+    var depositFunds = new DepositFunds(Money.of(10), randomCommandId());
 
     //when
     var event = wallet.process(depositFunds).get();
     var updatedWallet = wallet.apply(event);
 
     //then
-    assertThat(updatedWallet.balance()).isEqualTo(BigDecimal.valueOf(20));
+    assertThat(updatedWallet.balance()).isEqualTo(Money.of(20));
   }
 
   @Test
   public void shouldRejectDuplicatedDeposit() {
     //given
-    var wallet = new Wallet("1", BigDecimal.TEN);
-    var depositFunds = new DepositFunds(BigDecimal.TEN, randomCommandId());
+    var wallet = new Wallet("1", Money.of(10));
+    var depositFunds = new DepositFunds(Money.of(10), randomCommandId());
 
     var event = wallet.process(depositFunds).get();
     var updatedWallet = wallet.apply(event);
@@ -74,22 +87,22 @@ class WalletTest {
   @Test
   public void shouldChargeWallet() {
     //given
-    var wallet = new Wallet("1", BigDecimal.TEN);
-    var chargeWallet = new ChargeWallet(BigDecimal.valueOf(3), "abc", randomCommandId());
+    var wallet = new Wallet("1", Money.of(10));
+    var chargeWallet = new ChargeWallet(Money.of(3), "abc", randomCommandId());
 
     //when
     var event = wallet.process(chargeWallet).get();
     var updatedWallet = wallet.apply(event);
 
     //then
-    assertThat(updatedWallet.balance()).isEqualTo(BigDecimal.valueOf(7));
+    assertThat(updatedWallet.balance()).isEqualTo(Money.of(7));
   }
 
   @Test
   public void shouldRejectDuplicatedCharge() {
     //given
-    var wallet = new Wallet("1", BigDecimal.TEN);
-    var chargeWallet = new ChargeWallet(BigDecimal.valueOf(3), "abc", randomCommandId());
+    var wallet = new Wallet("1", Money.of(10));
+    var chargeWallet = new ChargeWallet(Money.of(3), "abc", randomCommandId());
 
     var event = wallet.process(chargeWallet).get();
     var updatedWallet = wallet.apply(event);
@@ -100,4 +113,160 @@ class WalletTest {
     //then
     assertThat(error).isEqualTo(DUPLICATED_COMMAND);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldRejectDuplicatedChargeOutsideOfRecentWindow() {
+    //given
+    var wallet = new Wallet("1", Money.of(10_000));
+    var chargeWallet = new ChargeWallet(Money.of(1), "abc", randomCommandId());
+    wallet = wallet.apply(wallet.process(chargeWallet).get());
+
+    for (int i = 0; i < DeduplicationWindow.RECENT_WINDOW_SIZE; i++) {
+      var deposit = new DepositFunds(Money.of(1), randomCommandId());
+      wallet = wallet.apply(wallet.process(deposit).get());
+    }
+
+    //when
+    var error = wallet.process(chargeWallet).getLeft();
+
+    //then
+    assertThat(wallet.commandIds().recentIds().size()).isEqualTo(DeduplicationWindow.RECENT_WINDOW_SIZE);
+    assertThat(error).isEqualTo(DUPLICATED_COMMAND);
+  }
+
+  @Test
+  public void shouldHoldAuthorizedChargeUntilCapture() {
+    //given
+    var wallet = new Wallet("1", Money.of(10));
+    var authorizeCharge = new AuthorizeCharge(Money.of(3), "abc", randomCommandId());
+
+    //when
+    var authorizedWallet = wallet.apply(wallet.process(authorizeCharge).get());
+    var capturedWallet = authorizedWallet.apply(authorizedWallet.process(new CaptureCharge("abc", randomCommandId())).get());
+
+    //then
+    assertThat(authorizedWallet.balance()).isEqualTo(Money.of(7));
+    assertThat(authorizedWallet.holds().containsKey("abc")).isTrue();
+    assertThat(capturedWallet.balance()).isEqualTo(Money.of(7));
+    assertThat(capturedWallet.holds().isEmpty()).isTrue();
+    assertThat(capturedWallet.expenses().containsKey("abc")).isTrue();
+  }
+
+  @Test
+  public void shouldReleaseFundsOnVoid() {
+    //given
+    var wallet = new Wallet("1", Money.of(10));
+    var authorizeCharge = new AuthorizeCharge(Money.of(3), "abc", randomCommandId());
+    var authorizedWallet = wallet.apply(wallet.process(authorizeCharge).get());
+
+    //when
+    var voidedWallet = authorizedWallet.apply(authorizedWallet.process(new VoidCharge("abc", randomCommandId())).get());
+
+    //then
+    assertThat(voidedWallet.balance()).isEqualTo(Money.of(10));
+    assertThat(voidedWallet.holds().isEmpty()).isTrue();
+    assertThat(voidedWallet.expenses().isEmpty()).isTrue();
+    assertThat(voidedWallet.process(new VoidCharge("abc", randomCommandId())).getLeft()).isEqualTo(AUTHORIZATION_NOT_FOUND);
+    assertThat(voidedWallet.process(new CaptureCharge("abc", randomCommandId())).getLeft()).isEqualTo(AUTHORIZATION_NOT_FOUND);
+  }
+
+  @Test
+  public void shouldRejectAuthorizationAboveAvailableBalance() {
+    //given
+    var wallet = new Wallet("1", Money.of(10));
+    var firstHold = new AuthorizeCharge(Money.of(7), "abc", randomCommandId());
+    var authorizedWallet = wallet.apply(wallet.process(firstHold).get());
+
+    //when
+    var event = authorizedWallet.process(new AuthorizeCharge(Money.of(7), "def", randomCommandId())).get();
+
+    //then
+    assertThat(event).isInstanceOf(WalletChargeRejected.class);
+  }
+
+  @Test
+  public void shouldPassSagaContextToChargeEvents() {
+    //given
+    var wallet = new Wallet("1", Money.of(10));
+    var sagaContext = new SagaContext("show1", "1", List.of(3), Money.of(7));
+
+    //when
+    var authorized = wallet.process(new AuthorizeCharge(Money.of(7), "abc", randomCommandId(), sagaContext)).get();
+    var rejected = wallet.process(new AuthorizeCharge(Money.of(11), "def", randomCommandId(), sagaContext)).get();
+
+    //then
+    assertThat(authorized).isInstanceOfSatisfying(WalletChargeAuthorized.class, event ->
+      assertThat(event.sagaContext()).isEqualTo(sagaContext));
+    assertThat(rejected).isInstanceOfSatisfying(WalletChargeRejected.class, event ->
+      assertThat(event.sagaContext()).isEqualTo(sagaContext));
+  }
+
+  @Test
+  public void shouldRecoverSnapshotWithoutHolds() {
+    //given
+    JsonSupport.getObjectMapper().registerModule(new VavrModule());
+    var wallet = new Wallet("1", Money.of(10));
+    var snapshot = (ObjectNode) JsonSupport.getObjectMapper().valueToTree(wallet);
+    snapshot.remove("holds");
+    var legacySnapshot = JsonSupport.encodeJson(snapshot, Wallet.class.getName());
+
+    //when
+    var recovered = JsonSupport.decodeJson(Wallet.class, legacySnapshot);
+
+    //then
+    assertThat(recovered).isEqualTo(wallet);
+  }
+
+  @Test
+  public void shouldRecoverSnapshotWithCommandIdsArray() {
+    //given
+    JsonSupport.getObjectMapper().registerModule(new VavrModule());
+    var wallet = new Wallet("1", Money.of(10));
+    List<String> commandIds = List.of(randomCommandId(), randomCommandId(), randomCommandId());
+    for (String commandId : commandIds) {
+      wallet = wallet.apply(wallet.process(new DepositFunds(Money.of(1), commandId)).get());
+    }
+    var snapshot = (ObjectNode) JsonSupport.getObjectMapper().valueToTree(wallet);
+    var legacyCommandIds = snapshot.putArray("commandIds");
+    commandIds.forEach(legacyCommandIds::add);
+    var legacySnapshot = JsonSupport.encodeJson(snapshot, Wallet.class.getName());
+
+    //when
+    var recovered = JsonSupport.decodeJson(Wallet.class, legacySnapshot);
+
+    //then
+    assertThat(recovered).isEqualTo(wallet);
+    assertThat(commandIds).allMatch(commandId -> recovered.commandIds().isRecent(commandId));
+  }
+
+  @Test
+  public void shouldNotIgnoreCommandsMatchedOnlyByBloomFilter() {
+    //given
+    var deposit = new DepositFunds(Money.of(1), randomCommandId());
+    var charge = new ChargeWallet(Money.of(3), "abc", randomCommandId());
+    //never processed, but its id is in the filter, like a false positive
+    var authorize = new AuthorizeCharge(Money.of(3), "def", randomCommandId());
+    var wallet = new Wallet("1", Money.of(100), HashMap.empty(), HashMap.empty(), DeduplicationWindow.of(List.of(authorize.commandId())));
+    wallet = wallet.apply(wallet.process(deposit).get());
+    wallet = wallet.apply(wallet.process(charge).get());
+    wallet = wallet.apply(wallet.process(new AuthorizeCharge(Money.of(3), "ghi", randomCommandId())).get());
+    for (int i = 0; i < DeduplicationWindow.RECENT_WINDOW_SIZE; i++) {
+      wallet = wallet.apply(wallet.process(new DepositFunds(Money.of(1), randomCommandId())).get());
+    }
+    var updatedWallet = wallet;
+
+    //when
+    var depositAgain = updatedWallet.process(deposit).getLeft();
+    var chargeAgain = updatedWallet.process(charge).getLeft();
+    var authorizeWithFilteredId = updatedWallet.process(authorize).getLeft();
+    var captureWithFilteredId = updatedWallet.process(new CaptureCharge("ghi", deposit.commandId()));
+
+    //then
+    assertThat(List.of(deposit.commandId(), charge.commandId(), authorize.commandId()))
+      .allMatch(commandId -> updatedWallet.commandIds().contains(commandId) && !updatedWallet.commandIds().isRecent(commandId));
+    assertThat(depositAgain).isEqualTo(POSSIBLY_DUPLICATED_COMMAND);
+    assertThat(chargeAgain).isEqualTo(DUPLICATED_COMMAND);
+    assertThat(authorizeWithFilteredId).isEqualTo(POSSIBLY_DUPLICATED_COMMAND);
+    assertThat(captureWithFilteredId.get()).isInstanceOf(WalletEvent.WalletChargeCaptured.class);
+  }
+}